@@ -0,0 +1,115 @@
+package homework1.jmh;
+
+import homework1.BatchRouteFormatter;
+import homework1.DrivingRouteFormatter;
+import homework1.RoadGraph;
+import homework1.Route;
+import homework1.RoutePlanner;
+import homework1.SyntheticGeoSegments;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures formatting a batch of 20,000 driving directions, over 2,000
+ * distinct routes of a 60 x 60 grid, with a BatchRouteFormatter on a pool
+ * of the given number of threads, in ordered and unordered mode, against
+ * formatting the same routes one by one on the calling thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchRouteFormatterBenchmark {
+
+	static final int GRID = 60; // GRID x GRID intersections
+	static final int DISTINCT_ROUTES = 2000;
+	static final int REQUESTS = 20000;
+
+	private ArrayList<BatchRouteFormatter.Request> requests;
+	private DrivingRouteFormatter formatter;
+
+
+	/**
+	 * A BatchRouteFormatter on a pool of its own, so that sequential()
+	 * runs once and batch() runs once for each number of threads and mode.
+	 */
+	@State(Scope.Benchmark)
+	public static class Batch {
+
+		@Param({"1", "2", "4"})
+		public int threads;
+
+		@Param({"true", "false"})
+		public boolean ordered;
+
+		private ForkJoinPool pool;
+		private BatchRouteFormatter formatter;
+
+
+		@Setup
+		public void setup() {
+			pool = new ForkJoinPool(threads);
+			formatter = new BatchRouteFormatter(new DrivingRouteFormatter(), pool,
+					4096 * threads, ordered);
+		}
+
+
+		@TearDown
+		public void tearDown() {
+			pool.shutdown();
+		}
+	}
+
+
+	@Setup
+	public void setup() {
+		RoadGraph graph = new RoadGraph(SyntheticGeoSegments.grid(GRID, GRID, 1), true);
+		RoutePlanner planner = new RoutePlanner(graph);
+		Random random = new Random(8);
+		ArrayList<Route> routes = new ArrayList<Route>();
+		while (routes.size() < DISTINCT_ROUTES) {
+			Route route = planner.findRoute(graph.getNode(random.nextInt(graph.getNodeCount())),
+					graph.getNode(random.nextInt(graph.getNodeCount())));
+			if (route != null)
+				routes.add(route);
+		}
+		requests = new ArrayList<BatchRouteFormatter.Request>();
+		for (int i = 0; i < REQUESTS; i++)
+			requests.add(new BatchRouteFormatter.Request(routes.get(i % DISTINCT_ROUTES), i % 360));
+		formatter = new DrivingRouteFormatter();
+	}
+
+
+	@Benchmark
+	public long sequential() {
+		long characters = 0;
+		for (BatchRouteFormatter.Request r : requests)
+			characters += formatter.computeDirections(r.getRoute(), r.getHeading()).length();
+		return characters;
+	}
+
+
+	@Benchmark
+	public long batch(Batch batch) throws InterruptedException {
+		long[] characters = new long[1];
+		batch.formatter.formatAll(requests, (index, request, directions) ->
+				characters[0] += directions.length());
+		return characters[0];
+	}
+}
@@ -0,0 +1,112 @@
+package homework1.jmh;
+
+import homework1.ContractionHierarchy;
+import homework1.GeoPoint;
+import homework1.RoadGraph;
+import homework1.RoutePlanner;
+import homework1.SyntheticGeoSegments;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures preprocessing a ContractionHierarchy of a 100 x 100 grid with
+ * 1 and 4 threads, and compares its queries with those of Dijkstra's
+ * algorithm and A* of a RoutePlanner. Queries go between random pairs of
+ * intersections and include building the Route. The number of shortcuts
+ * is printed when a trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContractionHierarchyBenchmark {
+
+	static final int GRID = 100; // GRID x GRID intersections
+	static final int QUERIES = 256;
+
+	private RoadGraph graph;
+	private ContractionHierarchy hierarchy;
+	private RoutePlanner planner;
+	private GeoPoint[] sources;
+	private GeoPoint[] targets;
+
+
+	@Setup
+	public void setup() {
+		graph = new RoadGraph(SyntheticGeoSegments.grid(GRID, GRID, 1), true);
+		hierarchy = new ContractionHierarchy(graph);
+		planner = new RoutePlanner(graph);
+		System.out.printf("%ngrid of %d nodes and %d edges, %d shortcuts%n",
+				graph.getNodeCount(), graph.getEdgeCount(), hierarchy.getShortcutCount());
+		Random random = new Random(3);
+		sources = new GeoPoint[QUERIES];
+		targets = new GeoPoint[QUERIES];
+		for (int q = 0; q < QUERIES; q++) {
+			int source = random.nextInt(graph.getNodeCount());
+			int target;
+			do {
+				target = random.nextInt(graph.getNodeCount());
+			} while (target == source);
+			sources[q] = graph.getNode(source);
+			targets[q] = graph.getNode(target);
+		}
+	}
+
+
+	/**
+	 * The number of threads to preprocess with, a state of its own so that
+	 * the queries run only once.
+	 */
+	@State(Scope.Benchmark)
+	public static class Threads {
+
+		@Param({"1", "4"})
+		public int threads;
+	}
+
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public ContractionHierarchy preprocess(Threads threads) {
+		return new ContractionHierarchy(graph, threads.threads);
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void dijkstra(Blackhole bh) {
+		for (int q = 0; q < QUERIES; q++)
+			bh.consume(planner.findRoute(sources[q], targets[q], RoutePlanner.Algorithm.DIJKSTRA));
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void aStar(Blackhole bh) {
+		for (int q = 0; q < QUERIES; q++)
+			bh.consume(planner.findRoute(sources[q], targets[q], RoutePlanner.Algorithm.A_STAR));
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void contractionHierarchy(Blackhole bh) {
+		for (int q = 0; q < QUERIES; q++)
+			bh.consume(hierarchy.findRoute(sources[q], targets[q]));
+	}
+}
@@ -0,0 +1,79 @@
+package homework1.jmh;
+
+import homework1.DecimalFormatter;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares formatting route lengths of up to 50 km to one fraction digit
+ * with a DecimalFormat created for every number, as the route formatters
+ * used to, with a shared DecimalFormat, and with DecimalFormatter
+ * appending into a reused StringBuilder. Run with -prof gc to compare the
+ * bytes allocated per number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecimalFormatterBenchmark {
+
+	static final int VALUES = 1024;
+
+	private double[] values;
+	private DecimalFormat shared;
+	private StringBuilder out;
+
+
+	@Setup
+	public void setup() {
+		Random random = new Random(5);
+		values = new double[VALUES];
+		for (int i = 0; i < VALUES; i++)
+			values[i] = random.nextDouble() * 50;
+		shared = new DecimalFormat("#.#");
+		out = new StringBuilder(64);
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void newDecimalFormat(Blackhole bh) {
+		for (double v : values)
+			bh.consume(new DecimalFormat("#.#").format(v));
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void sharedDecimalFormat(Blackhole bh) {
+		for (double v : values)
+			bh.consume(shared.format(v));
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void decimalFormatter(Blackhole bh) throws IOException {
+		for (double v : values) {
+			out.setLength(0);
+			DecimalFormatter.format(v, 1, out);
+			bh.consume(out.length());
+		}
+	}
+}
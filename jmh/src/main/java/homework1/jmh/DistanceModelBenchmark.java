@@ -0,0 +1,67 @@
+package homework1.jmh;
+
+import homework1.DistanceModel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of a distance with each DistanceModel, on pairs of
+ * points anywhere on earth up to about 100 km apart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceModelBenchmark {
+
+	static final int PAIRS = 1024;
+
+	@Param({"FLAT", "EQUIRECTANGULAR", "HAVERSINE", "VINCENTY"})
+	public String model;
+
+	private DistanceModel distanceModel;
+	private int[] lat1;
+	private int[] lon1;
+	private int[] lat2;
+	private int[] lon2;
+
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		distanceModel = (DistanceModel) DistanceModel.class.getField(model).get(null);
+		Random random = new Random(16);
+		lat1 = new int[PAIRS];
+		lon1 = new int[PAIRS];
+		lat2 = new int[PAIRS];
+		lon2 = new int[PAIRS];
+		for (int i = 0; i < PAIRS; i++) {
+			lat1[i] = random.nextInt(160000000) - 80000000;
+			lon1[i] = random.nextInt(359000000) - 179500000;
+			lat2[i] = lat1[i] + random.nextInt(2000000) - 1000000;
+			lon2[i] = lon1[i] + random.nextInt(1000000) - 500000;
+		}
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public void distance(Blackhole bh) {
+		for (int i = 0; i < PAIRS; i++)
+			bh.consume(distanceModel.distance(lat1[i], lon1[i], lat2[i], lon2[i]));
+	}
+}
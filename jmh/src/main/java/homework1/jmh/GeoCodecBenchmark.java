@@ -0,0 +1,135 @@
+package homework1.jmh;
+
+import homework1.GeoPoint;
+import homework1.GeoReader;
+import homework1.GeoSegment;
+import homework1.GeoWriter;
+import homework1.SyntheticGeoSegments;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing and reading a catalog of 1,000 to 1,000,000 segments
+ * with GeoWriter and GeoReader, with and without their lengths and
+ * headings, against Java serialization of the same fields. GeoSegments
+ * are not Serializable, so the serialized catalog holds one SerialSegment
+ * per segment, and reading it creates the GeoSegments as GeoReader does.
+ * The sizes of both encodings are printed when a trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoCodecBenchmark {
+
+	/**
+	 * The fields of a GeoSegment that Java serialization would write.
+	 */
+	static final class SerialSegment implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final String name;
+		final int lat1, lon1, lat2, lon2;
+		final double length, heading;
+
+		SerialSegment(GeoSegment gs) {
+			name = gs.getName();
+			lat1 = gs.getP1().getLatitude();
+			lon1 = gs.getP1().getLongitude();
+			lat2 = gs.getP2().getLatitude();
+			lon2 = gs.getP2().getLongitude();
+			length = gs.getLength();
+			heading = gs.getHeading();
+		}
+	}
+
+	@Param({"1000", "100000", "1000000"})
+	public int length;
+
+	@Param({"false", "true"})
+	public boolean metrics;
+
+	private GeoSegment[] segments;
+	private byte[] binary;
+	private byte[] serialized;
+
+
+	@Setup
+	public void setup() throws IOException {
+		segments = SyntheticGeoSegments.path(length, 8);
+		binary = writeBinary().toByteArray();
+		serialized = writeSerialized().toByteArray();
+		System.out.printf("%n%d segments: %d bytes binary, %d bytes serialized%n",
+				length, binary.length, serialized.length);
+	}
+
+
+	@Benchmark
+	public ByteArrayOutputStream writeBinary() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GeoWriter writer = new GeoWriter(Channels.newChannel(out), metrics)) {
+			for (GeoSegment gs : segments) {
+				writer.writeSegment(gs);
+			}
+		}
+		return out;
+	}
+
+
+	@Benchmark
+	public GeoSegment[] readBinary() throws IOException {
+		GeoSegment[] read = new GeoSegment[length];
+		try (GeoReader reader = new GeoReader(Channels.newChannel(new ByteArrayInputStream(binary)))) {
+			for (int i = 0; i < read.length; i++) {
+				read[i] = reader.readSegment();
+			}
+		}
+		return read;
+	}
+
+
+	@Benchmark
+	public ByteArrayOutputStream writeSerialized() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+			oos.writeInt(segments.length);
+			for (GeoSegment gs : segments) {
+				oos.writeObject(new SerialSegment(gs));
+			}
+		}
+		return out;
+	}
+
+
+	@Benchmark
+	public GeoSegment[] readSerialized() throws IOException, ClassNotFoundException {
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+			GeoSegment[] read = new GeoSegment[ois.readInt()];
+			for (int i = 0; i < read.length; i++) {
+				SerialSegment s = (SerialSegment) ois.readObject();
+				read[i] = new GeoSegment(s.name, new GeoPoint(s.lat1, s.lon1),
+						new GeoPoint(s.lat2, s.lon2));
+			}
+			return read;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package homework1.jmh;
+
+import homework1.GeoKernels;
+import homework1.GeoPoint;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares computing the distances and headings of 65,536 pairs of points
+ * near the Technion with GeoPoint.distanceTo(), headingTo() and
+ * fastHeadingTo() on GeoPoint objects against the GeoKernels bulk loops
+ * over coordinate arrays. Times are per pair.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoKernelsBenchmark {
+
+	static final int PAIRS = 1 << 16;
+
+	private int[] lat1;
+	private int[] lon1;
+	private int[] lat2;
+	private int[] lon2;
+	private GeoPoint[] from;
+	private GeoPoint[] to;
+	private double[] out;
+
+
+	@Setup
+	public void setup() {
+		Random random = new Random(2);
+		lat1 = new int[PAIRS];
+		lon1 = new int[PAIRS];
+		lat2 = new int[PAIRS];
+		lon2 = new int[PAIRS];
+		from = new GeoPoint[PAIRS];
+		to = new GeoPoint[PAIRS];
+		for (int i = 0; i < PAIRS; i++) {
+			lat1[i] = 32700000 + random.nextInt(200000);
+			lon1[i] = 34950000 + random.nextInt(200000);
+			lat2[i] = 32700000 + random.nextInt(200000);
+			lon2[i] = 34950000 + random.nextInt(200000);
+			from[i] = new GeoPoint(lat1[i], lon1[i]);
+			to[i] = new GeoPoint(lat2[i], lon2[i]);
+		}
+		out = new double[PAIRS];
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public double[] distanceTo() {
+		for (int i = 0; i < PAIRS; i++)
+			out[i] = from[i].distanceTo(to[i]);
+		return out;
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public double[] distances() {
+		GeoKernels.distances(lat1, lon1, lat2, lon2, out, PAIRS);
+		return out;
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public double[] distancesFrom() {
+		GeoKernels.distancesFrom(lat1[0], lon1[0], lat2, lon2, out, PAIRS);
+		return out;
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public double[] headingTo() {
+		for (int i = 0; i < PAIRS; i++)
+			out[i] = from[i].headingTo(to[i]);
+		return out;
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public double[] headings() {
+		GeoKernels.headings(lat1, lon1, lat2, lon2, out, PAIRS);
+		return out;
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public double[] fastHeadingTo() {
+		for (int i = 0; i < PAIRS; i++)
+			out[i] = from[i].fastHeadingTo(to[i]);
+		return out;
+	}
+}
@@ -0,0 +1,73 @@
+package homework1.jmh;
+
+import homework1.GeoPoint;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures GeoPoint.distanceTo(), headingTo() and fastHeadingTo() on pairs
+ * of points up to about 10 km apart near the Technion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoPointBenchmark {
+
+	static final int PAIRS = 1024;
+
+	private GeoPoint[] from;
+	private GeoPoint[] to;
+
+
+	@Setup
+	public void setup() {
+		Random random = new Random(17);
+		from = new GeoPoint[PAIRS];
+		to = new GeoPoint[PAIRS];
+		for (int i = 0; i < PAIRS; i++) {
+			from[i] = new GeoPoint(32783098 + random.nextInt(90000),
+					35014528 + random.nextInt(107000));
+			to[i] = new GeoPoint(from[i].getLatitude() + 1 + random.nextInt(90000),
+					from[i].getLongitude() - 53500 + random.nextInt(107000));
+		}
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public void distanceTo(Blackhole bh) {
+		for (int i = 0; i < PAIRS; i++)
+			bh.consume(from[i].distanceTo(to[i]));
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public void headingTo(Blackhole bh) {
+		for (int i = 0; i < PAIRS; i++)
+			bh.consume(from[i].headingTo(to[i]));
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public void fastHeadingTo(Blackhole bh) {
+		for (int i = 0; i < PAIRS; i++)
+			bh.consume(from[i].fastHeadingTo(to[i]));
+	}
+}
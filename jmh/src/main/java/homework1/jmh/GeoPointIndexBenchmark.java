@@ -0,0 +1,93 @@
+package homework1.jmh;
+
+import homework1.GeoPoint;
+import homework1.GeoPointIndex;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares putting every point of a city-sized grid into a GeoPointIndex
+ * and getting it back against doing the same with a
+ * HashMap&lt;GeoPoint,Integer&gt;. When a trial starts, prints how many
+ * buckets of a table of 2^20 the points fall into with the hash code
+ * GeoPoint used to have and with the current one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoPointIndexBenchmark {
+
+	static final int SPACING = 37; // millionths of a degree
+	static final int BUCKET_BITS = 20;
+
+	@Param({"100", "1000"})
+	public int grid; // grid x grid points
+
+	private GeoPoint[] points;
+
+
+	@Setup
+	public void setup() {
+		points = new GeoPoint[grid * grid];
+		for (int i = 0; i < grid; i++)
+			for (int j = 0; j < grid; j++)
+				points[i * grid + j] = new GeoPoint(32700000 + i * SPACING, 34950000 + j * SPACING);
+		boolean[] legacy = new boolean[1 << BUCKET_BITS];
+		boolean[] current = new boolean[1 << BUCKET_BITS];
+		int legacyCount = 0;
+		int currentCount = 0;
+		for (GeoPoint gp : points) {
+			int l = ((gp.getLatitude() / 1000000 + gp.getLongitude() / 1000000) / 2)
+					& ((1 << BUCKET_BITS) - 1);
+			int c = gp.hashCode() & ((1 << BUCKET_BITS) - 1);
+			if (!legacy[l]) {
+				legacy[l] = true;
+				legacyCount++;
+			}
+			if (!current[c]) {
+				current[c] = true;
+				currentCount++;
+			}
+		}
+		System.out.printf("%n%d points over %d buckets: old hashCode uses %d, new hashCode uses %d%n",
+				points.length, 1 << BUCKET_BITS, legacyCount, currentCount);
+	}
+
+
+	@Benchmark
+	public long hashMap() {
+		HashMap<GeoPoint, Integer> map = new HashMap<>(points.length * 2);
+		for (int i = 0; i < points.length; i++)
+			map.put(points[i], i);
+		long checksum = 0;
+		for (GeoPoint gp : points)
+			checksum += map.get(gp);
+		return checksum;
+	}
+
+
+	@Benchmark
+	public long geoPointIndex() {
+		GeoPointIndex index = new GeoPointIndex(points.length);
+		for (int i = 0; i < points.length; i++)
+			index.put(points[i], i);
+		long checksum = 0;
+		for (GeoPoint gp : points)
+			checksum += index.get(gp);
+		return checksum;
+	}
+}
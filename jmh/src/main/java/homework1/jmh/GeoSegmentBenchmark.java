@@ -0,0 +1,77 @@
+package homework1.jmh;
+
+import homework1.GeoPoint;
+import homework1.GeoSegment;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures constructing GeoSegments, which computes their length and
+ * heading, and reversing them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoSegmentBenchmark {
+
+	static final int SEGMENTS = 1024;
+
+	private GeoPoint[] from;
+	private GeoPoint[] to;
+	private GeoSegment[] segments;
+
+
+	@Setup
+	public void setup() {
+		Random random = new Random(18);
+		from = new GeoPoint[SEGMENTS];
+		to = new GeoPoint[SEGMENTS];
+		segments = new GeoSegment[SEGMENTS];
+		for (int i = 0; i < SEGMENTS; i++) {
+			from[i] = new GeoPoint(32783098 + random.nextInt(90000),
+					35014528 + random.nextInt(107000));
+			to[i] = new GeoPoint(from[i].getLatitude() + 1 + random.nextInt(900),
+					from[i].getLongitude() - 535 + random.nextInt(1070));
+			segments[i] = new GeoSegment("Street", from[i], to[i]);
+		}
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(SEGMENTS)
+	public void construct(Blackhole bh) {
+		for (int i = 0; i < SEGMENTS; i++)
+			bh.consume(new GeoSegment("Street", from[i], to[i]));
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(SEGMENTS)
+	public void constructFastHeading(Blackhole bh) {
+		for (int i = 0; i < SEGMENTS; i++)
+			bh.consume(new GeoSegment("Street", from[i], to[i], true));
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(SEGMENTS)
+	public void reverse(Blackhole bh) {
+		for (int i = 0; i < SEGMENTS; i++)
+			bh.consume(segments[i].reverse());
+	}
+}
@@ -0,0 +1,81 @@
+package homework1.jmh;
+
+import homework1.GeoSegmentLoader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading a generated file of 1,000,000 lines with 1 and 4
+ * threads. The segments form a path that changes street every 8 segments,
+ * like SyntheticGeoSegments.path(). The size of the file is printed when a
+ * trial starts; divided by the score it gives the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoSegmentLoaderBenchmark {
+
+	@Param({"1000000"})
+	public int length;
+
+	@Param({"1", "4"})
+	public int threads;
+
+	private Path file;
+	private ExecutorService executor;
+	private GeoSegmentLoader loader;
+
+
+	@Setup
+	public void setup() throws IOException {
+		file = Files.createTempFile("segments", ".csv");
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			int lat = 32783098;
+			int lon = 35014528;
+			for (int i = 0; i < length; i++) {
+				int lat2 = i % 2 == 0 ? lat + 90 : lat;
+				int lon2 = i % 2 == 0 ? lon : lon + 107;
+				out.write("Street " + (i / 8) + "," + lat + "," + lon + "," + lat2 + "," + lon2 + "\n");
+				lat = lat2;
+				lon = lon2;
+			}
+		}
+		System.out.printf("%n%d lines: %d bytes%n", length, Files.size(file));
+		executor = Executors.newFixedThreadPool(threads);
+		loader = new GeoSegmentLoader(executor, 1 << 20);
+	}
+
+
+	@TearDown
+	public void tearDown() throws IOException {
+		executor.shutdown();
+		Files.deleteIfExists(file);
+	}
+
+
+	@Benchmark
+	public GeoSegmentLoader.Result load() throws IOException, InterruptedException {
+		return loader.load(file);
+	}
+}
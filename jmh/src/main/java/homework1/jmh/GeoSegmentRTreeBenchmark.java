@@ -0,0 +1,100 @@
+package homework1.jmh;
+
+import homework1.GeoPoint;
+import homework1.GeoSegment;
+import homework1.GeoSegmentRTree;
+import homework1.SyntheticGeoSegments;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares finding the segment nearest to a point with a GeoSegmentRTree
+ * against a linear scan, on grids of about 20,000 and a million segments,
+ * and measures finding the 10 nearest segments and bulk loading the tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoSegmentRTreeBenchmark {
+
+	static final int QUERIES = 1024;
+
+	@Param({"100", "708"})
+	public int grid; // grid x grid intersections
+
+	private GeoSegment[] segments;
+	private GeoSegmentRTree tree;
+	private GeoPoint[] points;
+
+
+	@Setup
+	public void setup() {
+		segments = SyntheticGeoSegments.grid(grid, grid, 1);
+		tree = new GeoSegmentRTree(segments);
+		GeoPoint corner = segments[0].getP1();
+		Random random = new Random(3);
+		points = new GeoPoint[QUERIES];
+		for (int q = 0; q < QUERIES; q++)
+			points[q] = new GeoPoint(corner.getLatitude() + random.nextInt(grid * 900),
+					corner.getLongitude() + random.nextInt(grid * 1070));
+	}
+
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public GeoSegmentRTree build() {
+		return new GeoSegmentRTree(segments);
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void nearest(Blackhole bh) {
+		for (GeoPoint gp : points)
+			bh.consume(tree.nearest(gp));
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void nearest10(Blackhole bh) {
+		for (GeoPoint gp : points)
+			bh.consume(tree.nearest(gp, 10));
+	}
+
+
+	/**
+	 * Finds the segment nearest to one of the points by scanning every
+	 * segment, as had to be done before the tree.
+	 */
+	@Benchmark
+	public GeoSegment scan() {
+		GeoPoint gp = points[0];
+		GeoSegment best = null;
+		double bestDistance = Double.POSITIVE_INFINITY;
+		for (GeoSegment gs : segments) {
+			double d = gs.distanceTo(gp);
+			if (d < bestDistance) {
+				bestDistance = d;
+				best = gs;
+			}
+		}
+		return best;
+	}
+}
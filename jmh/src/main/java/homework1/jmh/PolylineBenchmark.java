@@ -0,0 +1,83 @@
+package homework1.jmh;
+
+import homework1.GeoPointStore;
+import homework1.Polyline;
+import homework1.Route;
+import homework1.RouteBuilder;
+import homework1.SyntheticGeoSegments;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures encoding the geometry of routes of 1,000 and 100,000 segments
+ * as an exact polyline, into a reused StringBuilder and a reused
+ * ByteBuffer, decoding it, and Route.toString() for comparison. The sizes
+ * of the polyline and of toString() are printed when a trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolylineBenchmark {
+
+	@Param({"1000", "100000"})
+	public int length;
+
+	private Route route;
+	private String polyline;
+	private StringBuilder out;
+	private ByteBuffer buffer;
+
+
+	@Setup
+	public void setup() {
+		route = new RouteBuilder(length).addSegments(SyntheticGeoSegments.path(length, 8)).freeze();
+		polyline = Polyline.encode(route, Polyline.EXACT_PRECISION);
+		out = new StringBuilder(polyline.length());
+		buffer = ByteBuffer.allocate(polyline.length());
+		System.out.printf("%n%d segments: %d characters of polyline, %d of toString()%n",
+				length, polyline.length(), route.toString().length());
+	}
+
+
+	@Benchmark
+	public StringBuilder encodeAppendable() throws IOException {
+		out.setLength(0);
+		Polyline.encode(route, Polyline.EXACT_PRECISION, out);
+		return out;
+	}
+
+
+	@Benchmark
+	public ByteBuffer encodeByteBuffer() {
+		buffer.clear();
+		Polyline.encode(route, Polyline.EXACT_PRECISION, buffer);
+		return buffer;
+	}
+
+
+	@Benchmark
+	public GeoPointStore decode() {
+		return Polyline.decode(polyline, Polyline.EXACT_PRECISION);
+	}
+
+
+	@Benchmark
+	public String routeToString() {
+		return route.toString();
+	}
+}
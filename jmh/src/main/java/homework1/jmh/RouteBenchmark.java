@@ -0,0 +1,160 @@
+package homework1.jmh;
+
+import homework1.GeoPoint;
+import homework1.GeoSegment;
+import homework1.Route;
+import homework1.RouteBuilder;
+import homework1.SyntheticGeoSegments;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Route.addSegment() on routes of growing length, building
+ * whole routes with addSegment() and with a RouteBuilder, and equals()
+ * and hashCode() on long routes: equal routes built separately, equal
+ * routes extending a common route, and routes of the same length that only
+ * differ in their middle segment. Also measures finding the segment and
+ * the point at 70% of the length of a route, against summing the lengths
+ * of its segments. The routes change street every 8 segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteBenchmark {
+
+	static final int SEGMENTS_PER_STREET = 8;
+
+	@Param({"10", "1000", "100000"})
+	public int length;
+
+	private GeoSegment[] segments;
+	private Route route; // the first length segments
+	private Route copy; // equal to route, built separately
+	private GeoSegment next; // the segment after route
+	private Route extended; // route followed by next
+	private Route extendedCopy; // equal to extended, sharing route with it
+	private Route renamed; // route with its middle segment renamed
+	private double offset; // 70% of the length of route
+
+
+	static Route chain(GeoSegment[] segments, int length) {
+		Route r = new Route(segments[0]);
+		for (int i = 1; i < length; i++)
+			r = r.addSegment(segments[i]);
+		return r;
+	}
+
+
+	@Setup
+	public void setup() {
+		segments = SyntheticGeoSegments.path(length + 1, SEGMENTS_PER_STREET);
+		route = chain(segments, length);
+		copy = chain(segments, length);
+		next = segments[length];
+		extended = route.addSegment(next);
+		extendedCopy = route.addSegment(next);
+		GeoSegment[] other = segments.clone();
+		GeoSegment middle = segments[length / 2];
+		other[length / 2] = new GeoSegment("Renamed", middle.getP1(), middle.getP2());
+		renamed = chain(other, length);
+		offset = route.getLength() * 0.7;
+		route.getGeoSegmentAt(offset); // builds the index of route
+	}
+
+
+	/**
+	 * Extends a route of the given length by one segment.
+	 */
+	@Benchmark
+	public Route addSegment() {
+		return route.addSegment(next);
+	}
+
+
+	/**
+	 * Builds a route of the given length with addSegment().
+	 */
+	@Benchmark
+	public Route build() {
+		return chain(segments, length);
+	}
+
+
+	/**
+	 * Builds a route of the given length with a RouteBuilder.
+	 */
+	@Benchmark
+	public Route buildWithRouteBuilder() {
+		RouteBuilder builder = new RouteBuilder(length);
+		for (int i = 0; i < length; i++)
+			builder.addSegment(segments[i]);
+		return builder.freeze();
+	}
+
+
+	@Benchmark
+	public boolean equalsCopy() {
+		return route.equals(copy);
+	}
+
+
+	@Benchmark
+	public boolean equalsExtension() {
+		return extended.equals(extendedCopy);
+	}
+
+
+	@Benchmark
+	public boolean equalsRenamed() {
+		return route.equals(renamed);
+	}
+
+
+	@Benchmark
+	public int hashCodeOfRoute() {
+		return route.hashCode();
+	}
+
+
+	@Benchmark
+	public GeoSegment segmentAt() {
+		return route.getGeoSegmentAt(offset);
+	}
+
+
+	@Benchmark
+	public GeoPoint pointAt() {
+		return route.getPointAt(offset);
+	}
+
+
+	/**
+	 * Finds the segment at offset by summing the lengths of the segments
+	 * before it, as was done before routes had an index.
+	 */
+	@Benchmark
+	public GeoSegment segmentAtByWalk() {
+		double end = 0;
+		Iterator<GeoSegment> i = route.getGeoSegments();
+		GeoSegment gs = null;
+		while (i.hasNext() && end <= offset) {
+			gs = i.next();
+			end += gs.getLength();
+		}
+		return gs;
+	}
+}
@@ -0,0 +1,80 @@
+package homework1.jmh;
+
+import homework1.CachingRouteFormatter;
+import homework1.DrivingRouteFormatter;
+import homework1.GeoSegment;
+import homework1.Route;
+import homework1.RouteBuilder;
+import homework1.RouteFormatter;
+import homework1.SyntheticGeoSegments;
+import homework1.WalkingRouteFormatter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures computing the directions of routes of 10 to 100,000 segments
+ * with the driving and walking formatters, both into a new String and
+ * into a reused StringBuilder, and looking up the driving directions in a
+ * CachingRouteFormatter, where every call after the first one hits. The
+ * routes change street every 8 segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteFormatterBenchmark {
+
+	static final int SEGMENTS_PER_STREET = 8;
+
+	@Param({"10", "100", "1000", "10000", "100000"})
+	public int length;
+
+	@Param({"driving", "walking", "cached"})
+	public String formatter;
+
+	private RouteFormatter routeFormatter;
+	private Route route;
+	private StringBuilder out;
+
+
+	@Setup
+	public void setup() {
+		if (formatter.equals("driving")) {
+			routeFormatter = new DrivingRouteFormatter();
+		} else if (formatter.equals("walking")) {
+			routeFormatter = new WalkingRouteFormatter();
+		} else {
+			routeFormatter = new CachingRouteFormatter(new DrivingRouteFormatter(), 16, 1L << 30);
+		}
+		GeoSegment[] segments = SyntheticGeoSegments.path(length, SEGMENTS_PER_STREET);
+		route = new RouteBuilder(length).addSegments(segments).freeze();
+		out = new StringBuilder();
+	}
+
+
+	@Benchmark
+	public String computeDirections() {
+		return routeFormatter.computeDirections(route, 0);
+	}
+
+
+	@Benchmark
+	public StringBuilder computeDirectionsAppendable() throws IOException {
+		out.setLength(0);
+		routeFormatter.computeDirections(route, 0, out);
+		return out;
+	}
+}
@@ -0,0 +1,77 @@
+package homework1.jmh;
+
+import homework1.GeoPointStore;
+import homework1.Route;
+import homework1.RouteBuilder;
+import homework1.RouteSimplifier;
+import homework1.SyntheticGeoSegments;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures simplifying routes of 1,000 and 100,000 segments with a
+ * tolerance of 20 meters, by both methods, into points and into a Route
+ * that keeps its geographic features. The number of points kept is printed
+ * when a trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteSimplifierBenchmark {
+
+	private static final double TOLERANCE = 0.02;
+
+	@Param({"1000", "100000"})
+	public int length;
+
+	@Param({"DOUGLAS_PEUCKER", "VISVALINGAM"})
+	public RouteSimplifier.Method method;
+
+	private Route route;
+	private RouteSimplifier simplifier;
+
+
+	@Setup
+	public void setup() {
+		route = new RouteBuilder(length).addSegments(SyntheticGeoSegments.path(length, 64)).freeze();
+		simplifier = new RouteSimplifier(method);
+		System.out.printf("%n%d segments: %d points kept, %d segments in the simplified route%n",
+				length, simplifier.simplifyPoints(route, TOLERANCE).size(),
+				countSegments(simplifier.simplify(route, TOLERANCE)));
+	}
+
+
+	@Benchmark
+	public GeoPointStore simplifyPoints() {
+		return simplifier.simplifyPoints(route, TOLERANCE);
+	}
+
+
+	@Benchmark
+	public Route simplifyRoute() {
+		return simplifier.simplify(route, TOLERANCE);
+	}
+
+
+	private static int countSegments(Route route) {
+		int count = 0;
+		for (Iterator<?> i = route.getGeoSegments(); i.hasNext(); i.next()) {
+			count++;
+		}
+		return count;
+	}
+}
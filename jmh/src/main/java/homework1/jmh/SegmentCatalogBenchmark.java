@@ -0,0 +1,115 @@
+package homework1.jmh;
+
+import homework1.GeoSegment;
+import homework1.SegmentCatalog;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures opening a generated catalog of 100,000 to 5,000,000 segments,
+ * scanning the lengths of all its segments, and creating the GeoSegment
+ * of a random index. The segments form a path that changes street every 8
+ * segments, like SyntheticGeoSegments.path(). The size of the file and the
+ * heap an opened catalog retains are printed when a trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SegmentCatalogBenchmark {
+
+	@Param({"100000", "5000000"})
+	public int length;
+
+	private Path file;
+	private SegmentCatalog catalog;
+	private Random random;
+
+
+	@Setup
+	public void setup() throws IOException {
+		file = Files.createTempFile("segments", ".catalog");
+		write(file, length);
+		long before = usedHeap();
+		catalog = SegmentCatalog.open(file);
+		long after = usedHeap();
+		System.out.printf("%n%d segments: %d bytes mapped, %d bytes of heap%n",
+				length, Files.size(file), after - before);
+		random = new Random(1);
+	}
+
+
+	/**
+	 * Writes the catalog in a method of its own, so that the names the
+	 * Writer holds are garbage by the time the heap is measured.
+	 */
+	private static void write(Path file, int length) throws IOException {
+		try (SegmentCatalog.Writer writer = new SegmentCatalog.Writer(file)) {
+			int lat = 32783098;
+			int lon = 35014528;
+			for (int i = 0; i < length; i++) {
+				int lat2 = i % 2 == 0 ? lat + 90 : lat;
+				int lon2 = i % 2 == 0 ? lon : lon + 107;
+				writer.add("Street " + (i / 8), lat, lon, lat2, lon2);
+				lat = lat2;
+				lon = lon2;
+			}
+		}
+	}
+
+
+	@TearDown
+	public void tearDown() throws IOException {
+		catalog = null;
+		Files.deleteIfExists(file);
+	}
+
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+
+	@Benchmark
+	public SegmentCatalog open() throws IOException {
+		return SegmentCatalog.open(file);
+	}
+
+
+	@Benchmark
+	public double scanLengths() {
+		double sum = 0;
+		for (int i = 0; i < catalog.size(); i++) {
+			sum += catalog.getLength(i);
+		}
+		return sum;
+	}
+
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public GeoSegment getSegment() {
+		return catalog.getSegment(random.nextInt(length));
+	}
+}
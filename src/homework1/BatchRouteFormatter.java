@@ -0,0 +1,254 @@
+package homework1;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * A BatchRouteFormatter computes the directions of many routes in parallel
+ * with a RouteFormatter. BatchRouteFormatters are immutable, and may be
+ * used by several threads at once if their RouteFormatter may.
+ * <p>
+ * The requests are read lazily from an Iterator or a Stream, and cut into
+ * chunks that are formatted by the threads of an ExecutorService, such as
+ * a ForkJoinPool. At most maxInFlight requests are read but not yet
+ * delivered at any time, so a batch of millions of routes uses a bounded
+ * amount of memory. The directions are delivered to a Sink on the thread
+ * that called formatAll(), one at a time, either in the order of the
+ * requests or in the order they are completed.
+ **/
+public class BatchRouteFormatter {
+
+    /**
+     * A route to format and the heading the directions start at.
+     **/
+    public static final class Request {
+
+        private final Route route;
+        private final double heading;
+
+        /**
+         * Constructs a new Request.
+         *
+         * @requires route != null && 0 <= heading < 360
+         * @effects Constructs a new Request to format route starting at
+         * heading
+         **/
+        public Request(Route route, double heading) {
+            this.route = route;
+            this.heading = heading;
+        }
+
+        /**
+         * Returns the route to format.
+         *
+         * @return the route to format.
+         **/
+        public Route getRoute() {
+            return this.route;
+        }
+
+        /**
+         * Returns the initial heading.
+         *
+         * @return the heading the directions start at.
+         **/
+        public double getHeading() {
+            return this.heading;
+        }
+    }
+
+    /**
+     * Receives the directions computed by formatAll().
+     **/
+    public interface Sink {
+
+        /**
+         * Receives the directions of a single request.
+         *
+         * @param index      the position of the request among the requests
+         *                   of the batch, starting at 0.
+         * @param request    the request.
+         * @param directions the directions computed for the request.
+         **/
+        void accept(long index, Request request, String directions);
+    }
+
+    private static final int CHUNK_SIZE = 32; // requests formatted by a single task
+
+    private final RouteFormatter formatter; // computes the directions
+    private final ExecutorService executor; // runs the formatting tasks
+    private final int maxInFlight; // most requests read but not delivered
+    private final boolean ordered; // deliver in the order of the requests
+
+    // Representation invariant for every BatchRouteFormatter b:
+    // b.formatter != null && b.executor != null && b.maxInFlight >= 1
+
+    /**
+     * Constructs a BatchRouteFormatter that formats on the common
+     * ForkJoinPool and delivers the directions in the order of the requests.
+     *
+     * @requires formatter != null
+     * @effects Constructs a new BatchRouteFormatter that formats with
+     * formatter, keeping at most 64 chunks of requests in flight per thread
+     * of the pool
+     **/
+    public BatchRouteFormatter(RouteFormatter formatter) {
+        this(formatter, ForkJoinPool.commonPool(),
+                64 * CHUNK_SIZE * ForkJoinPool.commonPool().getParallelism(), true);
+    }
+
+    /**
+     * Constructs a BatchRouteFormatter.
+     *
+     * @requires formatter != null && executor != null && maxInFlight >= 1
+     * @effects Constructs a new BatchRouteFormatter that formats with
+     * formatter on the threads of executor, with at most maxInFlight
+     * requests read but not yet delivered, and delivers the directions in
+     * the order of the requests if ordered is true, and as soon as they are
+     * computed otherwise
+     **/
+    public BatchRouteFormatter(RouteFormatter formatter, ExecutorService executor,
+                               int maxInFlight, boolean ordered) {
+        this.formatter = formatter;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+        checkRep();
+    }
+
+    /**
+     * Formats a stream of requests.
+     *
+     * @requires requests != null && sink != null && no element of requests
+     * is null
+     * @effects same as formatAll(requests.iterator(), sink)
+     * @return the number of formatted requests.
+     * @throws InterruptedException if the calling thread is interrupted.
+     * @throws IllegalStateException if the formatter throws an exception,
+     * which is the cause of the IllegalStateException.
+     **/
+    public long formatAll(Stream<Request> requests, Sink sink) throws InterruptedException {
+        return formatAll(requests.iterator(), sink);
+    }
+
+    /**
+     * Formats a collection of requests.
+     *
+     * @requires requests != null && sink != null && no element of requests
+     * is null
+     * @effects same as formatAll(requests.iterator(), sink)
+     * @return the number of formatted requests.
+     * @throws InterruptedException if the calling thread is interrupted.
+     * @throws IllegalStateException if the formatter throws an exception,
+     * which is the cause of the IllegalStateException.
+     **/
+    public long formatAll(Iterable<Request> requests, Sink sink) throws InterruptedException {
+        return formatAll(requests.iterator(), sink);
+    }
+
+    /**
+     * Formats requests in parallel.
+     *
+     * @requires requests != null && sink != null && no element of requests
+     * is null
+     * @effects calls sink.accept(i, r, formatter.computeDirections(
+     * r.route, r.heading)) for the i-th request r of requests, for every i,
+     * on the calling thread. If ordered is true the calls are made in
+     * increasing order of i. If the formatter throws an exception, some of
+     * the requests are not delivered and the remaining tasks are cancelled.
+     * @return the number of formatted requests.
+     * @throws InterruptedException if the calling thread is interrupted.
+     * @throws IllegalStateException if the formatter throws an exception,
+     * which is the cause of the IllegalStateException.
+     **/
+    public long formatAll(Iterator<Request> requests, Sink sink) throws InterruptedException {
+        int chunkSize = Math.min(CHUNK_SIZE, this.maxInFlight);
+        int maxChunks = Math.max(1, this.maxInFlight / chunkSize);
+        // ordered mode waits for the oldest chunk, unordered mode for any
+        ArrayDeque<Future<Chunk>> pending = new ArrayDeque<Future<Chunk>>();
+        CompletionService<Chunk> completed = new ExecutorCompletionService<Chunk>(this.executor);
+        long read = 0;
+        long delivered = 0;
+        try {
+            while (true) {
+                while (pending.size() < maxChunks && requests.hasNext()) {
+                    Chunk chunk = new Chunk(read, chunkSize);
+                    while (chunk.size < chunkSize && requests.hasNext()) {
+                        chunk.requests[chunk.size++] = requests.next();
+                    }
+                    read += chunk.size;
+                    pending.add(this.ordered ? this.executor.submit(chunk)
+                            : completed.submit(chunk));
+                }
+                if (pending.isEmpty()) {
+                    return delivered;
+                }
+                Future<Chunk> next;
+                if (this.ordered) {
+                    next = pending.poll();
+                } else {
+                    next = completed.take();
+                    pending.remove(next);
+                }
+                Chunk chunk = next.get();
+                for (int i = 0; i < chunk.size; i++) {
+                    sink.accept(chunk.first + i, chunk.requests[i], chunk.directions[i]);
+                }
+                delivered += chunk.size;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Formatting failed", e.getCause());
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Formatting was cancelled", e);
+        } finally {
+            for (Future<Chunk> f : pending) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * A task that formats consecutive requests of a batch.
+     */
+    private final class Chunk implements Callable<Chunk> {
+        final long first; // index of the first request in the batch
+        final Request[] requests;
+        final String[] directions; // directions[i] is computed for requests[i]
+        int size; // number of requests in the chunk
+
+        Chunk(long first, int capacity) {
+            this.first = first;
+            this.requests = new Request[capacity];
+            this.directions = new String[capacity];
+        }
+
+        @Override
+        public Chunk call() {
+            for (int i = 0; i < this.size; i++) {
+                this.directions[i] = formatter.computeDirections(this.requests[i].route,
+                        this.requests[i].heading);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.formatter != null && this.executor != null :
+                "Formatter and executor must not be null";
+        assert this.maxInFlight >= 1 : "At least one request must be in flight";
+    }
+}
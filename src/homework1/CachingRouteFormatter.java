@@ -0,0 +1,133 @@
+package homework1;
+
+import java.io.IOException;
+
+/**
+ * A CachingRouteFormatter computes directions with another RouteFormatter
+ * and keeps them in a DirectionsCache, so that directions asked for again
+ * with the same route and heading are not computed again.
+ * <p>
+ * Routes are looked up by their fingerprint, so a miss costs a constant
+ * time on top of computing the directions, and a hit costs comparing the
+ * route with the cached one. Several CachingRouteFormatters may share a
+ * DirectionsCache, since its entries are also keyed by the class of the
+ * formatter. A CachingRouteFormatter may be used by several threads at
+ * once if its formatter may; two threads missing the same directions at
+ * the same time both compute them.
+ **/
+public class CachingRouteFormatter extends RouteFormatter {
+
+    private final RouteFormatter formatter; // computes the directions
+    private final DirectionsCache cache; // holds the directions computed
+
+    /**
+     * Constructs a new CachingRouteFormatter.
+     *
+     * @requires formatter != null && cache != null
+     * @effects Constructs a new CachingRouteFormatter that computes
+     * directions with formatter and keeps them in cache
+     **/
+    public CachingRouteFormatter(RouteFormatter formatter, DirectionsCache cache) {
+        this.formatter = formatter;
+        this.cache = cache;
+    }
+
+    /**
+     * Constructs a new CachingRouteFormatter with a cache of its own.
+     *
+     * @requires formatter != null && maxEntries >= 1 && maxWeight >= 1
+     * @effects Constructs a new CachingRouteFormatter that computes
+     * directions with formatter and keeps them in a new DirectionsCache of
+     * at most maxEntries entries and maxWeight characters
+     **/
+    public CachingRouteFormatter(RouteFormatter formatter, int maxEntries, long maxWeight) {
+        this(formatter, new DirectionsCache(maxEntries, maxWeight));
+    }
+
+    /**
+     * Returns the cache the directions are kept in.
+     *
+     * @return the DirectionsCache of this formatter.
+     **/
+    public DirectionsCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Give directions for following this Route, starting at its start point
+     * and facing in the specified heading. The directions are looked up in
+     * the cache, and computed with the formatter and cached if they are
+     * not there.
+     *
+     * @param route   the route for which to print directions.
+     * @param heading the initial heading.
+     * @return the directions the formatter computes for route and heading.
+     * @modifies this.cache
+     * @requires route != null &&
+     * 0 <= heading < 360
+     **/
+    @Override
+    public String computeDirections(Route route, double heading) {
+        String directions = this.cache.get(this.formatter, route, heading);
+        if (directions == null) {
+            directions = this.formatter.computeDirections(route, heading);
+            this.cache.put(this.formatter, route, heading, directions);
+        }
+        return directions;
+    }
+
+    /**
+     * Appends directions for following this Route, starting at its start
+     * point and facing in the specified heading, to an Appendable. The
+     * directions are looked up in the cache as by computeDirections(route,
+     * heading), and appended at once.
+     *
+     * @param route   the route for which to print directions.
+     * @param heading the initial heading.
+     * @param out     where the directions are appended.
+     * @modifies out, this.cache
+     * @effects appends to out the String computeDirections(route, heading)
+     * would return.
+     * @throws IOException if out throws it.
+     * @requires route != null && out != null &&
+     * 0 <= heading < 360
+     **/
+    @Override
+    public void computeDirections(Route route, double heading, Appendable out)
+            throws IOException {
+        out.append(computeDirections(route, heading));
+    }
+
+    /**
+     * Computes a single line of directions with the formatter. Lines are
+     * not cached.
+     *
+     * @param geoFeature  the geographical feature to traverse.
+     * @param origHeading the initial heading.
+     * @return the line the formatter computes for geoFeature.
+     * @requires geoFeature != null
+     */
+    @Override
+    public String computeLine(GeoFeature geoFeature, double origHeading) {
+        return this.formatter.computeLine(geoFeature, origHeading);
+    }
+
+    /**
+     * Appends a single line of directions computed by the formatter to an
+     * Appendable. Lines are not cached.
+     *
+     * @param geoFeature  the geographical feature to traverse.
+     * @param origHeading the initial heading.
+     * @param out         where the line is appended.
+     * @modifies out
+     * @effects appends to out the String computeLine(geoFeature,
+     * origHeading) would return.
+     * @throws IOException if out throws it.
+     * @requires geoFeature != null && out != null
+     */
+    @Override
+    public void computeLine(GeoFeature geoFeature, double origHeading, Appendable out)
+            throws IOException {
+        this.formatter.computeLine(geoFeature, origHeading, out);
+    }
+}
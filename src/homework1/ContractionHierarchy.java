@@ -0,0 +1,777 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A ContractionHierarchy answers shortest route queries on a RoadGraph much
+ * faster than a RoutePlanner, after a preprocessing step. ContractionHierarchies
+ * are immutable and may be used by several threads at once.
+ * <p>
+ * Preprocessing contracts the nodes of the graph one by one, in an order
+ * that prefers nodes whose contraction adds few edges. Contracting a node v
+ * removes it and adds a shortcut edge u-&gt;w for every pair of neighbours
+ * whose shortest path passed through v. The rank of a node is its position
+ * in the contraction order. A shortest path can then be found by two small
+ * Dijkstra searches, from the start and backwards from the end, that only
+ * follow edges towards nodes of higher rank. Every shortcut remembers the
+ * two edges it replaces, so the found path is unpacked back to the original
+ * edges and returned as a Route made of the original GeoSegments.
+ * <p>
+ * Nodes that are not neighbours of each other are contracted in parallel,
+ * in rounds, using the threads of a ForkJoinPool.
+ **/
+public class ContractionHierarchy {
+    // witness searches give up after settling this many nodes, and a
+    // shortcut is then added even if it might not be needed. Estimating
+    // the priority of a node only needs a rough count of its shortcuts, so
+    // it uses a smaller limit, though one large enough that the estimates
+    // do not count many more shortcuts than contraction adds.
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int ESTIMATE_SETTLE_LIMIT = 50;
+    // weights of the edge difference and of the contracted neighbours in
+    // the priority of a node
+    private static final int EDGE_DIFFERENCE_WEIGHT = 2;
+    private static final int CONTRACTED_NEIGHBOURS_WEIGHT = 1;
+
+    private final RoadGraph graph; // the graph routes are searched in
+    private final int[] ranks; // position of each node in the contraction order
+    private final int[] edgeSources; // source node of each edge, original
+    // edges having the ids they have in graph
+    private final int[] edgeTargets; // target node of each edge
+    private final int[] children; // the edges replaced by edge e are
+    // children[2e] and children[2e+1], or -1 if e is an original edge
+    private final int[] upOffsets; // edges from node v to nodes of higher rank
+    // are upEdges[upOffsets[v] .. upOffsets[v+1]-1]
+    private final int[] upEdges;
+    private final int[] upEnds; // upEnds[i] is the target of upEdges[i]
+    private final double[] upWeights; // upWeights[i] is the length of upEdges[i]
+    private final int[] downOffsets; // edges to node v from nodes of higher rank
+    // are downEdges[downOffsets[v] .. downOffsets[v+1]-1]
+    private final int[] downEdges;
+    private final int[] downEnds; // downEnds[i] is the source of downEdges[i]
+    private final double[] downWeights; // downWeights[i] is the length of downEdges[i]
+    private final ThreadLocal<QueryState> states; // the query state of each
+    // thread using this hierarchy
+
+    // Representation invariant for every ContractionHierarchy h:
+    // h.ranks is a permutation of 0 .. nodeCount-1 &&
+    // for every edge e in upEdges[upOffsets[v] ..]:
+    //     edgeSources[e] == v && ranks[edgeTargets[e]] > ranks[v] &&
+    // for every edge e in downEdges[downOffsets[v] ..]:
+    //     edgeTargets[e] == v && ranks[edgeSources[e]] > ranks[v]
+
+    /**
+     * Constructs a ContractionHierarchy, preprocessing the graph with one
+     * thread per available processor.
+     *
+     * @requires graph != null
+     * @effects Constructs a new ContractionHierarchy that finds routes in
+     * graph.
+     **/
+    public ContractionHierarchy(RoadGraph graph) {
+        this(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a ContractionHierarchy, preprocessing the graph with the
+     * given number of threads.
+     *
+     * @requires graph != null && threads >= 1
+     * @effects Constructs a new ContractionHierarchy that finds routes in
+     * graph.
+     **/
+    public ContractionHierarchy(RoadGraph graph, int threads) {
+        this.graph = graph;
+        Preprocessor p = new Preprocessor(graph);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(p::contractAll).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Preprocessing was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Preprocessing failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        int n = graph.getNodeCount();
+        int m = p.edgeCount;
+        this.ranks = p.ranks;
+        this.edgeSources = Arrays.copyOf(p.sources, m);
+        this.edgeTargets = Arrays.copyOf(p.targets, m);
+        this.children = Arrays.copyOf(p.children, 2 * m);
+        this.upOffsets = new int[n + 1];
+        this.downOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            if (this.ranks[this.edgeSources[e]] < this.ranks[this.edgeTargets[e]]) {
+                this.upOffsets[this.edgeSources[e] + 1]++;
+            } else {
+                this.downOffsets[this.edgeTargets[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            this.upOffsets[v + 1] += this.upOffsets[v];
+            this.downOffsets[v + 1] += this.downOffsets[v];
+        }
+        this.upEdges = new int[this.upOffsets[n]];
+        this.upEnds = new int[this.upOffsets[n]];
+        this.upWeights = new double[this.upOffsets[n]];
+        this.downEdges = new int[this.downOffsets[n]];
+        this.downEnds = new int[this.downOffsets[n]];
+        this.downWeights = new double[this.downOffsets[n]];
+        int[] nextUp = Arrays.copyOf(this.upOffsets, n);
+        int[] nextDown = Arrays.copyOf(this.downOffsets, n);
+        for (int e = 0; e < m; e++) {
+            if (this.ranks[this.edgeSources[e]] < this.ranks[this.edgeTargets[e]]) {
+                int i = nextUp[this.edgeSources[e]]++;
+                this.upEdges[i] = e;
+                this.upEnds[i] = this.edgeTargets[e];
+                this.upWeights[i] = p.weights[e];
+            } else {
+                int i = nextDown[this.edgeTargets[e]]++;
+                this.downEdges[i] = e;
+                this.downEnds[i] = this.edgeSources[e];
+                this.downWeights[i] = p.weights[e];
+            }
+        }
+        this.states = ThreadLocal.withInitial(() -> new QueryState(n));
+    }
+
+    /**
+     * Returns the number of shortcut edges added by preprocessing.
+     *
+     * @return the number of shortcut edges in this hierarchy.
+     **/
+    public int getShortcutCount() {
+        return this.edgeSources.length - this.graph.getEdgeCount();
+    }
+
+    /**
+     * Finds a shortest route between two locations.
+     *
+     * @requires start != null && end != null
+     * @return a Route r of minimal length such that r.start = start &&
+     * r.end = end, or null if start or end is not a node of the graph,
+     * start equals end, or end cannot be reached from start.
+     **/
+    public Route findRoute(GeoPoint start, GeoPoint end) {
+        int source = this.graph.getNodeId(start);
+        int target = this.graph.getNodeId(end);
+        if (source == GeoPointIndex.NOT_FOUND || target == GeoPointIndex.NOT_FOUND) {
+            return null;
+        }
+        int[] edges = findEdges(source, target);
+        return edges == null ? null : this.graph.toRoute(edges);
+    }
+
+    /**
+     * Finds the edges of a shortest path between two nodes.
+     *
+     * @requires 0 <= source, target < graph.getNodeCount()
+     * @return the ids, in graph, of the edges of a shortest path from source
+     * to target, in order, or null if source == target or target cannot be
+     * reached from source.
+     **/
+    int[] findEdges(int source, int target) {
+        if (source == target) {
+            return null;
+        }
+        QueryState s = this.states.get();
+        s.begin();
+        s.forward.reach(source, 0, -1);
+        s.forward.heap.offer(source, 0);
+        s.backward.reach(target, 0, -1);
+        s.backward.heap.offer(target, 0);
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        while (true) {
+            boolean forwardOpen = !s.forward.heap.isEmpty() && s.forward.heap.peekKey() < best;
+            boolean backwardOpen = !s.backward.heap.isEmpty() && s.backward.heap.peekKey() < best;
+            if (!forwardOpen && !backwardOpen) {
+                break;
+            }
+            boolean forward = forwardOpen
+                    && (!backwardOpen || s.forward.heap.peekKey() <= s.backward.heap.peekKey());
+            Search search = forward ? s.forward : s.backward;
+            Search other = forward ? s.backward : s.forward;
+            int[] offsets = forward ? this.upOffsets : this.downOffsets;
+            int[] edges = forward ? this.upEdges : this.downEdges;
+            double[] weights = forward ? this.upWeights : this.downWeights;
+            int[] ends = forward ? this.upEnds : this.downEnds;
+
+            int v = search.heap.poll();
+            double dv = search.distances[v];
+            if (other.isReached(v) && dv + other.distances[v] < best) {
+                best = dv + other.distances[v];
+                meeting = v;
+            }
+            if (isStalled(search, v, dv, forward)) {
+                continue;
+            }
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int w = ends[i];
+                double dw = dv + weights[i];
+                if (!search.isReached(w) || dw < search.distances[w]) {
+                    search.reach(w, dw, edges[i]);
+                    search.heap.offer(w, dw);
+                    if (other.isReached(w) && dw + other.distances[w] < best) {
+                        best = dw + other.distances[w];
+                        meeting = w;
+                    }
+                }
+            }
+        }
+        if (meeting < 0) {
+            return null;
+        }
+        return unpack(s, source, meeting);
+    }
+
+    /**
+     * Returns true iff a search may skip relaxing the edges of v, because
+     * an edge from a reached node of higher rank shows that the distance of
+     * v is not the shortest. Edges leading upwards from such a node cannot
+     * be on a shortest path found by the search ("stall-on-demand").
+     */
+    private boolean isStalled(Search search, int v, double dv, boolean forward) {
+        int[] offsets = forward ? this.downOffsets : this.upOffsets;
+        double[] weights = forward ? this.downWeights : this.upWeights;
+        int[] ends = forward ? this.downEnds : this.upEnds;
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+            int u = ends[i];
+            if (search.isReached(u) && search.distances[u] + weights[i] < dv) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the original edges of the path through the meeting node found
+     * by the last query of s.
+     */
+    private int[] unpack(QueryState s, int source, int meeting) {
+        // hierarchy edges from the source to the meeting node, reversed
+        int[] path = s.path;
+        int count = 0;
+        for (int v = meeting; v != source; v = this.edgeSources[s.forward.parents[v]]) {
+            path[count++] = s.forward.parents[v];
+        }
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int t = path[i];
+            path[i] = path[j];
+            path[j] = t;
+        }
+        for (int v = meeting; s.backward.parents[v] >= 0; v = this.edgeTargets[s.backward.parents[v]]) {
+            path[count++] = s.backward.parents[v];
+        }
+
+        // replace each shortcut with the two edges it stands for
+        int[] stack = s.stack;
+        int[] edges = new int[16];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int top = 0;
+            stack[top++] = path[i];
+            while (top > 0) {
+                int e = stack[--top];
+                if (this.children[2 * e] < 0) {
+                    if (size == edges.length) {
+                        edges = Arrays.copyOf(edges, size * 2);
+                    }
+                    edges[size++] = e;
+                } else {
+                    if (top + 2 > stack.length) {
+                        stack = s.stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = this.children[2 * e + 1];
+                    stack[top++] = this.children[2 * e];
+                }
+            }
+        }
+        return Arrays.copyOf(edges, size);
+    }
+
+    /**
+     * A Dijkstra search in one direction. Entries are only valid if their
+     * stamp is the stamp of the current query.
+     */
+    private static final class Search {
+        final double[] distances; // distance of each reached node
+        final int[] parents; // hierarchy edge each node was reached by, or -1
+        final int[] reached; // stamp of the query that last reached each node
+        final IndexedMinHeap heap; // reached nodes that are not settled
+        int stamp; // stamp of the current query
+
+        Search(int nodeCount) {
+            this.distances = new double[nodeCount];
+            this.parents = new int[nodeCount];
+            this.reached = new int[nodeCount];
+            this.heap = new IndexedMinHeap(nodeCount);
+        }
+
+        void begin() {
+            this.heap.clear();
+            if (this.stamp == Integer.MAX_VALUE) {
+                Arrays.fill(this.reached, 0);
+                this.stamp = 0;
+            }
+            this.stamp++;
+        }
+
+        boolean isReached(int v) {
+            return this.reached[v] == this.stamp;
+        }
+
+        void reach(int v, double distance, int parent) {
+            this.reached[v] = this.stamp;
+            this.distances[v] = distance;
+            this.parents[v] = parent;
+        }
+    }
+
+    /**
+     * The searches and buffers a single thread uses for queries.
+     */
+    private static final class QueryState {
+        final Search forward;
+        final Search backward;
+        final int[] path; // hierarchy edges of the found path
+        int[] stack; // edges left to unpack
+
+        QueryState(int nodeCount) {
+            this.forward = new Search(nodeCount);
+            this.backward = new Search(nodeCount);
+            this.path = new int[nodeCount];
+            this.stack = new int[64];
+        }
+
+        void begin() {
+            this.forward.begin();
+            this.backward.begin();
+        }
+    }
+
+    /**
+     * The mutable graph that nodes are contracted in during preprocessing.
+     * Edges are only added, in single-threaded phases, while the parallel
+     * phases only read the graph.
+     */
+    private static final class Preprocessor {
+        final int nodeCount;
+        int[] sources; // source node of each edge
+        int[] targets; // target node of each edge
+        double[] weights; // length of each edge
+        int[] children; // edges replaced by each edge, 2 per edge, or -1
+        int edgeCount;
+        final int[][] outEdges; // edges leaving each node, followed by unused slots
+        final int[] outDegrees;
+        final int[][] inEdges; // edges entering each node, followed by unused slots
+        final int[] inDegrees;
+        final boolean[] contracted;
+        final boolean[] selected; // nodes selected in the current round and
+        // not yet contracted, through which witnesses must be strictly shorter
+        final int[] ranks;
+        final int[] priorities; // lower is contracted earlier
+        final int[] contractedNeighbours; // number of contracted neighbours of each node
+        final ThreadLocal<Witness> witnesses;
+
+        Preprocessor(RoadGraph graph) {
+            this.nodeCount = graph.getNodeCount();
+            int m = graph.getEdgeCount();
+            this.sources = new int[m + 16];
+            this.targets = new int[m + 16];
+            this.weights = new double[m + 16];
+            this.children = new int[2 * (m + 16)];
+            this.outEdges = new int[this.nodeCount][];
+            this.outDegrees = new int[this.nodeCount];
+            this.inEdges = new int[this.nodeCount][];
+            this.inDegrees = new int[this.nodeCount];
+            for (int v = 0; v < this.nodeCount; v++) {
+                this.outEdges[v] = new int[Math.max(graph.endEdge(v) - graph.firstEdge(v), 2)];
+                this.inEdges[v] = new int[2];
+            }
+            this.contracted = new boolean[this.nodeCount];
+            this.selected = new boolean[this.nodeCount];
+            this.ranks = new int[this.nodeCount];
+            this.priorities = new int[this.nodeCount];
+            this.contractedNeighbours = new int[this.nodeCount];
+            // edges are added in id order, so original edges keep their ids
+            for (int v = 0; v < this.nodeCount; v++) {
+                for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                    addEdge(v, graph.getTarget(e), graph.getLength(e), -1, -1);
+                }
+            }
+            this.witnesses = ThreadLocal.withInitial(() -> new Witness(this.nodeCount));
+        }
+
+        void contractAll() {
+            IntStream.range(0, this.nodeCount).parallel()
+                    .forEach(v -> this.priorities[v] = priority(v));
+            int[] remaining = IntStream.range(0, this.nodeCount).toArray();
+            int nextRank = 0;
+            int[] marks = new int[this.nodeCount]; // stamp of the round that last
+            // counted each node as a neighbour of a contracted node
+            int stamp = 0;
+            while (remaining.length > 0) {
+                stamp++;
+                int[] candidates = remaining;
+                int[] round = IntStream.of(candidates).parallel()
+                        .filter(this::isLocalMinimum).toArray();
+                for (int v : round) {
+                    this.selected[v] = true;
+                }
+                int[][] shortcutNodes = new int[round.length][];
+                double[][] shortcutWeights = new double[round.length][];
+                int[] fresh = new int[round.length];
+                IntStream.range(0, round.length).parallel().forEach(i -> {
+                    Witness w = this.witnesses.get();
+                    int count = w.findShortcuts(round[i], true);
+                    fresh[i] = priority(round[i], count);
+                    shortcutNodes[i] = Arrays.copyOf(w.found, 4 * w.foundCount);
+                    shortcutWeights[i] = Arrays.copyOf(w.foundWeights, w.foundCount);
+                });
+                // priorities are updated lazily: the exact count of shortcuts
+                // replaces the estimate, and a node that is then no longer a
+                // local minimum waits for a later round
+                for (int i = 0; i < round.length; i++) {
+                    this.priorities[round[i]] = fresh[i];
+                }
+                for (int i = 0; i < round.length; i++) {
+                    if (!isLocalMinimum(round[i])) {
+                        this.selected[round[i]] = false;
+                        shortcutNodes[i] = null;
+                    }
+                }
+
+                int[] affected = new int[0];
+                int affectedCount = 0;
+                for (int i = 0; i < round.length; i++) {
+                    int v = round[i];
+                    if (shortcutNodes[i] == null) {
+                        continue;
+                    }
+                    this.contracted[v] = true;
+                    this.selected[v] = false;
+                    this.ranks[v] = nextRank++;
+                    int[] sc = shortcutNodes[i];
+                    for (int j = 0; j < shortcutWeights[i].length; j++) {
+                        addShortcut(sc[4 * j], sc[4 * j + 1], shortcutWeights[i][j],
+                                sc[4 * j + 2], sc[4 * j + 3]);
+                    }
+                }
+                for (int v : round) {
+                    if (!this.contracted[v]) {
+                        continue;
+                    }
+                    for (int k = 0; k < this.outDegrees[v] + this.inDegrees[v]; k++) {
+                        int e = k < this.outDegrees[v] ? this.outEdges[v][k]
+                                : this.inEdges[v][k - this.outDegrees[v]];
+                        int u = k < this.outDegrees[v] ? this.targets[e] : this.sources[e];
+                        if (this.contracted[u] || marks[u] == stamp) {
+                            continue;
+                        }
+                        marks[u] = stamp;
+                        this.contractedNeighbours[u]++;
+                        removeContractedEdges(u);
+                        if (affectedCount == affected.length) {
+                            affected = Arrays.copyOf(affected, Math.max(16, affectedCount * 2));
+                        }
+                        affected[affectedCount++] = u;
+                    }
+                }
+                IntStream.of(affected).limit(affectedCount).parallel()
+                        .forEach(u -> this.priorities[u] = priority(u));
+                remaining = IntStream.of(candidates).filter(v -> !this.contracted[v]).toArray();
+            }
+        }
+
+        /**
+         * Returns true iff no uncontracted neighbour of v is ordered before
+         * v. Nodes selected this way are never neighbours of each other, so
+         * the shortcuts of each can be found in parallel, as long as a
+         * witness that passes through another selected node is strictly
+         * shorter than the path it replaces: otherwise two selected nodes on
+         * equally short paths between the same neighbours would each count
+         * the path through the other as a witness, and both would be
+         * contracted without a shortcut. A strictly shorter witness is safe,
+         * since a shortest path never needs it.
+         */
+        boolean isLocalMinimum(int v) {
+            for (int k = 0; k < this.outDegrees[v] + this.inDegrees[v]; k++) {
+                if (isBefore(neighbour(v, k), v)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the k-th neighbour of v, counting the targets of its out
+         * edges and then the sources of its in edges.
+         */
+        private int neighbour(int v, int k) {
+            return k < this.outDegrees[v] ? this.targets[this.outEdges[v][k]]
+                    : this.sources[this.inEdges[v][k - this.outDegrees[v]]];
+        }
+
+        private boolean isBefore(int u, int v) {
+            return !this.contracted[u] && u != v && (this.priorities[u] < this.priorities[v]
+                    || (this.priorities[u] == this.priorities[v] && u < v));
+        }
+
+        /**
+         * Returns the priority of v: twice its edge difference, the number
+         * of shortcuts contracting it would add minus the number of edges it
+         * would remove, plus the number of its neighbours that are already
+         * contracted, which spreads contraction evenly over the graph.
+         */
+        int priority(int v) {
+            return priority(v, this.witnesses.get().findShortcuts(v, false));
+        }
+
+        /**
+         * Returns the priority of v, given the number of shortcuts
+         * contracting it would add.
+         */
+        int priority(int v, int shortcuts) {
+            int edges = 0;
+            for (int k = 0; k < this.outDegrees[v]; k++) {
+                if (!this.contracted[this.targets[this.outEdges[v][k]]]) {
+                    edges++;
+                }
+            }
+            for (int k = 0; k < this.inDegrees[v]; k++) {
+                if (!this.contracted[this.sources[this.inEdges[v][k]]]) {
+                    edges++;
+                }
+            }
+            return EDGE_DIFFERENCE_WEIGHT * (shortcuts - edges)
+                    + CONTRACTED_NEIGHBOURS_WEIGHT * this.contractedNeighbours[v];
+        }
+
+        /**
+         * Removes the edges between u and contracted nodes from the edge
+         * lists of u, so later searches do not scan them. The edges stay in
+         * the hierarchy.
+         */
+        void removeContractedEdges(int u) {
+            int kept = 0;
+            for (int k = 0; k < this.outDegrees[u]; k++) {
+                int e = this.outEdges[u][k];
+                if (!this.contracted[this.targets[e]]) {
+                    this.outEdges[u][kept++] = e;
+                }
+            }
+            this.outDegrees[u] = kept;
+            kept = 0;
+            for (int k = 0; k < this.inDegrees[u]; k++) {
+                int e = this.inEdges[u][k];
+                if (!this.contracted[this.sources[e]]) {
+                    this.inEdges[u][kept++] = e;
+                }
+            }
+            this.inDegrees[u] = kept;
+        }
+
+        /**
+         * Adds the shortcut u-&gt;w, unless an edge from u to w that is not
+         * longer already exists. Longer edges from u to w are removed from
+         * the edge lists, since no shortest path uses them any more.
+         */
+        void addShortcut(int u, int w, double weight, int first, int second) {
+            for (int k = 0; k < this.outDegrees[u]; k++) {
+                int e = this.outEdges[u][k];
+                if (this.targets[e] != w) {
+                    continue;
+                }
+                if (this.weights[e] <= weight) {
+                    return;
+                }
+                this.outEdges[u][k--] = this.outEdges[u][--this.outDegrees[u]];
+                for (int j = 0; j < this.inDegrees[w]; j++) {
+                    if (this.inEdges[w][j] == e) {
+                        this.inEdges[w][j] = this.inEdges[w][--this.inDegrees[w]];
+                        break;
+                    }
+                }
+            }
+            addEdge(u, w, weight, first, second);
+        }
+
+        void addEdge(int u, int w, double weight, int first, int second) {
+            int e = this.edgeCount++;
+            if (e == this.sources.length) {
+                int capacity = e * 2;
+                this.sources = Arrays.copyOf(this.sources, capacity);
+                this.targets = Arrays.copyOf(this.targets, capacity);
+                this.weights = Arrays.copyOf(this.weights, capacity);
+                this.children = Arrays.copyOf(this.children, 2 * capacity);
+            }
+            this.sources[e] = u;
+            this.targets[e] = w;
+            this.weights[e] = weight;
+            this.children[2 * e] = first;
+            this.children[2 * e + 1] = second;
+            if (this.outDegrees[u] == this.outEdges[u].length) {
+                this.outEdges[u] = Arrays.copyOf(this.outEdges[u], this.outDegrees[u] * 2);
+            }
+            this.outEdges[u][this.outDegrees[u]++] = e;
+            if (this.inDegrees[w] == this.inEdges[w].length) {
+                this.inEdges[w] = Arrays.copyOf(this.inEdges[w], this.inDegrees[w] * 2);
+            }
+            this.inEdges[w][this.inDegrees[w]++] = e;
+        }
+
+        /**
+         * The state of the witness searches of a single thread. A witness is
+         * a path between two neighbours of a node that avoids the node and
+         * is not longer than the path through it, which makes a shortcut
+         * between the neighbours unnecessary.
+         */
+        final class Witness {
+            final double[] distances;
+            final int[] reached;
+            final int[] targeted; // stamp of the search each node was a target of
+            final boolean[] viaSelected; // whether every shortest path found to
+            // each reached node passes through a node selected in this round
+            final IndexedMinHeap heap;
+            int stamp;
+            int[] found = new int[64]; // (u, w, first edge, second edge) of
+            // each needed shortcut
+            double[] foundWeights = new double[16];
+            int foundCount;
+
+            Witness(int nodeCount) {
+                this.distances = new double[nodeCount];
+                this.reached = new int[nodeCount];
+                this.targeted = new int[nodeCount];
+                this.viaSelected = new boolean[nodeCount];
+                this.heap = new IndexedMinHeap(nodeCount);
+            }
+
+            /**
+             * Returns the number of shortcuts contracting v needs, and if
+             * record is true also stores them in found.
+             */
+            int findShortcuts(int v, boolean record) {
+                int settleLimit = record ? WITNESS_SETTLE_LIMIT : ESTIMATE_SETTLE_LIMIT;
+                int count = 0;
+                this.foundCount = 0;
+                for (int i = 0; i < inDegrees[v]; i++) {
+                    int in = inEdges[v][i];
+                    int u = sources[in];
+                    if (contracted[u] || u == v) {
+                        continue;
+                    }
+                    begin();
+                    double maxOut = -1;
+                    int targetCount = 0;
+                    for (int j = 0; j < outDegrees[v]; j++) {
+                        int w = targets[outEdges[v][j]];
+                        if (!contracted[w] && w != u && w != v) {
+                            maxOut = Math.max(maxOut, weights[outEdges[v][j]]);
+                            if (this.targeted[w] != this.stamp) {
+                                this.targeted[w] = this.stamp;
+                                targetCount++;
+                            }
+                        }
+                    }
+                    if (targetCount == 0) {
+                        continue;
+                    }
+                    search(u, v, weights[in] + maxOut, settleLimit, targetCount);
+                    for (int j = 0; j < outDegrees[v]; j++) {
+                        int out = outEdges[v][j];
+                        int w = targets[out];
+                        if (contracted[w] || w == u || w == v) {
+                            continue;
+                        }
+                        double through = weights[in] + weights[out];
+                        if (this.reached[w] == this.stamp && (this.distances[w] < through
+                                || (this.distances[w] == through && !this.viaSelected[w]))) {
+                            continue;
+                        }
+                        count++;
+                        if (record) {
+                            add(u, w, through, in, out);
+                        }
+                    }
+                }
+                return count;
+            }
+
+            private void add(int u, int w, double weight, int first, int second) {
+                if (4 * this.foundCount + 4 > this.found.length) {
+                    this.found = Arrays.copyOf(this.found, this.found.length * 2);
+                }
+                if (this.foundCount == this.foundWeights.length) {
+                    this.foundWeights = Arrays.copyOf(this.foundWeights, this.foundCount * 2);
+                }
+                this.found[4 * this.foundCount] = u;
+                this.found[4 * this.foundCount + 1] = w;
+                this.found[4 * this.foundCount + 2] = first;
+                this.found[4 * this.foundCount + 3] = second;
+                this.foundWeights[this.foundCount++] = weight;
+            }
+
+            /**
+             * Starts a new witness search.
+             */
+            private void begin() {
+                this.heap.clear();
+                if (this.stamp == Integer.MAX_VALUE) {
+                    Arrays.fill(this.reached, 0);
+                    Arrays.fill(this.targeted, 0);
+                    this.stamp = 0;
+                }
+                this.stamp++;
+            }
+
+            /**
+             * Runs a bounded Dijkstra search from u that avoids v and the
+             * contracted nodes, and stops once the given number of targeted
+             * nodes are settled. Of equally short paths to a node, it
+             * prefers one that avoids the nodes selected for contraction.
+             */
+            private void search(int u, int v, double limit, int settleLimit, int targetCount) {
+                this.reached[u] = this.stamp;
+                this.distances[u] = 0;
+                this.viaSelected[u] = false;
+                this.heap.offer(u, 0);
+                int settled = 0;
+                while (!this.heap.isEmpty() && this.heap.peekKey() <= limit
+                        && settled++ < settleLimit) {
+                    int x = this.heap.poll();
+                    if (this.targeted[x] == this.stamp && --targetCount == 0) {
+                        break;
+                    }
+                    double dx = this.distances[x];
+                    for (int k = 0; k < outDegrees[x]; k++) {
+                        int e = outEdges[x][k];
+                        int y = targets[e];
+                        if (y == v || contracted[y]) {
+                            continue;
+                        }
+                        double dy = dx + weights[e];
+                        if (dy > limit) {
+                            continue;
+                        }
+                        boolean via = this.viaSelected[x] || selected[y];
+                        if (this.reached[y] != this.stamp || dy < this.distances[y]
+                                || (dy == this.distances[y] && !via && this.viaSelected[y])) {
+                            this.reached[y] = this.stamp;
+                            this.distances[y] = dy;
+                            this.viaSelected[y] = via;
+                            this.heap.offer(y, dy);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
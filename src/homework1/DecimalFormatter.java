@@ -0,0 +1,128 @@
+package homework1;
+
+import java.io.IOException;
+
+/**
+ * DecimalFormatter writes non-negative numbers rounded to a fixed number of
+ * fraction digits, producing the same text as a <tt>DecimalFormat</tt> with
+ * the pattern "#" (no fraction digits), "#.#" (one fraction digit) or
+ * "#.##" (two fraction digits). Like those patterns, it drops trailing zero fraction digits and
+ * the decimal point after the last non-zero one, and rounds half to even
+ * according to the exact binary value of the double.
+ * <p>
+ * Unlike a DecimalFormat, DecimalFormatter has no state, so it may be used
+ * by several threads at once, and it writes the digits straight into an
+ * Appendable without allocating any objects.
+ **/
+public final class DecimalFormatter {
+
+    /**
+     * The largest number of fraction digits supported.
+     */
+    public static final int MAX_FRACTION_DIGITS = 2;
+
+    /**
+     * The values that can be formatted are smaller than this, so that
+     * value * 10^MAX_FRACTION_DIGITS is still an exact integer when it is
+     * rounded.
+     */
+    public static final double MAX_VALUE = 1e12;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+            1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+            100000000000000L, 1000000000000000L};
+
+    private DecimalFormatter() {
+    }
+
+    /**
+     * Appends a number rounded to a fixed number of fraction digits.
+     *
+     * @requires out != null && 0 <= value < MAX_VALUE &&
+     * 0 <= fractionDigits <= MAX_FRACTION_DIGITS
+     * @modifies out
+     * @effects appends to out the String new DecimalFormat(pattern)
+     * .format(value) would return, where pattern is "#" followed by "." and
+     * fractionDigits times "#" if fractionDigits > 0.
+     * @throws IOException if out throws it.
+     **/
+    public static void format(double value, int fractionDigits, Appendable out)
+            throws IOException {
+        long scaled = round(value, fractionDigits);
+        long unit = POWERS_OF_TEN[fractionDigits];
+        long integer = scaled / unit;
+        long fraction = scaled % unit;
+        appendDigits(integer, out);
+        if (fraction == 0) {
+            return;
+        }
+        int digits = fractionDigits;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        out.append('.');
+        // leading zeros of the fraction, then its significant digits
+        for (long p = POWERS_OF_TEN[digits - 1]; p > fraction; p /= 10) {
+            out.append('0');
+        }
+        appendDigits(fraction, out);
+    }
+
+    /**
+     * Returns a number rounded to a fixed number of fraction digits.
+     *
+     * @requires 0 <= value < MAX_VALUE &&
+     * 0 <= fractionDigits <= MAX_FRACTION_DIGITS
+     * @return the String new DecimalFormat(pattern).format(value) would
+     * return, where pattern is "#" followed by "." and fractionDigits times
+     * "#" if fractionDigits > 0.
+     **/
+    public static String format(double value, int fractionDigits) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            format(value, fractionDigits, sb);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw IOException", e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns value * 10^fractionDigits rounded half to even to a long.
+     * The product is rounded by the floating point multiplication, so the
+     * error of the multiplication is recovered with a fused multiply-add
+     * and the exact product is compared with the halfway point.
+     */
+    static long round(double value, int fractionDigits) {
+        double scale = POWERS_OF_TEN[fractionDigits];
+        double product = value * scale;
+        double error = Math.fma(value, scale, -product); // exact product - product
+        double floor = Math.floor(product);
+        // both sides are exact: product - floor and 0.5 are multiples of
+        // the last bit of product whenever product >= 0.25
+        double aboveHalf = (product - floor) - 0.5;
+        long rounded = (long) floor;
+        if (aboveHalf > -error || (aboveHalf == -error && (rounded & 1) != 0)) {
+            rounded++;
+        }
+        return rounded;
+    }
+
+    /**
+     * Appends the decimal digits of a non-negative long, most significant
+     * first.
+     */
+    private static void appendDigits(long n, Appendable out) throws IOException {
+        int length = 1;
+        while (length < POWERS_OF_TEN.length && POWERS_OF_TEN[length] <= n) {
+            length++;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            long p = POWERS_OF_TEN[i];
+            out.append((char) ('0' + n / p));
+            n %= p;
+        }
+    }
+}
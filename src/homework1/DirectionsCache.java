@@ -0,0 +1,315 @@
+package homework1;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A DirectionsCache holds directions computed by RouteFormatters, keyed by
+ * the class of the formatter, the route and the initial heading. It is
+ * bounded both by the number of entries and by their total weight, the
+ * number of characters of the directions, and evicts the least recently
+ * used entries first. DirectionsCaches may be used by several threads at
+ * once, and may be shared by several CachingRouteFormatters.
+ * <p>
+ * The cache is split into segments by the hash of the key, each one a
+ * least recently used list with its own lock and its own share of the
+ * bounds, so threads looking up different routes rarely wait for each
+ * other. Routes hash in constant time by their fingerprint, so a lookup
+ * costs the same for any length of route unless it hits, in which case
+ * the route is compared with the cached one.
+ * <p>
+ * The weight counts only the characters of the directions. The routes of
+ * the keys are held by reference and are not counted, so a cache of long
+ * routes that are dropped by everyone else also keeps them in memory.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <p>
+ * <pre>
+ *   entries : set of (formatter class, route, heading, directions)
+ *   maxEntries : integer   // the most entries the cache holds
+ *   maxWeight : integer    // the most characters of directions the cache holds,
+ *                          // not counting the routes of the entries
+ *   hits : integer         // lookups that found an entry
+ *   misses : integer       // lookups that found no entry
+ *   evictions : integer    // entries removed to keep within the bounds
+ * </pre>
+ **/
+public final class DirectionsCache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments; // segments[h & mask] holds the keys hashing to h
+    private final int mask; // segments.length - 1
+    private final int maxEntries; // the most entries the cache holds
+    private final long maxWeight; // the most characters the cache holds
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Abstraction Function:
+    // A DirectionsCache c holds the entries of all of c.segments, and
+    // c.hits, c.misses and c.evictions are the sums of the counters.
+
+    // Representation invariant for every DirectionsCache c:
+    // c.segments.length is a power of two && c.mask = c.segments.length - 1 &&
+    // every segment has maxEntries >= 1 && maxWeight >= 1 &&
+    // the sum of the segments' maxEntries = c.maxEntries &&
+    // the sum of the segments' maxWeight = c.maxWeight
+
+    /**
+     * Constructs a new, empty DirectionsCache.
+     *
+     * @requires maxEntries >= 1 && maxWeight >= 1
+     * @effects Constructs a new DirectionsCache c with no entries, such
+     * that c.maxEntries = maxEntries && c.maxWeight = maxWeight. Small
+     * bounds split the cache into fewer segments, so that every segment
+     * holds at least one entry of at least one character.
+     **/
+    public DirectionsCache(int maxEntries, long maxWeight) {
+        int n = (int) Math.min(Math.min(MAX_SEGMENTS, maxEntries), maxWeight);
+        n = Integer.highestOneBit(n);
+        this.segments = new Segment[n];
+        for (int i = 0; i < n; i++) {
+            // the first segments take the remainders, so the shares add up to the bounds
+            this.segments[i] = new Segment(maxEntries / n + (i < maxEntries % n ? 1 : 0),
+                    maxWeight / n + (i < maxWeight % n ? 1 : 0));
+        }
+        this.mask = n - 1;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        checkRep();
+    }
+
+    /**
+     * Returns cached directions.
+     *
+     * @requires formatter != null && route != null
+     * @modifies this
+     * @effects increments hits if the directions are found and misses
+     * otherwise, and makes a found entry the most recently used.
+     * @return the directions cached for formatter's class, route and
+     * heading, or null if there are none.
+     **/
+    public String get(RouteFormatter formatter, Route route, double heading) {
+        Key key = new Key(formatter.getClass(), route, heading);
+        String directions = segmentFor(key).get(key);
+        if (directions == null) {
+            this.misses.increment();
+        } else {
+            this.hits.increment();
+        }
+        return directions;
+    }
+
+    /**
+     * Caches directions.
+     *
+     * @requires formatter != null && route != null && directions != null
+     * @modifies this
+     * @effects adds the entry (formatter's class, route, heading,
+     * directions), replacing the entry of the same key if there is one,
+     * and then evicts least recently used entries until the cache is
+     * within its bounds. Directions longer than a segment's share of
+     * maxWeight are not cached.
+     **/
+    public void put(RouteFormatter formatter, Route route, double heading, String directions) {
+        Key key = new Key(formatter.getClass(), route, heading);
+        this.evictions.add(segmentFor(key).put(key, directions));
+    }
+
+    /**
+     * Removes all the entries.
+     *
+     * @modifies this
+     * @effects removes all the entries, without counting them as evictions.
+     **/
+    public void clear() {
+        for (Segment s : this.segments) {
+            s.clear();
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries in the cache.
+     **/
+    public int size() {
+        int size = 0;
+        for (Segment s : this.segments) {
+            size += s.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the total weight of the entries.
+     *
+     * @return the number of characters of all the cached directions.
+     **/
+    public long weight() {
+        long weight = 0;
+        for (Segment s : this.segments) {
+            weight += s.weight();
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the most entries the cache holds.
+     *
+     * @return maxEntries.
+     **/
+    public int getMaxEntries() {
+        return this.maxEntries;
+    }
+
+    /**
+     * Returns the most characters of directions the cache holds.
+     *
+     * @return maxWeight.
+     **/
+    public long getMaxWeight() {
+        return this.maxWeight;
+    }
+
+    /**
+     * Returns the number of lookups that found an entry.
+     *
+     * @return hits.
+     **/
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no entry.
+     *
+     * @return misses.
+     **/
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the number of entries removed to keep within the bounds.
+     *
+     * @return evictions.
+     **/
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    private Segment segmentFor(Key key) {
+        int h = key.hash;
+        return this.segments[(h ^ (h >>> 16)) & this.mask];
+    }
+
+    /**
+     * A key of the cache. Routes are compared by value, and headings by
+     * their exact bits.
+     */
+    private static final class Key {
+        final Class<?> formatter;
+        final Route route;
+        final long heading; // Double.doubleToLongBits() of the heading
+        final int hash;
+
+        Key(Class<?> formatter, Route route, double heading) {
+            this.formatter = formatter;
+            this.route = route;
+            this.heading = Double.doubleToLongBits(heading);
+            int h = 31 * formatter.hashCode() + route.hashCode();
+            this.hash = 31 * h + Long.hashCode(this.heading);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return this.hash == k.hash && this.heading == k.heading
+                    && this.formatter == k.formatter && this.route.equals(k.route);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * A least recently used list of entries, bounded by its number of
+     * entries and their weight, guarded by its own lock.
+     */
+    private static final class Segment {
+        final LinkedHashMap<Key, String> entries; // in access order
+        final int maxEntries;
+        final long maxWeight;
+        long weight; // total length of the values of entries
+
+        Segment(int maxEntries, long maxWeight) {
+            this.entries = new LinkedHashMap<Key, String>(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized String get(Key key) {
+            return this.entries.get(key);
+        }
+
+        /**
+         * Adds an entry and returns the number of entries evicted.
+         */
+        synchronized int put(Key key, String directions) {
+            if (directions.length() > this.maxWeight) {
+                return 0;
+            }
+            String old = this.entries.put(key, directions);
+            this.weight += directions.length() - (old == null ? 0 : old.length());
+            int evicted = 0;
+            Iterator<Map.Entry<Key, String>> i = this.entries.entrySet().iterator();
+            while (this.entries.size() > this.maxEntries || this.weight > this.maxWeight) {
+                this.weight -= i.next().getValue().length();
+                i.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized void clear() {
+            this.entries.clear();
+            this.weight = 0;
+        }
+
+        synchronized int size() {
+            return this.entries.size();
+        }
+
+        synchronized long weight() {
+            return this.weight;
+        }
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert Integer.bitCount(this.segments.length) == 1
+                && this.mask == this.segments.length - 1 : "Segments must be a power of two";
+        long entries = 0;
+        long weight = 0;
+        for (Segment s : this.segments) {
+            assert s.maxEntries >= 1 && s.maxWeight >= 1 : "Segments must not be empty";
+            entries += s.maxEntries;
+            weight += s.maxWeight;
+        }
+        assert entries == this.maxEntries && weight == this.maxWeight :
+                "Segments must share the bounds of the cache";
+    }
+}
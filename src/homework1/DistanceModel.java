@@ -0,0 +1,198 @@
+package homework1;
+
+/**
+ * A DistanceModel computes the distance between two points on the earth,
+ * in kilometers. The models trade accuracy for speed:
+ * <p>
+ * <pre>
+ * FLAT             the flat-surface approximation of GeoPoint.distanceTo(),
+ *                  with constants tuned near the Technion. Cheapest, but
+ *                  only accurate near that latitude.
+ * EQUIRECTANGULAR  a flat approximation that scales longitudes by the
+ *                  cosine of the latitude of the points, precomputed for
+ *                  tiles of 1/16 degree of latitude. Nearly as cheap as
+ *                  FLAT and accurate to a fraction of a percent everywhere
+ *                  for distances of up to a few hundred kilometers.
+ * HAVERSINE        the great circle distance on a sphere of the mean
+ *                  radius of the earth. Accurate to about 0.5% anywhere.
+ * VINCENTY         the geodesic distance on the WGS-84 ellipsoid, found
+ *                  iteratively. Accurate to well under a millimeter, and
+ *                  the slowest.
+ * </pre>
+ * <p>
+ * Each of these models is symmetric and never negative, and FLAT,
+ * HAVERSINE and VINCENTY satisfy the triangle inequality, so the
+ * straight-line distance of a model is a lower bound for the length of any
+ * route whose segment lengths are computed with the same model. Other
+ * implementations need not be symmetric: the distance from a to b may
+ * differ from the distance from b to a. Models have no state and may be
+ * used by several threads at once.
+ **/
+public interface DistanceModel {
+
+    /**
+     * The flat-surface, near the Technion approximation of
+     * GeoPoint.distanceTo().
+     */
+    DistanceModel FLAT = GeoPoint::distance;
+
+    /**
+     * An equirectangular approximation with precomputed per-tile scaling.
+     */
+    DistanceModel EQUIRECTANGULAR = new Equirectangular();
+
+    /**
+     * The great circle distance on a sphere.
+     */
+    DistanceModel HAVERSINE = new Haversine();
+
+    /**
+     * The geodesic distance on the WGS-84 ellipsoid.
+     */
+    DistanceModel VINCENTY = new Vincenty();
+
+    /**
+     * The mean radius of the earth, in kilometers.
+     */
+    double EARTH_RADIUS = 6371.0088;
+
+    /**
+     * Computes the distance between two points given by their coordinates.
+     *
+     * @requires the coordinates are in millionths of degrees
+     * @return the distance from (lat1, lon1) to (lat2, lon2), in
+     * kilometers, according to this model.
+     **/
+    double distance(int lat1, int lon1, int lat2, int lon2);
+
+    /**
+     * Computes the distance between two GeoPoints.
+     *
+     * @requires gp1 != null && gp2 != null
+     * @return the distance from gp1 to gp2, in kilometers, according to
+     * this model.
+     **/
+    default double distance(GeoPoint gp1, GeoPoint gp2) {
+        return distance(gp1.latitude, gp1.longitude, gp2.latitude, gp2.longitude);
+    }
+
+    /**
+     * The equirectangular projection: a flat approximation in which a
+     * degree of longitude is cos(latitude) times as long as a degree of
+     * latitude. The cosine of the middle latitude of the two points is
+     * looked up in a table of tiles, so a distance costs a few
+     * multiplications and a square root, like FLAT.
+     */
+    final class Equirectangular implements DistanceModel {
+
+        private static final int TILES_PER_DEGREE = 16;
+        private static final double KM_PER_MICRODEGREE = Math.toRadians(EARTH_RADIUS) / 1000000;
+
+        private final double[] cosines; // cosine of the latitude in the middle of each tile
+
+        private Equirectangular() {
+            this.cosines = new double[180 * TILES_PER_DEGREE];
+            for (int tile = 0; tile < this.cosines.length; tile++) {
+                double latitude = (tile + 0.5) / TILES_PER_DEGREE - 90;
+                this.cosines[tile] = Math.cos(Math.toRadians(latitude));
+            }
+        }
+
+        @Override
+        public double distance(int lat1, int lon1, int lat2, int lon2) {
+            // middle latitude, in degrees, from -90 to 90
+            double middle = ((double) lat1 + lat2) / 2000000;
+            int tile = Math.min((int) ((middle + 90) * TILES_PER_DEGREE), this.cosines.length - 1);
+            long dLon = (long) lon2 - lon1;
+            // the short way around the antimeridian
+            if (dLon > 180000000) {
+                dLon -= 360000000;
+            } else if (dLon < -180000000) {
+                dLon += 360000000;
+            }
+            double x = dLon * this.cosines[tile];
+            double y = lat2 - lat1;
+            return Math.sqrt(x * x + y * y) * KM_PER_MICRODEGREE;
+        }
+    }
+
+    /**
+     * The haversine formula for the great circle distance on a sphere.
+     */
+    final class Haversine implements DistanceModel {
+
+        private Haversine() {
+        }
+
+        @Override
+        public double distance(int lat1, int lon1, int lat2, int lon2) {
+            double phi1 = Math.toRadians(lat1 / 1e6);
+            double phi2 = Math.toRadians(lat2 / 1e6);
+            double sinLat = Math.sin((phi2 - phi1) / 2);
+            double sinLon = Math.sin(Math.toRadians((lon2 - (double) lon1) / 1e6) / 2);
+            double h = sinLat * sinLat + Math.cos(phi1) * Math.cos(phi2) * sinLon * sinLon;
+            return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(h)));
+        }
+    }
+
+    /**
+     * Vincenty's inverse formula for the geodesic distance on the WGS-84
+     * ellipsoid. For nearly antipodal points, where the iteration does not
+     * converge, the haversine distance is returned instead.
+     */
+    final class Vincenty implements DistanceModel {
+
+        private static final double A = 6378.137; // semi-major axis, in kilometers
+        private static final double F = 1 / 298.257223563; // flattening
+        private static final double B = A * (1 - F); // semi-minor axis
+        private static final int MAX_ITERATIONS = 200;
+        private static final double TOLERANCE = 1e-12;
+
+        private Vincenty() {
+        }
+
+        @Override
+        public double distance(int lat1, int lon1, int lat2, int lon2) {
+            if (lat1 == lat2 && lon1 == lon2) {
+                return 0;
+            }
+            double l = Math.toRadians((lon2 - (double) lon1) / 1e6);
+            double u1 = Math.atan((1 - F) * Math.tan(Math.toRadians(lat1 / 1e6)));
+            double u2 = Math.atan((1 - F) * Math.tan(Math.toRadians(lat2 / 1e6)));
+            double sinU1 = Math.sin(u1), cosU1 = Math.cos(u1);
+            double sinU2 = Math.sin(u2), cosU2 = Math.cos(u2);
+
+            double lambda = l;
+            for (int i = 0; i < MAX_ITERATIONS; i++) {
+                double sinLambda = Math.sin(lambda), cosLambda = Math.cos(lambda);
+                double a = cosU2 * sinLambda;
+                double b = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+                double sinSigma = Math.sqrt(a * a + b * b);
+                if (sinSigma == 0) {
+                    return 0; // coincident points
+                }
+                double cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+                double sigma = Math.atan2(sinSigma, cosSigma);
+                double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+                double cos2Alpha = 1 - sinAlpha * sinAlpha;
+                // on the equator cos2Alpha is 0, and so is cos2SigmaM
+                double cos2SigmaM = cos2Alpha == 0 ? 0 : cosSigma - 2 * sinU1 * sinU2 / cos2Alpha;
+                double c = F / 16 * cos2Alpha * (4 + F * (4 - 3 * cos2Alpha));
+                double previous = lambda;
+                lambda = l + (1 - c) * F * sinAlpha * (sigma + c * sinSigma
+                        * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+                if (Math.abs(lambda - previous) < TOLERANCE) {
+                    double uSquared = cos2Alpha * (A * A - B * B) / (B * B);
+                    double k1 = (Math.sqrt(1 + uSquared) - 1) / (Math.sqrt(1 + uSquared) + 1);
+                    double bigA = (1 + k1 * k1 / 4) / (1 - k1);
+                    double bigB = k1 * (1 - 3 * k1 * k1 / 8);
+                    double deltaSigma = bigB * sinSigma * (cos2SigmaM + bigB / 4
+                            * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM) - bigB / 6 * cos2SigmaM
+                            * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+                    return B * bigA * (sigma - deltaSigma);
+                }
+            }
+            return HAVERSINE.distance(lat1, lon1, lat2, lon2);
+        }
+    }
+}
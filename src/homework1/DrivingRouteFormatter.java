@@ -1,6 +1,6 @@
 package homework1;
 
-import java.text.DecimalFormat;
+import java.io.IOException;
 
 /**
  * The DrivingDirections class creates a textual description of directions
@@ -29,6 +29,10 @@ public class DrivingRouteFormatter extends RouteFormatter {
      * Computes a single line of a multi-line directions String that
      * represents the instructions for traversing a single geographic
      * feature.
+     * <p>
+     * This method is final: the line is built by computeLine(geoFeature,
+     * origHeading, out), which computeDirections() calls, so subclasses
+     * change the line by overriding that method instead.
      *
      * @param geoFeature  the geographical feature to traverse.
      * @param origHeading the initial heading.
@@ -50,21 +54,33 @@ public class DrivingRouteFormatter extends RouteFormatter {
      * above.
      * @requires 0 <= origHeading < 360
      **/
-    public String computeLine(GeoFeature geoFeature, double origHeading) {
-
-        // Implementation hint:
-        // You may find the class java.text.DecimalFormat useful when
-        // implementing this method. More info can be found at:
-        // http://docs.oracle.com/javase/tutorial/java/data/numberformat.html
-        // and at:
-        // http://docs.oracle.com/javase/8/docs/api/java/text/DecimalFormat.html
-
-        DecimalFormat df = new DecimalFormat("#.#");
-        String turningString = getTurnString(origHeading, geoFeature.getStartHeading());
-        String streetName = geoFeature.getName();
-        String distance = df.format(geoFeature.getLength());
+    public final String computeLine(GeoFeature geoFeature, double origHeading) {
+        return lineToString(geoFeature, origHeading);
+    }
 
-        return turningString + " onto " + streetName + " and go " + distance + " kilometers.\n";
+    /**
+     * Appends a single line of directions for traversing a single
+     * geographic feature, in the form described by computeLine(geoFeature,
+     * origHeading), to an Appendable.
+     *
+     * @param geoFeature  the geographical feature to traverse.
+     * @param origHeading the initial heading.
+     * @param out         where the line is appended.
+     * @modifies out
+     * @effects appends to out the String computeLine(geoFeature,
+     * origHeading) would return.
+     * @throws IOException if out throws it.
+     * @requires geoFeature != null && out != null && 0 <= origHeading < 360
+     **/
+    public void computeLine(GeoFeature geoFeature, double origHeading, Appendable out)
+            throws IOException {
+        // the length is rounded like DecimalFormat("#.#") would, without
+        // creating a formatter for every line
+        out.append(getTurnString(origHeading, geoFeature.getStartHeading()))
+                .append(" onto ").append(geoFeature.getName())
+                .append(" and go ");
+        DecimalFormatter.format(geoFeature.getLength(), 1, out);
+        out.append(" kilometers.\n");
     }
 
 }
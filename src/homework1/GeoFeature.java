@@ -1,7 +1,6 @@
 package homework1;
 
 import java.util.Iterator;
-import java.util.LinkedList;
 
 /**
  * A GeoFeature represents a route from one location to another along a single
@@ -52,12 +51,13 @@ public class GeoFeature {
 								// feature, in degrees
 	final double endHeading; // direction of travel at the end of the geographic
 	// feature, in degrees
-	final LinkedList<GeoSegment> geoSegments; // a sequence of segments that
-												// make up
-	// this geographic feature
+	final ImmutableChain<GeoSegment> geoSegments; // a sequence of segments
+	// that make up this geographic feature, shared with the feature it extends
 	final String name; // name of geographic feature
 	final double length; // total length of the geographic feature, in
 							// kilometers
+	final long fingerprint; // fingerprint of geoSegments, see
+							// GeoSegment.appendFingerprint()
 
 	// Abstraction Function:
 	// A GeoSegment s is NotInWorld
@@ -80,16 +80,18 @@ public class GeoFeature {
 		this.end = gs.getP2();
 		this.startHeading = gs.getHeading();
 		this.endHeading = gs.getHeading();
-		this.geoSegments = new LinkedList<GeoSegment>(){{
-            add(gs);
-        }};
+		this.geoSegments = ImmutableChain.of(gs);
 		this.name = gs.name;
 		this.length = gs.getLength();
+		this.fingerprint = GeoSegment.appendFingerprint(0, gs);
 		checkRep();
 	}
 
 	/**
 	 * Constructs a new GeoFeature.
+	 * <p>
+	 * The new GeoFeature shares the segments of gf, so no segment is copied
+	 * or recomputed, regardless of the length of gf.
 	 * 
 	 * @requires gs != null && gf != null
 	 * @effects Constructs a new GeoFeature, r, such that r.name = gs.name &&
@@ -101,13 +103,43 @@ public class GeoFeature {
 		this.end = gs.getP2();
 		this.startHeading = gf.getStartHeading();
 		this.endHeading = gs.getHeading();
-		this.geoSegments = new LinkedList<GeoSegment>();
-		for (GeoSegment s : gf.geoSegments) {
-			this.geoSegments.add(new GeoSegment(s.getName(), s.getP1(), s.getP2()));
-		}
-		this.geoSegments.add(gs);
+		this.geoSegments = gf.geoSegments.append(gs);
 		this.name = gs.name;
 		this.length = gf.getLength() + gs.getLength();
+		this.fingerprint = GeoSegment.appendFingerprint(gf.fingerprint, gs);
+		checkRep();
+	}
+
+	/**
+	 * Constructs a new GeoFeature from all of its segments at once. The new
+	 * GeoFeature is backed by the given array, which must not be modified
+	 * afterwards.
+	 * 
+	 * @requires segments != null && segments.length > 0 && all the segments
+	 *           have the same name && segments[i].p2 = segments[i+1].p1
+	 * @effects Constructs a new GeoFeature, r, such that r.name =
+	 *          segments[0].name && r.startHeading = segments[0].heading &&
+	 *          r.endHeading = segments[n-1].heading && r.start =
+	 *          segments[0].p1 && r.end = segments[n-1].p2, where n =
+	 *          segments.length
+	 **/
+	GeoFeature(GeoSegment[] segments) {
+		GeoSegment first = segments[0];
+		GeoSegment last = segments[segments.length - 1];
+		this.start = first.getP1();
+		this.end = last.getP2();
+		this.startHeading = first.getHeading();
+		this.endHeading = last.getHeading();
+		this.geoSegments = ImmutableChain.ofArray(segments);
+		this.name = first.name;
+		double length = 0;
+		long fingerprint = 0;
+		for (GeoSegment gs : segments) {
+			length += gs.getLength();
+			fingerprint = GeoSegment.appendFingerprint(fingerprint, gs);
+		}
+		this.length = length;
+		this.fingerprint = fingerprint;
 		checkRep();
 	}
 
@@ -216,39 +248,32 @@ public class GeoFeature {
 	}
 
 	/**
-	 * Compares the argument with this GeoFeature for equality.
+	 * Compares the argument with this GeoFeature for equality. GeoFeatures
+	 * whose fingerprints or numbers of segments differ are told apart in
+	 * constant time.
 	 * 
 	 * @return o != null && (o instanceof GeoFeature) && (o.geoSegments and
 	 *         this.geoSegments contain the same elements in the same order).
 	 **/
 	public boolean equals(Object o) {
 		checkRep();
-		if (o == null || !(o instanceof GeoFeature))
-			return false;
-		if (this.geoSegments.size() != ((GeoFeature) o).geoSegments.size())
+		if (this == o)
+			return true;
+		if (!(o instanceof GeoFeature))
 			return false;
-		for (int i = 0; i < this.geoSegments.size(); i++) {
-			if (!(this.geoSegments.get(i).equals(((GeoFeature) o).geoSegments.get(i))))
-				return false;
-		}
-		return true;
+		GeoFeature gf = (GeoFeature) o;
+		return this.fingerprint == gf.fingerprint
+				&& this.geoSegments.contentEquals(gf.geoSegments);
 	}
 
 	/**
-	 * Returns a hash code for this.
+	 * Returns a hash code for this, in constant time.
 	 * 
 	 * @return a hash code for this.
 	 **/
 	public int hashCode() {
-		// This implementation will work, but you may want to modify it
-		// improved performance.
 		checkRep();
-		int sum = 0;
-		for (int i = 0; i < this.geoSegments.size(); i++) {
-			sum += this.geoSegments.get(i).hashCode();
-
-		}
-		return sum / this.geoSegments.size();
+		return (int) (this.fingerprint ^ (this.fingerprint >>> 32));
 	}
 
 	/**
@@ -258,11 +283,11 @@ public class GeoFeature {
 	 **/
 	public String toString() {
 		checkRep();
-		String s = "";
-		for (int i = 0; i < this.geoSegments.size(); i++) {
-			s += this.geoSegments.get(i).toString() + " ----- ";
+		StringBuilder sb = new StringBuilder();
+		for (GeoSegment gs : this.geoSegments) {
+			sb.append(gs).append(" ----- ");
 		}
-		return s;
+		return sb.toString();
 	}
 	
 	/**
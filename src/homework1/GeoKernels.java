@@ -0,0 +1,81 @@
+package homework1;
+
+/**
+ * GeoKernels computes distances and headings for many pairs of points at
+ * once, on coordinates held in primitive arrays such as the columns of a
+ * GeoPointStore, without creating GeoPoint objects.
+ * <p>
+ * Every result is bit for bit the value <tt>GeoPoint.distanceTo()</tt> or
+ * <tt>GeoPoint.headingTo()</tt> returns for the same two points. The
+ * distance loops only use multiplications, additions and square roots,
+ * in the same order as distanceTo() (<tt>Math.pow(x, 2)</tt> is exactly
+ * <tt>x * x</tt>), with no branches and no calls, so the JIT compiler can
+ * unroll them and use vector instructions where the platform has them.
+ **/
+public final class GeoKernels {
+
+    private GeoKernels() {
+    }
+
+    /**
+     * Computes the distances between pairs of points.
+     *
+     * @requires all the arrays have at least count elements &&
+     * the coordinates are in millionths of degrees
+     * @modifies distances
+     * @effects for 0 <= i < count, sets distances[i] to the distance from
+     * (latitudes1[i], longitudes1[i]) to (latitudes2[i], longitudes2[i]),
+     * as computed by GeoPoint.distanceTo().
+     **/
+    public static void distances(int[] latitudes1, int[] longitudes1, int[] latitudes2,
+                                 int[] longitudes2, double[] distances, int count) {
+        double kmPerLatitude = GeoPoint.KM_PER_DEGREE_LATITUDE;
+        double kmPerLongitude = GeoPoint.KM_PER_DEGREE_LONGITUDE;
+        for (int i = 0; i < count; i++) {
+            double dLongitude = (longitudes2[i] - longitudes1[i]) * kmPerLongitude;
+            double dLatitude = (latitudes2[i] - latitudes1[i]) * kmPerLatitude;
+            distances[i] = Math.sqrt(dLongitude * dLongitude + dLatitude * dLatitude) / 1000000;
+        }
+    }
+
+    /**
+     * Computes the distances from a point to many points.
+     *
+     * @requires all the arrays have at least count elements &&
+     * the coordinates are in millionths of degrees
+     * @modifies distances
+     * @effects for 0 <= i < count, sets distances[i] to the distance from
+     * (latitude, longitude) to (latitudes[i], longitudes[i]), as computed
+     * by GeoPoint.distanceTo().
+     **/
+    public static void distancesFrom(int latitude, int longitude, int[] latitudes,
+                                     int[] longitudes, double[] distances, int count) {
+        double kmPerLatitude = GeoPoint.KM_PER_DEGREE_LATITUDE;
+        double kmPerLongitude = GeoPoint.KM_PER_DEGREE_LONGITUDE;
+        for (int i = 0; i < count; i++) {
+            double dLongitude = (longitudes[i] - longitude) * kmPerLongitude;
+            double dLatitude = (latitudes[i] - latitude) * kmPerLatitude;
+            distances[i] = Math.sqrt(dLongitude * dLongitude + dLatitude * dLatitude) / 1000000;
+        }
+    }
+
+    /**
+     * Computes the compass headings between pairs of points.
+     *
+     * @requires all the arrays have at least count elements &&
+     * the coordinates are in millionths of degrees &&
+     * (latitudes1[i], longitudes1[i]) != (latitudes2[i], longitudes2[i])
+     * for 0 <= i < count
+     * @modifies headings
+     * @effects for 0 <= i < count, sets headings[i] to the compass heading
+     * from (latitudes1[i], longitudes1[i]) to (latitudes2[i],
+     * longitudes2[i]), as computed by GeoPoint.headingTo().
+     **/
+    public static void headings(int[] latitudes1, int[] longitudes1, int[] latitudes2,
+                                int[] longitudes2, double[] headings, int count) {
+        for (int i = 0; i < count; i++) {
+            headings[i] = GeoPoint.heading(latitudes1[i], longitudes1[i],
+                    latitudes2[i], longitudes2[i]);
+        }
+    }
+}
@@ -62,6 +62,21 @@ public class GeoPoint implements Cloneable {
      */
     public static final double KM_PER_DEGREE_LONGITUDE = 93.681;
 
+    /**
+     * The largest difference, in degrees, between a heading computed by
+     * fastHeadingTo() and the heading computed by headingTo().
+     */
+    public static final double FAST_HEADING_MAX_ERROR = 0.001;
+
+    // coefficients of the odd polynomial approximating atan(z), in
+    // degrees, for 0 <= z <= 1 (Abramowitz and Stegun 4.4.49, whose error
+    // is at most 1e-5 radians)
+    private static final double ATAN_1 = Math.toDegrees(0.9998660);
+    private static final double ATAN_3 = Math.toDegrees(-0.3302995);
+    private static final double ATAN_5 = Math.toDegrees(0.1801410);
+    private static final double ATAN_7 = Math.toDegrees(-0.0851330);
+    private static final double ATAN_9 = Math.toDegrees(0.0208351);
+
     // Implementation hint:
     // Doubles and floating point math can cause some problems. The exact
     // value of a double can not be guaranteed except within some epsilon.
@@ -72,8 +87,8 @@ public class GeoPoint implements Cloneable {
     // and distance computations). Because of this, you should consider
     // using ints for your internal representation of GeoPoint.
 
-    int latitude;
-    int longitude;
+    final int latitude;
+    final int longitude;
 
     // Abstraction Function:
     // A GeoPoint p is NotInWorld
@@ -129,9 +144,7 @@ public class GeoPoint implements Cloneable {
      **/
     public double distanceTo(GeoPoint gp) {
         checkRep();
-        double distance_longitude = Math.abs(gp.longitude - this.longitude) * KM_PER_DEGREE_LONGITUDE;
-        double distance_latitude = Math.abs(gp.latitude - this.latitude) * KM_PER_DEGREE_LATITUDE;
-        return Math.sqrt(Math.pow(distance_longitude, 2) + Math.pow(distance_latitude, 2)) / 1000000;
+        return distance(this.latitude, this.longitude, gp.latitude, gp.longitude);
     }
 
     /**
@@ -144,6 +157,76 @@ public class GeoPoint implements Cloneable {
      * @requires gp != null && !this.equals(gp)
      **/
     public double headingTo(GeoPoint gp) {
+        checkRep();
+        return heading(this.latitude, this.longitude, gp.latitude, gp.longitude);
+    }
+
+    /**
+     * Computes an approximation of the compass heading between GeoPoints,
+     * several times faster than headingTo().
+     *
+     * @return a compass heading h such that 0 <= h < 360 and h differs from
+     * this.headingTo(gp) by at most FAST_HEADING_MAX_ERROR degrees, modulo
+     * 360.
+     * @requires gp != null && !this.equals(gp)
+     **/
+    public double fastHeadingTo(GeoPoint gp) {
+        checkRep();
+        return fastHeading(this.latitude, this.longitude, gp.latitude, gp.longitude);
+    }
+
+    /**
+     * Computes the distance between two points given by their coordinates.
+     *
+     * @return the distance from (lat1, lon1) to (lat2, lon2), using the
+     * flat-surface, near the Technion approximation.
+     * @requires the coordinates are in millionths of degrees
+     **/
+    static double distance(int lat1, int lon1, int lat2, int lon2) {
+        double distance_longitude = Math.abs(lon2 - lon1) * KM_PER_DEGREE_LONGITUDE;
+        double distance_latitude = Math.abs(lat2 - lat1) * KM_PER_DEGREE_LATITUDE;
+        return Math.sqrt(Math.pow(distance_longitude, 2) + Math.pow(distance_latitude, 2)) / 1000000;
+    }
+
+    /**
+     * Computes the distance from a point to a segment given by the
+     * coordinates of its endpoints.
+     *
+     * @return the distance from (lat, lon) to the point of the segment
+     * (lat1, lon1)-(lat2, lon2) closest to it, using the flat-surface, near
+     * the Technion approximation. If that point is an endpoint, this is
+     * exactly distance() from (lat, lon) to the endpoint.
+     * @requires the coordinates are in millionths of degrees
+     **/
+    static double segmentDistance(int lat, int lon, int lat1, int lon1, int lat2, int lon2) {
+        // in the flat approximation, distances are euclidean after scaling
+        // the coordinates by the kilometers per degree
+        double sx = (double) (lon2 - lon1) * KM_PER_DEGREE_LONGITUDE;
+        double sy = (double) (lat2 - lat1) * KM_PER_DEGREE_LATITUDE;
+        double px = (double) (lon - lon1) * KM_PER_DEGREE_LONGITUDE;
+        double py = (double) (lat - lat1) * KM_PER_DEGREE_LATITUDE;
+        double dot = px * sx + py * sy;
+        if (dot <= 0) {
+            return distance(lat, lon, lat1, lon1);
+        }
+        double squaredLength = sx * sx + sy * sy;
+        if (dot >= squaredLength) {
+            return distance(lat, lon, lat2, lon2);
+        }
+        return Math.abs(px * sy - py * sx) / Math.sqrt(squaredLength) / 1000000;
+    }
+
+    /**
+     * Computes the compass heading between two points given by their
+     * coordinates.
+     *
+     * @return the compass heading h from (lat1, lon1) to (lat2, lon2), in
+     * degrees, using the flat-surface, near the Technion approximation,
+     * such that 0 <= h < 360.
+     * @requires the coordinates are in millionths of degrees &&
+     * (lat1, lon1) != (lat2, lon2)
+     **/
+    static double heading(int lat1, int lon1, int lat2, int lon2) {
         // Implementation hints:
         // 1. You may find the mehtod Math.atan2() useful when
         // implementing this method. More info can be found at:
@@ -156,9 +239,8 @@ public class GeoPoint implements Cloneable {
 
         // I will put this point in the (0,0) and compute the atan2 on the
         // diifernce between them.
-        checkRep();
-        double x = (gp.latitude  - this.latitude) * KM_PER_DEGREE_LATITUDE;
-        double y = (gp.longitude - this.longitude) * KM_PER_DEGREE_LONGITUDE;
+        double x = (lat2 - lat1) * KM_PER_DEGREE_LATITUDE;
+        double y = (lon2 - lon1) * KM_PER_DEGREE_LONGITUDE;
         double theta = Math.toDegrees(Math.atan2(x, y));
         theta = theta < 0 ? 360 + theta : theta;
         if (theta >= 0 && theta <= 90)
@@ -166,6 +248,99 @@ public class GeoPoint implements Cloneable {
         return 360 - (theta - 90);
     }
 
+    /**
+     * Computes an approximation of the compass heading between two points
+     * given by their coordinates.
+     *
+     * @return a compass heading h such that 0 <= h < 360 and h differs from
+     * heading(lat1, lon1, lat2, lon2) by at most FAST_HEADING_MAX_ERROR
+     * degrees, modulo 360.
+     * @requires the coordinates are in millionths of degrees &&
+     * (lat1, lon1) != (lat2, lon2)
+     **/
+    static double fastHeading(int lat1, int lon1, int lat2, int lon2) {
+        double north = (lat2 - lat1) * KM_PER_DEGREE_LATITUDE;
+        double east = (lon2 - lon1) * KM_PER_DEGREE_LONGITUDE;
+        double absNorth = Math.abs(north);
+        double absEast = Math.abs(east);
+        // the angle from the north-south axis, folded into 0 .. 90 degrees
+        // so that the polynomial is only evaluated on 0 <= z <= 1
+        double angle;
+        if (absEast <= absNorth) {
+            angle = atanDegrees(absEast / absNorth);
+        } else {
+            angle = 90 - atanDegrees(absNorth / absEast);
+        }
+        if (north < 0) {
+            angle = 180 - angle;
+        }
+        if (east < 0 && angle != 0) {
+            angle = 360 - angle;
+        }
+        return angle >= 360 ? 0 : angle;
+    }
+
+    /**
+     * Returns an approximation of atan(z), in degrees.
+     *
+     * @requires 0 <= z <= 1
+     */
+    private static double atanDegrees(double z) {
+        double z2 = z * z;
+        return z * (ATAN_1 + z2 * (ATAN_3 + z2 * (ATAN_5 + z2 * (ATAN_7 + z2 * ATAN_9))));
+    }
+
+    /**
+     * Packs a latitude and a longitude into a single long.
+     *
+     * @return a long whose high 32 bits are latitude and whose low 32 bits
+     * are longitude.
+     * @requires latitude and longitude are in millionths of degrees
+     **/
+    public static long pack(int latitude, int longitude) {
+        return ((long) latitude << 32) | (longitude & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the latitude of a packed point.
+     *
+     * @return the latitude, in millionths of degrees, of the point packed
+     * by pack().
+     **/
+    public static int unpackLatitude(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Returns the longitude of a packed point.
+     *
+     * @return the longitude, in millionths of degrees, of the point packed
+     * by pack().
+     **/
+    public static int unpackLongitude(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Creates a GeoPoint from a packed point.
+     *
+     * @requires packed was returned by pack() for a valid point
+     * @return a GeoPoint gp such that gp.pack() = packed
+     **/
+    public static GeoPoint unpack(long packed) {
+        return new GeoPoint(unpackLatitude(packed), unpackLongitude(packed));
+    }
+
+    /**
+     * Returns this point packed into a single long.
+     *
+     * @return pack(this.latitude, this.longitude)
+     **/
+    public long pack() {
+        checkRep();
+        return pack(this.latitude, this.longitude);
+    }
+
     /**
      * Compares the specified Object with this GeoPoint for equality.
      *
@@ -184,11 +359,34 @@ public class GeoPoint implements Cloneable {
      * @return a hash code value for this GeoPoint.
      **/
     public int hashCode() {
-        // This implementation will work, but you may want to modify it
-        // for improved performance.
-
         checkRep();
-        return (this.latitude / 1000000 + this.longitude / 1000000) / 2;
+        return hash(pack(this.latitude, this.longitude));
+    }
+
+    /**
+     * Returns a well-mixed hash code for a packed point, such that nearby
+     * points are spread over all the bits of the result.
+     *
+     * @return a hash code for the point packed by pack(), equal to the
+     * hashCode() of that point.
+     **/
+    static int hash(long packed) {
+        // every input bit affects every output bit, so points a few
+        // millionths of a degree apart do not collide in hash tables.
+        return (int) mix(packed);
+    }
+
+    /**
+     * The 64-bit finalizer of MurmurHash3, which spreads every bit of z over
+     * the whole result. Shared by the hash codes of points and the
+     * fingerprints of segments.
+     *
+     * @return z, mixed.
+     **/
+    static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
     }
 
     /**
@@ -0,0 +1,255 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A GeoPointIndex maps points on the earth to non-negative int values, for
+ * example to the index of an intersection. GeoPointIndexes are mutable.
+ * <p>
+ * The index is an open-addressing hash table with linear probing over
+ * primitive arrays. Points are keyed by their packed coordinates (see
+ * <tt>GeoPoint.pack()</tt>), so neither keys nor values are boxed, and
+ * looking up a point does not allocate.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <p>
+ * <pre>
+ *   entries : set of (GeoPoint, int)   // the mapped points and their values,
+ *                                      // with at most one value per point
+ * </pre>
+ **/
+public class GeoPointIndex {
+
+    /**
+     * The value returned by lookups of points that are not in the index.
+     **/
+    public static final int NOT_FOUND = -1;
+
+    // no valid point packs to this value, since its latitude would be
+    // below MIN_LATITUDE.
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private static final int MIN_CAPACITY = 16;
+
+    // the largest power of 2 that is a valid array length
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The largest number of points a GeoPointIndex can hold.
+     **/
+    public static final int MAX_POINTS = MAX_CAPACITY / 2 - 1;
+
+    private long[] keys; // packed point of each slot, or EMPTY
+    private int[] values; // value of each slot with a key
+    private int size; // number of slots with a key
+    private int mask; // keys.length - 1
+    private int resizeThreshold; // size at which the table is grown
+
+    // Abstraction Function:
+    // A GeoPointIndex x holds the entries
+    // (GeoPoint.unpack(x.keys[i]), x.values[i]) for every i such that
+    // x.keys[i] != EMPTY.
+
+    // Representation invariant for every GeoPointIndex x:
+    // x.keys.length == x.values.length && x.keys.length is a power of 2 &&
+    // x.mask == x.keys.length - 1 && x.size < x.keys.length &&
+    // x.size == number of slots i with x.keys[i] != EMPTY &&
+    // for all i with x.keys[i] != EMPTY: x.values[i] >= 0 and no EMPTY slot
+    // lies between the home slot of x.keys[i] and i.
+
+    /**
+     * Constructs a new, empty GeoPointIndex.
+     *
+     * @effects Constructs a new GeoPointIndex x such that x.entries = {}
+     **/
+    public GeoPointIndex() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Constructs a new, empty GeoPointIndex that can hold the given number of
+     * points before it needs to grow.
+     *
+     * @requires expectedPoints >= 0
+     * @effects Constructs a new GeoPointIndex x such that x.entries = {}
+     * @throws IllegalArgumentException if expectedPoints > MAX_POINTS.
+     **/
+    public GeoPointIndex(int expectedPoints) {
+        if (expectedPoints > MAX_POINTS) {
+            throw new IllegalArgumentException("A GeoPointIndex holds at most "
+                    + MAX_POINTS + " points");
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity / 2 < expectedPoints) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+        checkRep();
+    }
+
+    /**
+     * Returns the value mapped to a point.
+     *
+     * @requires gp != null
+     * @return the value v such that (gp, v) is in this.entries, or NOT_FOUND
+     * if there is none.
+     **/
+    public int get(GeoPoint gp) {
+        return getPacked(gp.pack());
+    }
+
+    /**
+     * Returns the value mapped to a packed point.
+     *
+     * @requires packed was returned by GeoPoint.pack() for a valid point
+     * @return the value v such that (GeoPoint.unpack(packed), v) is in
+     * this.entries, or NOT_FOUND if there is none.
+     **/
+    public int getPacked(long packed) {
+        int slot = GeoPoint.hash(packed) & this.mask;
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == packed) {
+                return this.values[slot];
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Maps a point to a value, replacing any value it was mapped to.
+     *
+     * @requires gp != null && value >= 0
+     * @modifies this
+     * @effects this.entries = this.entries without any entry for gp, plus
+     * (gp, value)
+     * @return the value gp was mapped to before, or NOT_FOUND if there was
+     * none.
+     * @throws IllegalStateException if the point is not mapped and this
+     * already holds MAX_POINTS points.
+     **/
+    public int put(GeoPoint gp, int value) {
+        return putPacked(gp.pack(), value);
+    }
+
+    /**
+     * Maps a packed point to a value, replacing any value it was mapped to.
+     *
+     * @requires packed was returned by GeoPoint.pack() for a valid point &&
+     * value >= 0
+     * @modifies this
+     * @effects this.entries = this.entries without any entry for the point,
+     * plus (GeoPoint.unpack(packed), value)
+     * @return the value the point was mapped to before, or NOT_FOUND if
+     * there was none.
+     * @throws IllegalStateException if the point is not mapped and this
+     * already holds MAX_POINTS points.
+     **/
+    public int putPacked(long packed, int value) {
+        assert value >= 0 : "Values of a GeoPointIndex must be non-negative";
+        int slot = findSlot(packed);
+        if (this.keys[slot] == packed) {
+            int old = this.values[slot];
+            this.values[slot] = value;
+            return old;
+        }
+        insert(slot, packed, value);
+        return NOT_FOUND;
+    }
+
+    /**
+     * Maps a packed point to a value, unless the point is already mapped.
+     *
+     * @requires packed was returned by GeoPoint.pack() for a valid point &&
+     * value >= 0
+     * @modifies this
+     * @effects adds (GeoPoint.unpack(packed), value) to this.entries if the
+     * point has no entry
+     * @return the value the point was mapped to before, or NOT_FOUND if
+     * there was none and value was added.
+     * @throws IllegalStateException if the point is not mapped and this
+     * already holds MAX_POINTS points.
+     **/
+    public int putPackedIfAbsent(long packed, int value) {
+        assert value >= 0 : "Values of a GeoPointIndex must be non-negative";
+        int slot = findSlot(packed);
+        if (this.keys[slot] == packed) {
+            return this.values[slot];
+        }
+        insert(slot, packed, value);
+        return NOT_FOUND;
+    }
+
+    /**
+     * Returns the number of points in this index.
+     *
+     * @return the number of entries in this index.
+     **/
+    public int size() {
+        checkRep();
+        return this.size;
+    }
+
+    /**
+     * Returns the slot holding a key, or the empty slot where it belongs.
+     */
+    private int findSlot(long packed) {
+        int slot = GeoPoint.hash(packed) & this.mask;
+        while (this.keys[slot] != EMPTY && this.keys[slot] != packed) {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Stores a new key in an empty slot, growing the table when it becomes
+     * half full.
+     */
+    private void insert(int slot, long packed, int value) {
+        if (this.size == MAX_POINTS) {
+            throw new IllegalStateException("A GeoPointIndex holds at most "
+                    + MAX_POINTS + " points");
+        }
+        this.keys[slot] = packed;
+        this.values[slot] = value;
+        this.size++;
+        if (this.size >= this.resizeThreshold) {
+            long[] oldKeys = this.keys;
+            int[] oldValues = this.values;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int s = findSlot(oldKeys[i]);
+                    this.keys[s] = oldKeys[i];
+                    this.values[s] = oldValues[i];
+                }
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Replaces the table with an empty one of the given capacity, keeping
+     * the size.
+     */
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.resizeThreshold = capacity / 2;
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.keys.length == this.values.length
+                && Integer.bitCount(this.keys.length) == 1
+                && this.mask == this.keys.length - 1 :
+                "Table capacity must be a power of 2";
+        assert this.size < this.keys.length : "Table must have an empty slot";
+    }
+}
@@ -0,0 +1,233 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A GeoPointStore holds a sequence of points on the earth in columnar form,
+ * as parallel arrays of latitudes and longitudes, instead of as GeoPoint
+ * objects. GeoPointStores are mutable; points can only be added to their
+ * end.
+ * <p>
+ * Points in a store are referred to by their index, so a segment between
+ * two stored points can be described by a pair of indices, and its length
+ * and heading can be computed directly from the stored coordinates. The
+ * computed values are the same as those of <tt>GeoPoint.distanceTo()</tt>
+ * and <tt>GeoPoint.headingTo()</tt>. GeoPoint objects are only created when
+ * a caller asks for one.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <p>
+ * <pre>
+ *   points : sequence   // the stored points, in the order they were added
+ * </pre>
+ **/
+public class GeoPointStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] latitudes; // latitude of each point, followed by unused slots
+    private int[] longitudes; // longitude of each point, followed by unused
+    // slots
+    private int size; // number of stored points
+
+    // Abstraction Function:
+    // A GeoPointStore s holds the points
+    // (s.latitudes[i], s.longitudes[i]) for 0 <= i < s.size, in order.
+
+    // Representation invariant for every GeoPointStore s:
+    // s.latitudes.length == s.longitudes.length &&
+    // 0 <= s.size <= s.latitudes.length &&
+    // for all 0 <= i < s.size:
+    //     (MIN_LATITUDE <= s.latitudes[i] <= MAX_LATITUDE) and
+    //     (MIN_LONGITUDE <= s.longitudes[i] <= MAX_LONGITUDE)
+
+    /**
+     * Constructs a new, empty GeoPointStore.
+     *
+     * @effects Constructs a new GeoPointStore s such that s.points = []
+     **/
+    public GeoPointStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty GeoPointStore that can hold the given number of
+     * points before it needs to grow.
+     *
+     * @requires expectedPoints >= 0
+     * @effects Constructs a new GeoPointStore s such that s.points = []
+     **/
+    public GeoPointStore(int expectedPoints) {
+        this.latitudes = new int[Math.max(expectedPoints, 1)];
+        this.longitudes = new int[this.latitudes.length];
+        this.size = 0;
+        checkRep();
+    }
+
+    /**
+     * Adds a point to the end of this store.
+     *
+     * @requires (MIN_LATITUDE <= latitude <= MAX_LATITUDE) and
+     * (MIN_LONGITUDE <= longitude <= MAX_LONGITUDE)
+     * @modifies this
+     * @effects this.points = this.points + [(latitude, longitude)]
+     * @return the index of the added point.
+     **/
+    public int add(int latitude, int longitude) {
+        assert latitude >= GeoPoint.MIN_LATITUDE && latitude <= GeoPoint.MAX_LATITUDE
+                && longitude >= GeoPoint.MIN_LONGITUDE && longitude <= GeoPoint.MAX_LONGITUDE :
+                "Point (" + latitude + "," + longitude + ") is not in the world";
+        if (this.size == this.latitudes.length) {
+            this.latitudes = Arrays.copyOf(this.latitudes, this.size * 2);
+            this.longitudes = Arrays.copyOf(this.longitudes, this.size * 2);
+        }
+        this.latitudes[this.size] = latitude;
+        this.longitudes[this.size] = longitude;
+        return this.size++;
+    }
+
+    /**
+     * Adds a point to the end of this store.
+     *
+     * @requires gp != null
+     * @modifies this
+     * @effects this.points = this.points + [gp]
+     * @return the index of the added point.
+     **/
+    public int add(GeoPoint gp) {
+        return add(gp.latitude, gp.longitude);
+    }
+
+    /**
+     * Adds a packed point to the end of this store.
+     *
+     * @requires packed was returned by GeoPoint.pack() for a valid point
+     * @modifies this
+     * @effects this.points = this.points + [GeoPoint.unpack(packed)]
+     * @return the index of the added point.
+     **/
+    public int addPacked(long packed) {
+        return add(GeoPoint.unpackLatitude(packed), GeoPoint.unpackLongitude(packed));
+    }
+
+    /**
+     * Returns the number of points in this store.
+     *
+     * @return the number of points in this store.
+     **/
+    public int size() {
+        checkRep();
+        return this.size;
+    }
+
+    /**
+     * Returns the latitude of a stored point.
+     *
+     * @requires 0 <= i < this.size()
+     * @return the latitude of this.points[i] in millionths of degrees.
+     **/
+    public int getLatitude(int i) {
+        return this.latitudes[i];
+    }
+
+    /**
+     * Returns the longitude of a stored point.
+     *
+     * @requires 0 <= i < this.size()
+     * @return the longitude of this.points[i] in millionths of degrees.
+     **/
+    public int getLongitude(int i) {
+        return this.longitudes[i];
+    }
+
+    /**
+     * Returns a stored point packed into a single long.
+     *
+     * @requires 0 <= i < this.size()
+     * @return GeoPoint.pack() of this.points[i].
+     **/
+    public long getPacked(int i) {
+        return GeoPoint.pack(this.latitudes[i], this.longitudes[i]);
+    }
+
+    /**
+     * Returns a stored point as a new GeoPoint.
+     *
+     * @requires 0 <= i < this.size()
+     * @return a new GeoPoint equal to this.points[i].
+     **/
+    public GeoPoint getPoint(int i) {
+        return new GeoPoint(this.latitudes[i], this.longitudes[i]);
+    }
+
+    /**
+     * Computes the distance between two stored points.
+     *
+     * @requires 0 <= i, j < this.size()
+     * @return this.points[i].distanceTo(this.points[j])
+     **/
+    public double distance(int i, int j) {
+        return GeoPoint.distance(this.latitudes[i], this.longitudes[i],
+                this.latitudes[j], this.longitudes[j]);
+    }
+
+    /**
+     * Computes the compass heading between two stored points.
+     *
+     * @requires 0 <= i, j < this.size() && this.points[i] != this.points[j]
+     * @return this.points[i].headingTo(this.points[j])
+     **/
+    public double heading(int i, int j) {
+        return GeoPoint.heading(this.latitudes[i], this.longitudes[i],
+                this.latitudes[j], this.longitudes[j]);
+    }
+
+    /**
+     * Computes an approximation of the compass heading between two stored
+     * points.
+     *
+     * @requires 0 <= i, j < this.size() && this.points[i] != this.points[j]
+     * @return this.points[i].fastHeadingTo(this.points[j])
+     **/
+    public double fastHeading(int i, int j) {
+        return GeoPoint.fastHeading(this.latitudes[i], this.longitudes[i],
+                this.latitudes[j], this.longitudes[j]);
+    }
+
+    /**
+     * Creates a GeoSegment between two stored points.
+     *
+     * @requires name != null && 0 <= i, j < this.size() &&
+     * this.points[i] != this.points[j]
+     * @return a new GeoSegment gs such that gs.name = name &&
+     * gs.p1 = this.points[i] && gs.p2 = this.points[j]
+     **/
+    public GeoSegment getSegment(String name, int i, int j) {
+        return getSegment(name, i, j, false);
+    }
+
+    /**
+     * Creates a GeoSegment between two stored points, optionally with an
+     * approximate heading.
+     *
+     * @requires name != null && 0 <= i, j < this.size() &&
+     * this.points[i] != this.points[j]
+     * @return new GeoSegment(name, this.points[i], this.points[j],
+     * fastHeading)
+     **/
+    public GeoSegment getSegment(String name, int i, int j, boolean fastHeading) {
+        return new GeoSegment(name, getPoint(i), getPoint(j), fastHeading);
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.latitudes.length == this.longitudes.length :
+                "Coordinate columns must have the same length";
+        assert this.size >= 0 && this.size <= this.latitudes.length :
+                "Size must fit in the coordinate columns";
+    }
+}
@@ -0,0 +1,315 @@
+package homework1;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * A GeoReader reads the GeoPoints, GeoSegments and Routes a GeoWriter
+ * wrote to a channel, in the order they were written. GeoReaders are
+ * mutable and may not be used by several threads at once.
+ * <p>
+ * The channel is read through a buffer, one record at a time, so a stream
+ * of any size is read in constant memory, apart from the dictionary of
+ * street names. Names are created once and shared by all the segments that
+ * have them, and the points shared by consecutive segments of a route are
+ * created once. If the lengths and headings of the segments were stored,
+ * they are not computed again.
+ *
+ * @see homework1.GeoWriter
+ **/
+public class GeoReader implements Closeable {
+
+    /**
+     * The types of the records of a stream.
+     **/
+    public enum Type {
+        /** A GeoPoint, read by readPoint(). */
+        POINT,
+        /** A GeoSegment, read by readSegment(). */
+        SEGMENT,
+        /** A Route, read by readRoute(). */
+        ROUTE,
+        /** The end of the stream. */
+        END
+    }
+
+    private static final int MAX_PRESIZE = 1 << 12; // the most segments a route
+    // is presized for before they are read
+
+    private final ReadableByteChannel channel; // where the records are read
+    private ByteBuffer buffer; // the bytes read from channel but not yet decoded
+    private final boolean metrics; // whether lengths and headings were stored
+    private final ArrayList<String> names; // the dictionary of names
+    private int model; // the model byte of the segment read last
+    private int latitude; // latitude of the point read last
+    private int longitude; // longitude of the point read last
+    private Type next; // the type of the next record, or null if its tag
+    // was not read yet
+
+    // Abstraction Function:
+    // A GeoReader r has decoded the bytes read from r.channel but those of
+    // r.buffer[position .. limit-1], and the next record it returns is of
+    // type r.next if it is not null.
+
+    // Representation invariant for every GeoReader r:
+    // r.channel != null && r.buffer != null && r.names != null
+
+    /**
+     * Constructs a new GeoReader and reads the start of the stream.
+     *
+     * @requires channel != null
+     * @modifies channel
+     * @effects Constructs a new GeoReader that reads from channel.
+     * @throws IOException if channel throws it, or if the channel does not
+     * start with a stream written by a GeoWriter.
+     **/
+    public GeoReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(GeoWriter.BUFFER_SIZE);
+        this.buffer.flip();
+        this.names = new ArrayList<String>();
+        require(5);
+        if (this.buffer.getInt() != GeoWriter.MAGIC) {
+            throw new StreamCorruptedException("Not a GeoWriter stream");
+        }
+        this.metrics = (this.buffer.get() & GeoWriter.FLAG_METRICS) != 0;
+        checkRep();
+    }
+
+    /**
+     * Returns the type of the next record, without reading it.
+     *
+     * @return the type of the record the next read method returns, or END
+     * if all the records were read.
+     * @throws IOException if the channel throws it, or if the stream is
+     * corrupt.
+     **/
+    public Type peek() throws IOException {
+        if (this.next == null) {
+            int tag = getByte();
+            switch (tag) {
+                case GeoWriter.END:
+                    this.next = Type.END;
+                    break;
+                case GeoWriter.POINT:
+                    this.next = Type.POINT;
+                    break;
+                case GeoWriter.SEGMENT:
+                    this.next = Type.SEGMENT;
+                    break;
+                case GeoWriter.ROUTE:
+                    this.next = Type.ROUTE;
+                    break;
+                default:
+                    throw new StreamCorruptedException("Unknown record " + tag);
+            }
+        }
+        return this.next;
+    }
+
+    /**
+     * Reads a point.
+     *
+     * @modifies this
+     * @return the point written by the matching GeoWriter.writePoint().
+     * @throws IOException if the channel throws it, or if the stream is
+     * corrupt.
+     * @throws IllegalStateException if the next record is not a point.
+     **/
+    public GeoPoint readPoint() throws IOException {
+        take(Type.POINT);
+        return getPoint();
+    }
+
+    /**
+     * Reads a segment.
+     *
+     * @modifies this
+     * @return a segment equal to the one written by the matching
+     * GeoWriter.writeSegment(), with the same length and heading.
+     * @throws IOException if the channel throws it, or if the stream is
+     * corrupt.
+     * @throws IllegalStateException if the next record is not a segment.
+     **/
+    public GeoSegment readSegment() throws IOException {
+        take(Type.SEGMENT);
+        String name = getName();
+        GeoPoint p1 = getPoint();
+        return getSegment(name, p1, getPoint());
+    }
+
+    /**
+     * Reads a route.
+     *
+     * @modifies this
+     * @return a route equal to the one written by the matching
+     * GeoWriter.writeRoute(), whose segments have the same lengths and
+     * headings.
+     * @throws IOException if the channel throws it, or if the stream is
+     * corrupt.
+     * @throws IllegalStateException if the next record is not a route.
+     **/
+    public Route readRoute() throws IOException {
+        take(Type.ROUTE);
+        long count = getVarint();
+        if (count < 1 || count > Integer.MAX_VALUE - 8) {
+            throw new StreamCorruptedException("Bad route length " + count);
+        }
+        // the builder grows as segments are read, so a corrupt count ends
+        // the stream before it allocates more than what was read
+        RouteBuilder builder = new RouteBuilder((int) Math.min(count, MAX_PRESIZE));
+        GeoPoint p1 = getPoint();
+        for (long i = 0; i < count; i++) {
+            String name = getName();
+            GeoSegment gs = getSegment(name, p1, getPoint());
+            builder.addSegment(gs);
+            p1 = gs.p2;
+        }
+        return builder.freeze();
+    }
+
+    /**
+     * Closes the channel.
+     *
+     * @modifies this
+     * @effects closes the channel.
+     * @throws IOException if the channel throws it.
+     **/
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void take(Type type) throws IOException {
+        if (peek() != type) {
+            throw new IllegalStateException("Next record is " + this.next + ", not " + type);
+        }
+        this.next = null;
+    }
+
+    private GeoSegment getSegment(String name, GeoPoint p1, GeoPoint p2) throws IOException {
+        DistanceModel model = GeoWriter.MODELS[this.model & ~GeoWriter.FAST_HEADING];
+        boolean fastHeading = (this.model & GeoWriter.FAST_HEADING) != 0;
+        if (!this.metrics) {
+            return new GeoSegment(name, p1, p2, model, fastHeading);
+        }
+        require(16);
+        double length = this.buffer.getDouble();
+        double heading = this.buffer.getDouble();
+        // written the other way round so that NaN is rejected too
+        if (!(length > 0 && length < Double.POSITIVE_INFINITY)) {
+            throw new StreamCorruptedException("Bad segment length " + length);
+        }
+        if (!(heading >= 0 && heading < 360)) {
+            throw new StreamCorruptedException("Bad segment heading " + heading);
+        }
+        return new GeoSegment(name, p1, p2, model, fastHeading, length, heading);
+    }
+
+    /**
+     * Reads a name, after the model byte that may precede it.
+     */
+    private String getName() throws IOException {
+        long v = getVarint();
+        if (v == 0) {
+            int model = getByte();
+            if ((model & ~GeoWriter.FAST_HEADING) >= GeoWriter.MODELS.length) {
+                throw new StreamCorruptedException("Unknown model " + model);
+            }
+            this.model = model;
+            v = getVarint();
+        }
+        if (v < 1 || v > this.names.size() + 1) {
+            throw new StreamCorruptedException("Name " + v + " is not in the dictionary");
+        }
+        if (v <= this.names.size()) {
+            return this.names.get((int) v - 1);
+        }
+        long length = getVarint();
+        if (length > GeoWriter.MAX_NAME_LENGTH) {
+            throw new StreamCorruptedException("Bad name length " + length);
+        }
+        require((int) length);
+        String name = new String(this.buffer.array(), this.buffer.arrayOffset()
+                + this.buffer.position(), (int) length, StandardCharsets.UTF_8);
+        this.buffer.position(this.buffer.position() + (int) length);
+        this.names.add(name);
+        return name;
+    }
+
+    private GeoPoint getPoint() throws IOException {
+        long latitude = this.latitude + unzigzag(getVarint());
+        long longitude = this.longitude + unzigzag(getVarint());
+        if (latitude < GeoPoint.MIN_LATITUDE || latitude > GeoPoint.MAX_LATITUDE
+                || longitude < GeoPoint.MIN_LONGITUDE || longitude > GeoPoint.MAX_LONGITUDE) {
+            throw new StreamCorruptedException("Point out of range");
+        }
+        this.latitude = (int) latitude;
+        this.longitude = (int) longitude;
+        return new GeoPoint(this.latitude, this.longitude);
+    }
+
+    private long getVarint() throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = getByte();
+            v |= (long) (b & 0x7f) << shift;
+            if (b < 0x80) {
+                return v;
+            }
+        }
+        throw new StreamCorruptedException("Varint longer than 10 bytes");
+    }
+
+    static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private int getByte() throws IOException {
+        if (!this.buffer.hasRemaining()) {
+            require(1);
+        }
+        return this.buffer.get() & 0xff;
+    }
+
+    /**
+     * Reads from the channel until the buffer holds at least n bytes,
+     * growing it if it is smaller than n.
+     *
+     * @throws EOFException if the channel ends first.
+     */
+    private void require(int n) throws IOException {
+        if (this.buffer.remaining() >= n) {
+            return;
+        }
+        if (this.buffer.capacity() < n) {
+            ByteBuffer larger = ByteBuffer.allocate(n);
+            larger.put(this.buffer);
+            this.buffer = larger;
+        } else {
+            this.buffer.compact();
+        }
+        while (this.buffer.position() < n) {
+            if (this.channel.read(this.buffer) < 0) {
+                throw new EOFException("Stream ends inside a record");
+            }
+        }
+        this.buffer.flip();
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.channel != null && this.buffer != null && this.names != null :
+                "GeoReader must have a channel, a buffer and a dictionary";
+    }
+}
@@ -41,11 +41,20 @@ package homework1;
  **/
 public class GeoSegment {
 
-    String name; // name of the geographic feature identified
-    GeoPoint p1; // first endpoint of the segment
-    GeoPoint p2; // second endpoint of the segment
-    double length; // straight-line distance between p1 and p2, in kilometers
-    double heading; // compass heading from p1 to p2, in degrees
+    final String name; // name of the geographic feature identified
+    final GeoPoint p1; // first endpoint of the segment
+    final GeoPoint p2; // second endpoint of the segment
+    final double length; // straight-line distance between p1 and p2, in kilometers
+    final double heading; // compass heading from p1 to p2, in degrees
+    final boolean fastHeading; // whether heading was approximated by
+    // GeoPoint.fastHeadingTo()
+    final DistanceModel model; // the model length was computed with
+    final long fingerprint; // 64-bit hash of name, p1 and p2, equal for
+    // equal segments
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long FINGERPRINT_MULTIPLIER = 0x9e3779b97f4a7c15L; // odd
 
     // Abstraction Function:
     // A GeoSegment s is NotInWorld
@@ -65,11 +74,69 @@ public class GeoSegment {
      * endpoints.
      **/
     public GeoSegment(String name, GeoPoint p1, GeoPoint p2) {
+        this(name, p1, p2, false);
+    }
+
+    /**
+     * Constructs a new GeoSegment with the specified name and endpoints,
+     * optionally computing its heading with the faster approximation of
+     * GeoPoint.fastHeadingTo(). An approximate heading is never more than
+     * GeoPoint.FAST_HEADING_MAX_ERROR degrees away from the exact one,
+     * which is enough wherever headings are only compared with whole
+     * degrees, as turn instructions do.
+     *
+     * @requires name != null && p1 != null && p2 != null
+     * @effects constructs a new GeoSegment with the specified name and
+     * endpoints, whose heading is p1.fastHeadingTo(p2) if fastHeading is
+     * true and p1.headingTo(p2) otherwise.
+     **/
+    public GeoSegment(String name, GeoPoint p1, GeoPoint p2, boolean fastHeading) {
+        this(name, p1, p2, DistanceModel.FLAT, fastHeading);
+    }
+
+    /**
+     * Constructs a new GeoSegment with the specified name and endpoints,
+     * whose length is computed with a DistanceModel.
+     *
+     * @requires name != null && p1 != null && p2 != null && model != null
+     * @effects constructs a new GeoSegment with the specified name and
+     * endpoints, whose length is model.distance(p1, p2) and whose heading
+     * is p1.fastHeadingTo(p2) if fastHeading is true and p1.headingTo(p2)
+     * otherwise.
+     **/
+    public GeoSegment(String name, GeoPoint p1, GeoPoint p2, DistanceModel model,
+                      boolean fastHeading) {
         this.name = name; // because the class String is immutable.. so we can do =
-        this.p1 = new GeoPoint(p1.latitude, p1.longitude);
-        this.p2 = new GeoPoint(p2.latitude, p2.longitude);
-        this.length = p1.distanceTo(p2);
-        this.heading = p1.headingTo(p2);
+        this.p1 = p1; // GeoPoints are immutable too, so they can be shared
+        this.p2 = p2;
+        this.length = model.distance(p1, p2);
+        this.heading = fastHeading ? p1.fastHeadingTo(p2) : p1.headingTo(p2);
+        this.fastHeading = fastHeading;
+        this.model = model;
+        this.fingerprint = fingerprint(name, p1, p2);
+        checkRep();
+    }
+
+    /**
+     * Constructs a new GeoSegment whose length and heading were already
+     * computed, as GeoReader does when they were stored with the segment.
+     *
+     * @requires name != null && p1 != null && p2 != null && model != null
+     * && length and heading were computed from p1 and p2 as the other
+     * constructors do, with model and fastHeading
+     * @effects constructs a new GeoSegment with the specified name,
+     * endpoints, length and heading.
+     **/
+    GeoSegment(String name, GeoPoint p1, GeoPoint p2, DistanceModel model,
+               boolean fastHeading, double length, double heading) {
+        this.name = name;
+        this.p1 = p1;
+        this.p2 = p2;
+        this.length = length;
+        this.heading = heading;
+        this.fastHeading = fastHeading;
+        this.model = model;
+        this.fingerprint = fingerprint(name, p1, p2);
         checkRep();
     }
 
@@ -77,11 +144,13 @@ public class GeoSegment {
      * Returns a new GeoSegment like this one, but with its endpoints reversed.
      *
      * @return a new GeoSegment gs such that gs.name = this.name && gs.p1 =
-     * this.p2 && gs.p2 = this.p1
+     * this.p2 && gs.p2 = this.p1, whose length is computed with the same
+     * DistanceModel and whose heading is approximated iff the heading of
+     * this is
      **/
     public GeoSegment reverse() {
         checkRep();
-        return new GeoSegment(this.name, this.p2, this.p1);
+        return new GeoSegment(this.name, this.p2, this.p1, this.model, this.fastHeading);
     }
 
     /**
@@ -101,7 +170,7 @@ public class GeoSegment {
      */
     public GeoPoint getP1() {
         checkRep();
-        return this.p1.clone();
+        return this.p1;
     }
 
     /**
@@ -111,14 +180,15 @@ public class GeoSegment {
      */
     public GeoPoint getP2() {
         checkRep();
-        return this.p2.clone();
+        return this.p2;
     }
 
     /**
      * Returns the length of the segment.
      *
-     * @return the length of the segment, using the flat-surface, near the
-     * Technion approximation.
+     * @return the length of the segment, using the DistanceModel it was
+     * constructed with, which is the flat-surface, near the Technion
+     * approximation unless another model was given.
      */
     public double getLength() {
         checkRep();
@@ -137,6 +207,21 @@ public class GeoSegment {
         return this.heading;
     }
 
+    /**
+     * Computes the distance from a GeoPoint to this segment.
+     *
+     * @requires gp != null
+     * @return the distance from gp to the point of this segment closest to
+     * it, in kilometers, using the flat-surface, near the Technion
+     * approximation. If that point is p1 or p2, this is gp.distanceTo(p1)
+     * or gp.distanceTo(p2).
+     **/
+    public double distanceTo(GeoPoint gp) {
+        checkRep();
+        return GeoPoint.segmentDistance(gp.latitude, gp.longitude, this.p1.latitude,
+                this.p1.longitude, this.p2.latitude, this.p2.longitude);
+    }
+
     /**
      * Compares the specified Object with this GeoSegment for equality.
      *
@@ -155,12 +240,45 @@ public class GeoSegment {
      * @return a hash code value for this.
      **/
     public int hashCode() {
-        // This implementation will work, but you may want to modify it
-        // for improved performance.
+        checkRep();
+        // combined in order, so a segment and its reversal hash differently
+        int h = this.name.hashCode();
+        h = 31 * h + this.p1.hashCode();
+        return 31 * h + this.p2.hashCode();
+    }
 
+    /**
+     * Computes the fingerprint of a segment: a 64-bit hash of its name and
+     * endpoints. The characters of the name are hashed with FNV-1a, and the
+     * packed endpoints are mixed in with the finalizer of MurmurHash3, so
+     * segments that differ in any of them almost never collide.
+     *
+     * @requires name != null && p1 != null && p2 != null
+     * @return the fingerprint of the segment (name, p1, p2).
+     **/
+    static long fingerprint(String name, GeoPoint p1, GeoPoint p2) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < name.length(); i++) {
+            h = (h ^ name.charAt(i)) * FNV_PRIME;
+        }
+        h = GeoPoint.mix(h ^ p1.pack());
+        return GeoPoint.mix(h + p2.pack());
+    }
 
-        checkRep();
-        return (this.p1.hashCode() + this.p2.hashCode()) / 2;
+    /**
+     * Extends the fingerprint of a sequence of segments with one more
+     * segment. The fingerprint of a sequence s[0], ..., s[n-1] is the
+     * polynomial sum of s[i].fingerprint * M^(n-1-i), modulo 2^64, where M
+     * is an odd constant, so it depends on the order of the segments and
+     * extending a sequence costs a single multiply-add.
+     *
+     * @requires gs != null
+     * @return the fingerprint of the sequence whose fingerprint is
+     * fingerprint, followed by gs. The fingerprint of the empty sequence
+     * is 0.
+     **/
+    static long appendFingerprint(long fingerprint, GeoSegment gs) {
+        return fingerprint * FINGERPRINT_MULTIPLIER + gs.fingerprint;
     }
 
     /**
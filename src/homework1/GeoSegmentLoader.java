@@ -0,0 +1,466 @@
+package homework1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A GeoSegmentLoader creates GeoSegments from a text file with one segment
+ * per line, in parallel. GeoSegmentLoaders are immutable, and may be used
+ * by several threads at once.
+ * <p>
+ * Every line holds the name of a segment and the latitudes and longitudes
+ * of its endpoints, in millionths of degrees, separated by commas:
+ * <p>
+ * <pre>
+ * name, lat1, lon1, lat2, lon2
+ * </pre>
+ * <p>
+ * Spaces around the fields are ignored, and a name that holds commas may be
+ * quoted, with "" standing for a quote. Lines may end with \n or \r\n, and
+ * blank lines are skipped. The file is cut into chunks at line ends, and
+ * the chunks are mapped into memory and parsed by the threads of an
+ * ExecutorService, such as a ForkJoinPool. The numbers are parsed from the
+ * bytes of the file without creating Strings. Consecutive segments with
+ * the same name share their name, and a segment that starts where the one
+ * before it ends shares that point.
+ * <p>
+ * Lines that can not be parsed, or whose points are not in the world or
+ * are equal, are reported as Problems and skipped, and the rest of the
+ * file is loaded.
+ **/
+public class GeoSegmentLoader {
+
+    /**
+     * A line of the file that was skipped, and why.
+     **/
+    public static final class Problem {
+
+        private final long line;
+        private final String text;
+        private final String reason;
+
+        Problem(long line, String text, String reason) {
+            this.line = line;
+            this.text = text;
+            this.reason = reason;
+        }
+
+        /**
+         * Returns the number of the line.
+         *
+         * @return the number of the skipped line in the file, starting at 1.
+         **/
+        public long getLine() {
+            return this.line;
+        }
+
+        /**
+         * Returns the text of the line.
+         *
+         * @return the skipped line, without its line end.
+         **/
+        public String getText() {
+            return this.text;
+        }
+
+        /**
+         * Returns why the line was skipped.
+         *
+         * @return a description of what is wrong with the line.
+         **/
+        public String getReason() {
+            return this.reason;
+        }
+
+        /**
+         * Returns a string representation of this.
+         *
+         * @return a string representation of this.
+         **/
+        public String toString() {
+            return "line " + this.line + ": " + this.reason + ": " + this.text;
+        }
+    }
+
+    /**
+     * The segments and the problems of a loaded file.
+     **/
+    public static final class Result {
+
+        private final GeoSegment[] segments;
+        private final List<Problem> problems;
+
+        Result(GeoSegment[] segments, List<Problem> problems) {
+            this.segments = segments;
+            this.problems = problems;
+        }
+
+        /**
+         * Returns the loaded segments.
+         *
+         * @return the segments of the lines that were loaded, in the order
+         * of the lines.
+         **/
+        public GeoSegment[] getSegments() {
+            return this.segments;
+        }
+
+        /**
+         * Returns the skipped lines.
+         *
+         * @return an unmodifiable list of the Problems of the lines that
+         * were skipped, in the order of the lines.
+         **/
+        public List<Problem> getProblems() {
+            return this.problems;
+        }
+    }
+
+    private static final int DEFAULT_CHUNK_BYTES = 4 << 20;
+
+    private final ExecutorService executor; // runs the parsing tasks
+    private final int chunkBytes; // the size the file is cut into chunks of
+
+    // Representation invariant for every GeoSegmentLoader l:
+    // l.executor != null && l.chunkBytes >= 1
+
+    /**
+     * Constructs a GeoSegmentLoader that parses chunks of 4 MB on the
+     * common ForkJoinPool.
+     *
+     * @effects Constructs a new GeoSegmentLoader
+     **/
+    public GeoSegmentLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Constructs a GeoSegmentLoader.
+     *
+     * @requires executor != null && chunkBytes >= 1
+     * @effects Constructs a new GeoSegmentLoader that cuts files into chunks
+     * of about chunkBytes bytes, which the threads of executor parse
+     **/
+    public GeoSegmentLoader(ExecutorService executor, int chunkBytes) {
+        this.executor = executor;
+        this.chunkBytes = chunkBytes;
+        checkRep();
+    }
+
+    /**
+     * Loads the segments of a file.
+     *
+     * @requires file != null
+     * @return the segments of the lines of file that could be loaded and
+     * the problems of the others.
+     * @throws IOException if the file can not be read.
+     * @throws InterruptedException if the calling thread is interrupted.
+     **/
+    public Result load(Path file) throws IOException, InterruptedException {
+        ArrayList<Future<Chunk>> futures = new ArrayList<Future<Chunk>>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            while (start < size) {
+                long end = lineEnd(channel, Math.min(size, start + this.chunkBytes), size);
+                futures.add(this.executor.submit(new Chunk(channel, start, end)));
+                start = end;
+            }
+            int count = 0;
+            long lines = 0;
+            ArrayList<Problem> problems = new ArrayList<Problem>();
+            Chunk[] chunks = new Chunk[futures.size()];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = futures.get(i).get();
+                count += chunks[i].count;
+                for (Problem p : chunks[i].problems) {
+                    problems.add(new Problem(lines + p.line, p.text, p.reason));
+                }
+                lines += chunks[i].lines;
+            }
+            GeoSegment[] segments = new GeoSegment[count];
+            int next = 0;
+            for (Chunk chunk : chunks) {
+                System.arraycopy(chunk.segments, 0, segments, next, chunk.count);
+                next += chunk.count;
+            }
+            return new Result(segments, Collections.unmodifiableList(problems));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Loading failed", e.getCause());
+        } finally {
+            for (Future<Chunk> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Returns the position after the end of the line that position is in,
+     * or size if the line has no end.
+     */
+    private static long lineEnd(FileChannel channel, long position, long size) throws IOException {
+        if (position == size) {
+            return size;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long p = position - 1;
+        while (p < size) {
+            buffer.clear();
+            int n = channel.read(buffer, p);
+            if (n < 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n') {
+                    return p + i + 1;
+                }
+            }
+            p += n;
+        }
+        return size;
+    }
+
+    /**
+     * Parses the lines of a part of the file that starts at the start of a
+     * line and ends at the end of a line.
+     */
+    private static final class Chunk implements Callable<Chunk> {
+
+        final FileChannel channel;
+        final long start;
+        final long end;
+        GeoSegment[] segments = new GeoSegment[64]; // the loaded segments
+        int count; // number of loaded segments
+        final ArrayList<Problem> problems = new ArrayList<Problem>(); // with
+        // line numbers counted from the start of the chunk
+        long lines; // number of lines of the chunk
+
+        private MappedByteBuffer bytes; // the mapped chunk
+        private int p; // the position of the parser in bytes
+        private String reason; // why the last field could not be parsed
+        private int nameStart = -1; // where the name of the last segment
+        private int nameLength; // is in bytes, if it was not quoted
+        private String name; // the name of the last segment
+        private GeoPoint last; // the second endpoint of the last segment
+
+        Chunk(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public Chunk call() throws IOException {
+            this.bytes = this.channel.map(FileChannel.MapMode.READ_ONLY, this.start,
+                    this.end - this.start);
+            int limit = this.bytes.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && this.bytes.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int next = lineEnd + 1;
+                if (lineEnd > lineStart && this.bytes.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                this.lines++;
+                parseLine(lineStart, lineEnd);
+                lineStart = next;
+            }
+            this.bytes = null;
+            return this;
+        }
+
+        private void parseLine(int from, int to) {
+            this.p = skipSpaces(from, to);
+            if (this.p == to) {
+                return;
+            }
+            String name = parseName(to);
+            long lat1 = name == null ? Long.MIN_VALUE : parseInt(to, false);
+            long lon1 = lat1 == Long.MIN_VALUE ? lat1 : parseInt(to, false);
+            long lat2 = lon1 == Long.MIN_VALUE ? lon1 : parseInt(to, false);
+            long lon2 = lat2 == Long.MIN_VALUE ? lat2 : parseInt(to, true);
+            if (lon2 != Long.MIN_VALUE) {
+                if (!inWorld(lat1, lon1) || !inWorld(lat2, lon2)) {
+                    this.reason = "point is not in the world";
+                } else if (lat1 == lat2 && lon1 == lon2) {
+                    this.reason = "endpoints are equal";
+                } else {
+                    GeoPoint p1 = this.last != null && this.last.latitude == lat1
+                            && this.last.longitude == lon1
+                            ? this.last : new GeoPoint((int) lat1, (int) lon1);
+                    GeoPoint p2 = new GeoPoint((int) lat2, (int) lon2);
+                    add(new GeoSegment(name, p1, p2));
+                    this.last = p2;
+                    return;
+                }
+            }
+            byte[] text = new byte[to - from];
+            this.bytes.get(from, text);
+            this.problems.add(new Problem(this.lines,
+                    new String(text, StandardCharsets.UTF_8), this.reason));
+        }
+
+        private void add(GeoSegment gs) {
+            if (this.count == this.segments.length) {
+                this.segments = Arrays.copyOf(this.segments, 2 * this.count);
+            }
+            this.segments[this.count++] = gs;
+        }
+
+        private static boolean inWorld(long latitude, long longitude) {
+            return latitude >= GeoPoint.MIN_LATITUDE && latitude <= GeoPoint.MAX_LATITUDE
+                    && longitude >= GeoPoint.MIN_LONGITUDE && longitude <= GeoPoint.MAX_LONGITUDE;
+        }
+
+        /**
+         * Parses the name at p and the comma after it.
+         *
+         * @return the name, or null if there is none.
+         */
+        private String parseName(int to) {
+            String name;
+            int s;
+            int length = 0;
+            if (this.bytes.get(this.p) == '"') {
+                byte[] text = new byte[to - this.p];
+                int i = this.p + 1;
+                while (true) {
+                    if (i == to) {
+                        this.reason = "quoted name does not end";
+                        return null;
+                    }
+                    byte b = this.bytes.get(i++);
+                    if (b == '"') {
+                        if (i == to || this.bytes.get(i) != '"') {
+                            break;
+                        }
+                        i++;
+                    }
+                    text[length++] = b;
+                }
+                name = new String(text, 0, length, StandardCharsets.UTF_8);
+                s = -1;
+                this.p = skipSpaces(i, to);
+            } else {
+                s = this.p;
+                while (this.p < to && this.bytes.get(this.p) != ',') {
+                    this.p++;
+                }
+                int e = this.p;
+                while (e > s && isSpace(this.bytes.get(e - 1))) {
+                    e--;
+                }
+                length = e - s;
+                name = sameName(s, length) ? this.name : null;
+            }
+            if (this.p == to || this.bytes.get(this.p) != ',') {
+                this.reason = "expected 5 fields";
+                return null;
+            }
+            this.p++;
+            if (name == null) {
+                name = decode(s, length);
+            }
+            this.nameStart = s;
+            this.nameLength = length;
+            this.name = name;
+            return name;
+        }
+
+        private boolean sameName(int s, int length) {
+            if (this.nameStart < 0 || this.nameLength != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (this.bytes.get(this.nameStart + i) != this.bytes.get(s + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String decode(int s, int length) {
+            byte[] text = new byte[length];
+            this.bytes.get(s, text);
+            return new String(text, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Parses the integer at p and the comma after it, or the end of the
+         * line if last.
+         *
+         * @return the integer, or Long.MIN_VALUE if there is none.
+         */
+        private long parseInt(int to, boolean last) {
+            int i = skipSpaces(this.p, to);
+            boolean negative = false;
+            if (i < to && (this.bytes.get(i) == '-' || this.bytes.get(i) == '+')) {
+                negative = this.bytes.get(i) == '-';
+                i++;
+            }
+            int digits = i;
+            long v = 0;
+            while (i < to && i - digits < 11) {
+                int d = this.bytes.get(i) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                v = 10 * v + d;
+                i++;
+            }
+            if (i == digits) {
+                this.reason = "expected an integer";
+                return Long.MIN_VALUE;
+            }
+            i = skipSpaces(i, to);
+            if (last ? i != to : i == to || this.bytes.get(i) != ',') {
+                this.reason = i == to || this.bytes.get(i) == ',' ? "expected 5 fields"
+                        : "expected an integer";
+                return Long.MIN_VALUE;
+            }
+            this.p = i + 1;
+            return negative ? -v : v;
+        }
+
+        private int skipSpaces(int i, int to) {
+            while (i < to && isSpace(this.bytes.get(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t';
+        }
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.executor != null && this.chunkBytes >= 1 :
+                "GeoSegmentLoader must have an executor and a chunk size";
+    }
+}
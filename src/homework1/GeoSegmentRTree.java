@@ -0,0 +1,315 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A GeoSegmentRTree is a spatial index over a set of GeoSegments that finds
+ * the segments nearest to a GeoPoint, for example to snap a location to a
+ * road network before a route is searched, and the segments that cross a
+ * rectangular area. GeoSegmentRTrees are immutable and may be used by
+ * several threads at once.
+ * <p>
+ * The tree is an R-tree bulk loaded with the Sort-Tile-Recursive method:
+ * the segments are sorted by the latitude of their centers, cut into
+ * vertical slices, and every slice is sorted by longitude, so that each
+ * run of NODE_CAPACITY consecutive segments covers a small, nearly square
+ * area. Runs of consecutive entries of each level are then grouped into the
+ * nodes of the level above it, up to a single root. Since every node is
+ * full except the last one of its level, the tree is kept in flat arrays of
+ * bounding boxes with no child pointers at all.
+ * <p>
+ * Distances are the exact distances from a point to the closest point of a
+ * segment, in kilometers, as computed by <tt>GeoSegment.distanceTo()</tt>.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <p>
+ * <pre>
+ *   segments : set of GeoSegment   // the indexed segments
+ * </pre>
+ **/
+public class GeoSegmentRTree {
+
+    private static final int NODE_CAPACITY = 16; // entries grouped in a node
+
+    private final GeoSegment[] segments; // the segments, in the order of the leaves
+    private final int[] levelStarts; // the entries of level L are
+    // levelStarts[L] .. levelStarts[L+1]-1, level 0 being the segments
+    private final int[] minLatitudes; // bounding box of each entry
+    private final int[] minLongitudes;
+    private final int[] maxLatitudes;
+    private final int[] maxLongitudes;
+    private final ThreadLocal<IndexedMinHeap> heaps; // the queue of each
+    // thread running nearest() queries
+
+    // Abstraction Function:
+    // A GeoSegmentRTree t indexes the segments t.segments[0 .. n-1]. Entry i
+    // of level 0 is the segment segments[i], and entry j of a level L > 0 is
+    // a node whose children are the entries j*NODE_CAPACITY ..
+    // min((j+1)*NODE_CAPACITY, size of level L-1)-1 of level L-1.
+
+    // Representation invariant for every GeoSegmentRTree t:
+    // t.levelStarts[0] == 0 && t.levelStarts[1] == t.segments.length &&
+    // the last level has a single entry (the root) unless t.segments is
+    // empty && the box of every entry contains the boxes of its children
+
+    /**
+     * Constructs a GeoSegmentRTree.
+     *
+     * @requires segments != null && no element of segments is null
+     * @effects Constructs a new GeoSegmentRTree t such that t.segments =
+     * the elements of segments
+     **/
+    public GeoSegmentRTree(GeoSegment[] segments) {
+        int n = segments.length;
+        this.segments = strOrder(segments);
+
+        int[] starts = new int[2];
+        starts[1] = n;
+        int total = n;
+        for (int size = n; n > 0 && (size > 1 || starts.length == 2); ) {
+            // every level above the segments, up to a single root
+            size = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            starts = Arrays.copyOf(starts, starts.length + 1);
+            total += size;
+            starts[starts.length - 1] = total;
+        }
+        this.levelStarts = starts;
+        this.minLatitudes = new int[total];
+        this.minLongitudes = new int[total];
+        this.maxLatitudes = new int[total];
+        this.maxLongitudes = new int[total];
+        for (int i = 0; i < n; i++) {
+            GeoSegment gs = this.segments[i];
+            this.minLatitudes[i] = Math.min(gs.p1.latitude, gs.p2.latitude);
+            this.minLongitudes[i] = Math.min(gs.p1.longitude, gs.p2.longitude);
+            this.maxLatitudes[i] = Math.max(gs.p1.latitude, gs.p2.latitude);
+            this.maxLongitudes[i] = Math.max(gs.p1.longitude, gs.p2.longitude);
+        }
+        for (int level = 1; level + 1 < starts.length; level++) {
+            for (int i = starts[level]; i < starts[level + 1]; i++) {
+                int first = firstChild(i, level);
+                int end = endChild(i, level);
+                this.minLatitudes[i] = Integer.MAX_VALUE;
+                this.minLongitudes[i] = Integer.MAX_VALUE;
+                this.maxLatitudes[i] = Integer.MIN_VALUE;
+                this.maxLongitudes[i] = Integer.MIN_VALUE;
+                for (int c = first; c < end; c++) {
+                    this.minLatitudes[i] = Math.min(this.minLatitudes[i], this.minLatitudes[c]);
+                    this.minLongitudes[i] = Math.min(this.minLongitudes[i], this.minLongitudes[c]);
+                    this.maxLatitudes[i] = Math.max(this.maxLatitudes[i], this.maxLatitudes[c]);
+                    this.maxLongitudes[i] = Math.max(this.maxLongitudes[i], this.maxLongitudes[c]);
+                }
+            }
+        }
+        this.heaps = ThreadLocal.withInitial(() -> new IndexedMinHeap(this.minLatitudes.length));
+        checkRep();
+    }
+
+    /**
+     * Returns the segments in Sort-Tile-Recursive order. Odd slices are
+     * reversed, so consecutive leaves of neighbouring slices stay close.
+     */
+    private static GeoSegment[] strOrder(GeoSegment[] segments) {
+        int n = segments.length;
+        // sort keys hold a coordinate sum in the high bits and the index
+        // of the segment in the low bits, so primitive longs can be sorted
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) (segments[i].p1.latitude + segments[i].p2.latitude) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int leaves = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceSize = (int) Math.ceil(Math.sqrt(leaves)) * NODE_CAPACITY;
+        GeoSegment[] ordered = new GeoSegment[n];
+        long[] slice = new long[Math.min(sliceSize, n)];
+        for (int from = 0, s = 0; from < n; from += sliceSize, s++) {
+            int count = Math.min(sliceSize, n - from);
+            for (int k = 0; k < count; k++) {
+                GeoSegment gs = segments[(int) keys[from + k]];
+                slice[k] = ((long) (gs.p1.longitude + gs.p2.longitude) << 32) | (int) keys[from + k];
+            }
+            Arrays.sort(slice, 0, count);
+            for (int k = 0; k < count; k++) {
+                int i = (int) slice[s % 2 == 0 ? k : count - 1 - k];
+                ordered[from + k] = segments[i];
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns the number of indexed segments.
+     *
+     * @return the number of elements of this.segments.
+     **/
+    public int size() {
+        return this.segments.length;
+    }
+
+    /**
+     * Finds the segment nearest to a point.
+     *
+     * @requires gp != null
+     * @return a segment gs in this.segments such that gs.distanceTo(gp) is
+     * minimal, or null if this.segments is empty.
+     **/
+    public GeoSegment nearest(GeoPoint gp) {
+        GeoSegment[] found = nearest(gp, 1);
+        return found.length == 0 ? null : found[0];
+    }
+
+    /**
+     * Finds the segments nearest to a point.
+     *
+     * @requires gp != null && k > 0
+     * @return the min(k, this.size()) segments of this.segments whose
+     * distance to gp is smallest, ordered by increasing distance.
+     **/
+    public GeoSegment[] nearest(GeoPoint gp, int k) {
+        int count = Math.min(k, this.segments.length);
+        GeoSegment[] found = new GeoSegment[count];
+        if (count == 0) {
+            return found;
+        }
+        int lat = gp.latitude;
+        int lon = gp.longitude;
+        int n = this.segments.length;
+        // best first search: segments are queued with their exact distance
+        // and nodes with the distance to their box, which no segment in
+        // them is closer than, so segments are polled in order of distance
+        IndexedMinHeap heap = this.heaps.get();
+        heap.clear();
+        int root = this.minLatitudes.length - 1;
+        heap.offer(root, boxDistance(root, lat, lon));
+        int size = 0;
+        while (size < count) {
+            int i = heap.poll();
+            if (i < n) {
+                found[size++] = this.segments[i];
+                continue;
+            }
+            int level = levelOf(i);
+            int end = endChild(i, level);
+            for (int c = firstChild(i, level); c < end; c++) {
+                if (c < n) {
+                    GeoSegment gs = this.segments[c];
+                    heap.offer(c, GeoPoint.segmentDistance(lat, lon, gs.p1.latitude,
+                            gs.p1.longitude, gs.p2.latitude, gs.p2.longitude));
+                } else {
+                    heap.offer(c, boxDistance(c, lat, lon));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the segments that cross a rectangular area.
+     *
+     * @requires southWest != null && northEast != null &&
+     * southWest.latitude <= northEast.latitude &&
+     * southWest.longitude <= northEast.longitude
+     * @return the segments of this.segments that have at least one point
+     * inside the area bounded by southWest and northEast, or on its border,
+     * in no particular order.
+     **/
+    public GeoSegment[] search(GeoPoint southWest, GeoPoint northEast) {
+        int minLat = southWest.latitude;
+        int minLon = southWest.longitude;
+        int maxLat = northEast.latitude;
+        int maxLon = northEast.longitude;
+        GeoSegment[] found = new GeoSegment[16];
+        int size = 0;
+        if (this.segments.length == 0) {
+            return new GeoSegment[0];
+        }
+        int n = this.segments.length;
+        int[] stack = new int[NODE_CAPACITY * this.levelStarts.length];
+        int top = 0;
+        stack[top++] = this.minLatitudes.length - 1;
+        while (top > 0) {
+            int i = stack[--top];
+            if (this.minLatitudes[i] > maxLat || this.maxLatitudes[i] < minLat
+                    || this.minLongitudes[i] > maxLon || this.maxLongitudes[i] < minLon) {
+                continue;
+            }
+            if (i >= n) {
+                int level = levelOf(i);
+                int end = endChild(i, level);
+                for (int c = firstChild(i, level); c < end; c++) {
+                    stack[top++] = c;
+                }
+            } else if (crosses(this.segments[i], minLat, minLon, maxLat, maxLon)) {
+                if (size == found.length) {
+                    found = Arrays.copyOf(found, size * 2);
+                }
+                found[size++] = this.segments[i];
+            }
+        }
+        return Arrays.copyOf(found, size);
+    }
+
+    /**
+     * Returns true iff a segment whose bounding box overlaps a rectangle
+     * has a point in the rectangle. That is the case unless all the corners
+     * of the rectangle are strictly on the same side of the line through
+     * the segment. The sides are found with exact integer arithmetic.
+     */
+    private static boolean crosses(GeoSegment gs, int minLat, int minLon, int maxLat, int maxLon) {
+        long dLat = (long) gs.p2.latitude - gs.p1.latitude;
+        long dLon = (long) gs.p2.longitude - gs.p1.longitude;
+        int positive = 0;
+        int negative = 0;
+        for (int corner = 0; corner < 4; corner++) {
+            long lat = ((corner & 1) == 0 ? minLat : maxLat) - (long) gs.p1.latitude;
+            long lon = ((corner & 2) == 0 ? minLon : maxLon) - (long) gs.p1.longitude;
+            long side = Long.signum(dLon * lat - dLat * lon);
+            if (side > 0) {
+                positive++;
+            } else if (side < 0) {
+                negative++;
+            }
+        }
+        return positive < 4 && negative < 4;
+    }
+
+    /**
+     * Returns the distance from (lat, lon) to the closest point of the
+     * bounding box of entry i.
+     */
+    private double boxDistance(int i, int lat, int lon) {
+        int closestLat = Math.min(Math.max(lat, this.minLatitudes[i]), this.maxLatitudes[i]);
+        int closestLon = Math.min(Math.max(lon, this.minLongitudes[i]), this.maxLongitudes[i]);
+        return GeoPoint.distance(lat, lon, closestLat, closestLon);
+    }
+
+    private int levelOf(int i) {
+        int level = 1;
+        while (i >= this.levelStarts[level + 1]) {
+            level++;
+        }
+        return level;
+    }
+
+    private int firstChild(int i, int level) {
+        return this.levelStarts[level - 1] + (i - this.levelStarts[level]) * NODE_CAPACITY;
+    }
+
+    private int endChild(int i, int level) {
+        return Math.min(firstChild(i, level) + NODE_CAPACITY, this.levelStarts[level]);
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.levelStarts[0] == 0 && this.levelStarts[1] == this.segments.length :
+                "Level 0 must hold the segments";
+        assert this.segments.length == 0
+                || this.levelStarts[this.levelStarts.length - 1]
+                - this.levelStarts[this.levelStarts.length - 2] == 1 :
+                "The last level must be the root";
+    }
+}
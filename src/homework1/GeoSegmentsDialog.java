@@ -27,6 +27,44 @@ public class GeoSegmentsDialog extends JDialog {
 	 * 			owner and parent pnlParent
 	 */
 	public GeoSegmentsDialog(Frame owner, RouteFormatterGUI pnlParent) {
+		this(owner, pnlParent, arrayModel(ExampleGeoSegments.segments));
+	}
+
+	/**
+	 * Creates a new GeoSegmentsDialog JDialog that offers the segments of a
+	 * catalog. The segments are created only when the list shows them, so
+	 * catalogs of millions of segments open at once.
+	 * @requires catalog != null
+	 * @effects Creates a new GeoSegmentsDialog JDialog with owner-frame
+	 * 			owner and parent pnlParent, listing the segments of catalog
+	 */
+	public GeoSegmentsDialog(Frame owner, RouteFormatterGUI pnlParent,
+							 final SegmentCatalog catalog) {
+		this(owner, pnlParent, new AbstractListModel<GeoSegment>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public int getSize() {
+				return catalog.size();
+			}
+
+			@Override
+			public GeoSegment getElementAt(int index) {
+				return catalog.getSegment(index);
+			}
+		});
+	}
+
+	private static ListModel<GeoSegment> arrayModel(GeoSegment[] segments) {
+		DefaultListModel<GeoSegment> listModel = new DefaultListModel<>();
+		for(int i = 0; i < segments.length ; i++) {
+			listModel.addElement(segments[i]);
+		}
+		return listModel;
+	}
+
+	private GeoSegmentsDialog(Frame owner, RouteFormatterGUI pnlParent,
+							  ListModel<GeoSegment> listModel) {
 		// create a modal JDialog with the an owner Frame (a modal window
 		// in one that doesn't allow other windows to be active at the
 		// same time).
@@ -41,12 +79,11 @@ public class GeoSegmentsDialog extends JDialog {
             }
         });
 
-        DefaultListModel listModel = new DefaultListModel();
-		GeoSegment[] segments = ExampleGeoSegments.segments;
-		for(int i = 0; i < segments.length ; i++) {
-			listModel.addElement(segments[i]);
-		}
 		lstSegments = new JList<>(listModel);
+		if (listModel.getSize() > 0) {
+			// spares the list from creating every segment to measure it
+			lstSegments.setPrototypeCellValue(listModel.getElementAt(0));
+		}
         JScrollPane segmentListPane = new JScrollPane(lstSegments);
         segmentListPane.setPreferredSize(new Dimension(440, 400));
         segmentListPane.setAlignmentX(LEFT_ALIGNMENT);
@@ -0,0 +1,311 @@
+package homework1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * A GeoWriter writes GeoPoints, GeoSegments and Routes to a channel in a
+ * compact binary format, which a GeoReader reads back. GeoWriters are
+ * mutable and may not be used by several threads at once.
+ * <p>
+ * The records are written one after the other through a buffer, so a
+ * network or a corpus of routes of any size is written in constant memory,
+ * apart from the dictionary of street names. The format is:
+ * <p>
+ * <pre>
+ * stream   = magic:int32 flags:byte record* END
+ * record   = POINT point
+ *          | SEGMENT name point point metrics
+ *          | ROUTE count:varint point (name point metrics)^count
+ * name     = varint                   // 1 + index in the dictionary
+ *          | 0 model:byte name        // the model of the next segments
+ * point    = dlat:zigzag dlon:zigzag  // from the point written before
+ * metrics  = length:float64 heading:float64 if flags has METRICS, else nothing
+ * </pre>
+ * <p>
+ * Coordinates are written as the difference from the point written before
+ * them, so the many points that are close to each other take 2 to 6 bytes.
+ * Every point of a route but its start is the end of a segment, and only
+ * the end is written. A name that is not yet in the dictionary is added to
+ * it and written once, as its index followed by its length and its UTF-8
+ * bytes, of which there are at most MAX_NAME_LENGTH. Segments have the
+ * model of the segment written before them, starting with
+ * DistanceModel.FLAT and exact headings, unless a model byte says
+ * otherwise. Lengths and headings are written only if the GeoWriter
+ * stores metrics, which saves recomputing them when they are read.
+ * <p>
+ * Varints hold 7 bits in each byte, lowest first, with the high bit set on
+ * every byte but the last. Zigzag varints map 0, -1, 1, -2, ... to 0, 1,
+ * 2, 3, ... before.
+ **/
+public class GeoWriter implements Closeable {
+
+    static final int MAGIC = 0x47454f31; // "GEO1"
+    static final int FLAG_METRICS = 1;
+    static final int END = 0;
+    static final int POINT = 1;
+    static final int SEGMENT = 2;
+    static final int ROUTE = 3;
+    static final int FAST_HEADING = 0x80; // set in a model byte for
+    // approximate headings
+    static final DistanceModel[] MODELS = {DistanceModel.FLAT,
+            DistanceModel.EQUIRECTANGULAR, DistanceModel.HAVERSINE, DistanceModel.VINCENTY};
+    static final int BUFFER_SIZE = 1 << 16;
+    static final int MAX_NAME_LENGTH = BUFFER_SIZE; // in UTF-8 bytes
+
+    private final WritableByteChannel channel; // where the records are written
+    private final ByteBuffer buffer; // the bytes not yet written to channel
+    private final boolean metrics; // whether lengths and headings are written
+    private final HashMap<String, Integer> names; // the dictionary of names
+    private int model; // the model byte of the segment written last
+    private int latitude; // latitude of the point written last
+    private int longitude; // longitude of the point written last
+    private boolean closed;
+
+    // Abstraction Function:
+    // A GeoWriter w has written the bytes written to w.channel followed by
+    // w.buffer[0 .. position-1]; the names it has written are the keys of
+    // w.names, mapped to their index in the dictionary.
+
+    // Representation invariant for every GeoWriter w:
+    // w.channel != null && w.buffer != null && w.names != null &&
+    // the values of w.names are 0 .. w.names.size()-1
+
+    /**
+     * Constructs a new GeoWriter and writes the start of the stream.
+     *
+     * @requires channel != null
+     * @modifies channel
+     * @effects Constructs a new GeoWriter that writes to channel, with the
+     * lengths and headings of segments iff storeMetrics.
+     * @throws IOException if channel throws it.
+     **/
+    public GeoWriter(WritableByteChannel channel, boolean storeMetrics) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.metrics = storeMetrics;
+        this.names = new HashMap<String, Integer>();
+        this.buffer.putInt(MAGIC);
+        this.buffer.put((byte) (storeMetrics ? FLAG_METRICS : 0));
+        checkRep();
+    }
+
+    /**
+     * Writes a point.
+     *
+     * @requires gp != null
+     * @modifies this
+     * @effects writes gp, which GeoReader.readPoint() reads back.
+     * @throws IOException if the channel throws it.
+     * @throws IllegalStateException if this is closed.
+     **/
+    public void writePoint(GeoPoint gp) throws IOException {
+        checkOpen();
+        reserve(1);
+        this.buffer.put((byte) POINT);
+        putPoint(gp);
+    }
+
+    /**
+     * Writes a segment.
+     *
+     * @requires gs != null
+     * @modifies this
+     * @effects writes gs, which GeoReader.readSegment() reads back.
+     * @throws IOException if the channel throws it.
+     * @throws IllegalArgumentException if the length of gs was computed
+     * with a DistanceModel other than those of DistanceModel, or if its
+     * name is longer than MAX_NAME_LENGTH bytes in UTF-8.
+     * @throws IllegalStateException if this is closed.
+     **/
+    public void writeSegment(GeoSegment gs) throws IOException {
+        checkOpen();
+        reserve(1);
+        this.buffer.put((byte) SEGMENT);
+        putName(gs);
+        putPoint(gs.p1);
+        putPoint(gs.p2);
+        putMetrics(gs);
+    }
+
+    /**
+     * Writes a route.
+     *
+     * @requires route != null
+     * @modifies this
+     * @effects writes route, which GeoReader.readRoute() reads back.
+     * @throws IOException if the channel throws it.
+     * @throws IllegalArgumentException if the length of a segment of route
+     * was computed with a DistanceModel other than those of DistanceModel,
+     * or if its name is longer than MAX_NAME_LENGTH bytes in UTF-8.
+     * @throws IllegalStateException if this is closed.
+     **/
+    public void writeRoute(Route route) throws IOException {
+        checkOpen();
+        reserve(1 + 10);
+        this.buffer.put((byte) ROUTE);
+        putVarint(route.geoSegments.size());
+        putPoint(route.getStart());
+        Iterator<GeoSegment> i = route.getGeoSegments();
+        while (i.hasNext()) {
+            GeoSegment gs = i.next();
+            putName(gs);
+            putPoint(gs.p2);
+            putMetrics(gs);
+        }
+    }
+
+    /**
+     * Writes the buffered records to the channel.
+     *
+     * @modifies this
+     * @effects writes to the channel all the records written so far.
+     * @throws IOException if the channel throws it.
+     * @throws IllegalStateException if this is closed.
+     **/
+    public void flush() throws IOException {
+        checkOpen();
+        drain();
+    }
+
+    /**
+     * Writes the end of the stream and closes the channel. Closing a closed
+     * GeoWriter has no effect.
+     *
+     * @modifies this
+     * @effects writes the end of the stream and the buffered records to the
+     * channel, and closes it.
+     * @throws IOException if the channel throws it.
+     **/
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            reserve(1);
+            this.buffer.put((byte) END);
+            drain();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Writes the name of gs, preceded by its model byte if it differs from
+     * the model byte of the segment written last.
+     */
+    private void putName(GeoSegment gs) throws IOException {
+        int model = modelByte(gs);
+        if (model != this.model) {
+            reserve(2);
+            this.buffer.put((byte) 0);
+            this.buffer.put((byte) model);
+            this.model = model;
+        }
+        Integer index = this.names.get(gs.name);
+        if (index != null) {
+            reserve(5);
+            putVarint(index + 1);
+            return;
+        }
+        byte[] bytes = gs.name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Names longer than " + MAX_NAME_LENGTH
+                    + " bytes can not be written");
+        }
+        reserve(10);
+        putVarint(this.names.size() + 1);
+        putVarint(bytes.length);
+        this.names.put(gs.name, this.names.size());
+        reserve(bytes.length);
+        this.buffer.put(bytes);
+    }
+
+    private static int modelByte(GeoSegment gs) {
+        for (int i = 0; i < MODELS.length; i++) {
+            if (MODELS[i] == gs.model) {
+                return gs.fastHeading ? i | FAST_HEADING : i;
+            }
+        }
+        throw new IllegalArgumentException("Segments of other distance models can not be written");
+    }
+
+    private void putPoint(GeoPoint gp) throws IOException {
+        reserve(20);
+        putVarint(zigzag((long) gp.latitude - this.latitude));
+        putVarint(zigzag((long) gp.longitude - this.longitude));
+        this.latitude = gp.latitude;
+        this.longitude = gp.longitude;
+    }
+
+    private void putMetrics(GeoSegment gs) throws IOException {
+        if (this.metrics) {
+            reserve(16);
+            this.buffer.putDouble(gs.length);
+            this.buffer.putDouble(gs.heading);
+        }
+    }
+
+    /**
+     * Puts an unsigned varint of at most 10 bytes into the buffer.
+     *
+     * @requires the buffer has room for 10 bytes
+     */
+    private void putVarint(long v) {
+        while ((v & ~0x7fL) != 0) {
+            this.buffer.put((byte) (v | 0x80));
+            v >>>= 7;
+        }
+        this.buffer.put((byte) v);
+    }
+
+    static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    /**
+     * Makes room for n bytes in the buffer.
+     *
+     * @requires n <= BUFFER_SIZE
+     */
+    private void reserve(int n) throws IOException {
+        if (this.buffer.remaining() < n) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        this.buffer.flip();
+        write(this.buffer);
+        this.buffer.clear();
+    }
+
+    private void write(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            this.channel.write(bytes);
+        }
+    }
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("GeoWriter is closed");
+        }
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.channel != null && this.buffer != null && this.names != null :
+                "GeoWriter must have a channel, a buffer and a dictionary";
+    }
+}
@@ -0,0 +1,235 @@
+package homework1;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An ImmutableChain is an immutable, non-empty sequence of elements that can
+ * be extended at its end without copying the elements it already holds.
+ * <p>
+ * Every chain shares all of its elements but the last one with the chain it
+ * was created from, so appending an element or replacing the last element
+ * costs a single allocation regardless of the length of the sequence. This
+ * lets immutable classes such as Route keep their whole history while
+ * creating new instances in constant time.
+ * <p>
+ * A chain can also be created directly from an array, in which case it is
+ * backed by that array and iterating it does not copy any element.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <p>
+ * <pre>
+ *   elements : sequence    // the elements of the chain, in insertion order
+ * </pre>
+ **/
+final class ImmutableChain<E> implements Iterable<E> {
+
+    final ImmutableChain<E> prefix; // the chain holding all elements but the
+    // last one, or null if this chain holds a single element
+    final E last; // last element of the chain
+    final int size; // number of elements in the chain
+    final Object[] block; // the array holding all the elements of the chain
+    // from its first index, or null if the chain is linked
+
+    // Abstraction Function:
+    // An ImmutableChain c represents the sequence
+    // c.block[0 .. c.size-1] if c.block != null,
+    // c.prefix.elements + [c.last] if c.prefix != null,
+    // [c.last] otherwise.
+
+    // Representation invariant for every ImmutableChain c:
+    // c.last != null &&
+    // (c.block != null && c.prefix == null && c.size <= c.block.length &&
+    //  c.last == c.block[c.size-1] ||
+    //  c.block == null && c.prefix == null && c.size == 1 ||
+    //  c.block == null && c.prefix != null && c.size == c.prefix.size + 1)
+
+    private ImmutableChain(ImmutableChain<E> prefix, E last, int size) {
+        this.prefix = prefix;
+        this.last = last;
+        this.size = size;
+        this.block = null;
+        checkRep();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ImmutableChain(Object[] block, int size) {
+        this.prefix = null;
+        this.last = (E) block[size - 1];
+        this.size = size;
+        this.block = block;
+        checkRep();
+    }
+
+    /**
+     * Creates a chain holding a single element.
+     *
+     * @requires e != null
+     * @return a new ImmutableChain c such that c.elements = [e]
+     **/
+    static <E> ImmutableChain<E> of(E e) {
+        return new ImmutableChain<E>(null, e, 1);
+    }
+
+    /**
+     * Creates a chain backed by the given array. The array must not be
+     * modified afterwards.
+     *
+     * @requires elements != null && elements.length > 0 &&
+     * no element of elements is null
+     * @return a new ImmutableChain c such that c.elements = elements
+     **/
+    static <E> ImmutableChain<E> ofArray(E[] elements) {
+        return new ImmutableChain<E>(elements, elements.length);
+    }
+
+    /**
+     * Creates a chain that is equal to this chain with e appended to its end.
+     *
+     * @requires e != null
+     * @return a new ImmutableChain c such that c.elements =
+     * this.elements + [e]
+     **/
+    ImmutableChain<E> append(E e) {
+        checkRep();
+        return new ImmutableChain<E>(this, e, this.size + 1);
+    }
+
+    /**
+     * Creates a chain that is equal to this chain with its last element
+     * replaced by e.
+     *
+     * @requires e != null
+     * @return a new ImmutableChain c such that c.size = this.size &&
+     * c.elements[0 .. size-2] = this.elements[0 .. size-2] &&
+     * c.elements[size-1] = e
+     **/
+    ImmutableChain<E> replaceLast(E e) {
+        checkRep();
+        if (this.block != null) {
+            ImmutableChain<E> prefix = this.size == 1 ? null
+                    : new ImmutableChain<E>(this.block, this.size - 1);
+            return new ImmutableChain<E>(prefix, e, this.size);
+        }
+        return new ImmutableChain<E>(this.prefix, e, this.size);
+    }
+
+    /**
+     * Returns the last element of this chain.
+     *
+     * @return the last element of this chain.
+     **/
+    E getLast() {
+        checkRep();
+        return this.last;
+    }
+
+    /**
+     * Returns the number of elements in this chain.
+     *
+     * @return the number of elements in this chain.
+     **/
+    int size() {
+        checkRep();
+        return this.size;
+    }
+
+    /**
+     * Compares the elements of this chain with the elements of another
+     * chain.
+     * <p>
+     * The chains are walked together from their last elements, without
+     * copying them. Chains extended from a common chain share its nodes, so
+     * the walk stops as soon as it reaches a node or a backing array both
+     * chains share, and only the elements appended since are compared.
+     *
+     * @requires other != null
+     * @return true iff this.elements and other.elements have the same size
+     * and elements[i].equals(other.elements[i]) for every i.
+     **/
+    boolean contentEquals(ImmutableChain<?> other) {
+        checkRep();
+        if (this.size != other.size) {
+            return false;
+        }
+        ImmutableChain<?> a = this;
+        ImmutableChain<?> b = other;
+        // a and b hold the first i elements of this and other: a linked
+        // chain holds exactly i elements, a backed one at least i
+        for (int i = this.size; i > 0; i--) {
+            if (a == b || (a.block != null && a.block == b.block)) {
+                return true;
+            }
+            Object x = a.block != null ? a.block[i - 1] : a.last;
+            Object y = b.block != null ? b.block[i - 1] : b.last;
+            if (!x.equals(y)) {
+                return false;
+            }
+            if (a.block == null) {
+                a = a.prefix;
+            }
+            if (b.block == null) {
+                b = b.prefix;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns an Iterator over the elements of this chain, from the first
+     * element to the last. The Iterator does not support remove().
+     *
+     * @return an Iterator over this.elements, in order.
+     **/
+    @Override
+    public Iterator<E> iterator() {
+        checkRep();
+        // a linked chain is linked from its end, so its elements are
+        // collected backwards once and then handed out in order.
+        Object[] elements = this.block;
+        if (elements == null) {
+            elements = new Object[this.size];
+            ImmutableChain<E> c = this;
+            int i = this.size;
+            while (c != null && c.block == null) {
+                elements[--i] = c.last;
+                c = c.prefix;
+            }
+            if (c != null) {
+                System.arraycopy(c.block, 0, elements, 0, c.size);
+            }
+        }
+        final Object[] all = elements;
+        return new Iterator<E>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return (E) all[next++];
+            }
+        };
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.last != null : "Elements of a chain must not be null";
+        assert (this.block != null && this.prefix == null
+                && this.size <= this.block.length && this.last == this.block[this.size - 1])
+                || (this.block == null && this.prefix == null && this.size == 1)
+                || (this.block == null && this.prefix != null && this.size == this.prefix.size + 1) :
+                "Size of a chain must match the number of its elements";
+    }
+}
@@ -0,0 +1,216 @@
+package homework1;
+
+/**
+ * An IndexedMinHeap is a priority queue of int items, each in the range
+ * 0 .. capacity-1, ordered by a double key. IndexedMinHeaps are mutable.
+ * <p>
+ * The heap is a 4-ary heap over primitive arrays that also records the
+ * position of every item, so the key of a queued item can be decreased in
+ * logarithmic time. No operation allocates, and <tt>clear()</tt> only costs
+ * the number of queued items, so a single heap can be reused by many
+ * searches over a large graph.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <p>
+ * <pre>
+ *   entries : set of (int, real)   // the queued items and their keys
+ * </pre>
+ **/
+final class IndexedMinHeap {
+
+    private static final int ARITY = 4;
+
+    private final int[] items; // the heap, items[0 .. size-1]
+    private final double[] keys; // keys[i] is the key of items[i]
+    private final int[] positions; // positions[v] is the index of v in
+    // items if v is queued, garbage otherwise
+    private int size; // number of queued items
+
+    // Abstraction Function:
+    // An IndexedMinHeap h holds the entries (h.items[i], h.keys[i]) for
+    // 0 <= i < h.size.
+
+    // Representation invariant for every IndexedMinHeap h:
+    // 0 <= h.size <= h.items.length &&
+    // for all 0 <= i < h.size: h.positions[h.items[i]] == i &&
+    // for all 0 < i < h.size: h.keys[(i-1)/ARITY] <= h.keys[i]
+
+    /**
+     * Constructs a new, empty IndexedMinHeap.
+     *
+     * @requires capacity >= 0
+     * @effects Constructs a new IndexedMinHeap h such that h.entries = {}
+     * and items of h are in the range 0 .. capacity-1
+     **/
+    IndexedMinHeap(int capacity) {
+        this.items = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Returns true iff the heap is empty.
+     *
+     * @return this.entries = {}
+     **/
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of queued items.
+     *
+     * @return the number of entries in this heap.
+     **/
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns true iff an item is queued.
+     *
+     * @requires 0 <= v < capacity
+     * @return true iff (v, k) is in this.entries for some k.
+     **/
+    boolean contains(int v) {
+        int i = this.positions[v];
+        return i < this.size && i >= 0 && this.items[i] == v;
+    }
+
+    /**
+     * Returns the item with the smallest key.
+     *
+     * @requires !this.isEmpty()
+     * @return an item whose key is the smallest in this heap.
+     **/
+    int peek() {
+        return this.items[0];
+    }
+
+    /**
+     * Returns the smallest key.
+     *
+     * @requires !this.isEmpty()
+     * @return the smallest key in this heap.
+     **/
+    double peekKey() {
+        return this.keys[0];
+    }
+
+    /**
+     * Removes the item with the smallest key.
+     *
+     * @requires !this.isEmpty()
+     * @modifies this
+     * @effects removes the entry with the smallest key from this.entries
+     * @return the removed item.
+     **/
+    int poll() {
+        int top = this.items[0];
+        this.size--;
+        if (this.size > 0) {
+            siftDown(0, this.items[this.size], this.keys[this.size]);
+        }
+        return top;
+    }
+
+    /**
+     * Queues an item, or lowers its key if it is queued with a larger key.
+     *
+     * @requires 0 <= v < capacity
+     * @modifies this
+     * @effects if v is queued with key k > key, replaces (v, k) with
+     * (v, key); if v is not queued, adds (v, key) to this.entries
+     * @return true iff this.entries changed.
+     **/
+    boolean offer(int v, double key) {
+        int i;
+        if (contains(v)) {
+            i = this.positions[v];
+            if (this.keys[i] <= key) {
+                return false;
+            }
+        } else {
+            i = this.size++;
+        }
+        siftUp(i, v, key);
+        return true;
+    }
+
+    /**
+     * Removes an item, whatever its key.
+     *
+     * @requires 0 <= v < capacity
+     * @modifies this
+     * @effects removes the entry of v from this.entries, if there is one
+     * @return true iff this.entries changed.
+     **/
+    boolean remove(int v) {
+        if (!contains(v)) {
+            return false;
+        }
+        int i = this.positions[v];
+        this.size--;
+        if (i < this.size) {
+            int last = this.items[this.size];
+            double key = this.keys[this.size];
+            if (i > 0 && key < this.keys[(i - 1) / ARITY]) {
+                siftUp(i, last, key);
+            } else {
+                siftDown(i, last, key);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes all the items.
+     *
+     * @modifies this
+     * @effects this.entries = {}
+     **/
+    void clear() {
+        this.size = 0;
+    }
+
+    private void siftUp(int i, int v, double key) {
+        while (i > 0) {
+            int parent = (i - 1) / ARITY;
+            if (this.keys[parent] <= key) {
+                break;
+            }
+            move(this.items[parent], this.keys[parent], i);
+            i = parent;
+        }
+        move(v, key, i);
+    }
+
+    private void siftDown(int i, int v, double key) {
+        while (true) {
+            int first = i * ARITY + 1;
+            if (first >= this.size) {
+                break;
+            }
+            int smallest = first;
+            int last = Math.min(first + ARITY, this.size);
+            for (int c = first + 1; c < last; c++) {
+                if (this.keys[c] < this.keys[smallest]) {
+                    smallest = c;
+                }
+            }
+            if (this.keys[smallest] >= key) {
+                break;
+            }
+            move(this.items[smallest], this.keys[smallest], i);
+            i = smallest;
+        }
+        move(v, key, i);
+    }
+
+    private void move(int v, double key, int i) {
+        this.items[i] = v;
+        this.keys[i] = key;
+        this.positions[v] = i;
+    }
+}
@@ -0,0 +1,222 @@
+package homework1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+/**
+ * Polyline encodes the geometry of Routes in the encoded polyline format
+ * of Google Maps, and decodes it back into points.
+ * <p>
+ * An encoded polyline is a sequence of points, each written as the
+ * difference of its latitude and longitude from those of the point before
+ * it, rounded to a number of decimal digits of degrees called the
+ * precision. Each difference is shifted left by one bit, inverted if it is
+ * negative, and written in chunks of 5 bits, lowest first, as the
+ * characters 63 + chunk, with 0x20 added to every chunk but the last. The
+ * format of Google Maps has a precision of 5 digits; a precision of 6
+ * digits keeps the millionths of degrees of GeoPoints exactly.
+ * <p>
+ * The points of a Route are its start and the end of each of its segments,
+ * since every segment starts where the one before it ends. They are
+ * written as the segments are walked, straight into an Appendable or a
+ * ByteBuffer, so the encoding of a route needs no other memory.
+ **/
+public final class Polyline {
+
+    /**
+     * The precision of the encoded polylines of Google Maps.
+     */
+    public static final int GOOGLE_PRECISION = 5;
+
+    /**
+     * The precision that keeps GeoPoint coordinates exactly.
+     */
+    public static final int EXACT_PRECISION = 6;
+
+    private static final int[] SCALES = {1000000, 100000, 10000, 1000, 100, 10, 1};
+
+    private Polyline() {
+    }
+
+    /**
+     * Encodes the points of a route.
+     *
+     * @requires route != null
+     * @return the encoded polyline of the start of route and the end of
+     * each of its segments, at the given precision.
+     * @throws IllegalArgumentException if precision is not between 0 and 6.
+     **/
+    public static String encode(Route route, int precision) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            encode(route, precision, sb);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw IOException", e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends the encoded polyline of the points of a route to an
+     * Appendable.
+     *
+     * @requires route != null && out != null
+     * @modifies out
+     * @effects appends to out the String encode(route, precision) would
+     * return.
+     * @throws IOException if out throws it.
+     * @throws IllegalArgumentException if precision is not between 0 and 6.
+     **/
+    public static void encode(Route route, int precision, Appendable out) throws IOException {
+        int scale = scale(precision);
+        GeoPoint start = route.getStart();
+        int lat = round(start.latitude, scale);
+        int lon = round(start.longitude, scale);
+        appendNumber(lat, out);
+        appendNumber(lon, out);
+        Iterator<GeoSegment> i = route.getGeoSegments();
+        while (i.hasNext()) {
+            GeoPoint p = i.next().p2;
+            int nextLat = round(p.latitude, scale);
+            int nextLon = round(p.longitude, scale);
+            appendNumber(nextLat - lat, out);
+            appendNumber(nextLon - lon, out);
+            lat = nextLat;
+            lon = nextLon;
+        }
+    }
+
+    /**
+     * Writes the encoded polyline of the points of a route into a
+     * ByteBuffer, one ASCII byte per character.
+     *
+     * @requires route != null && out != null
+     * @modifies out
+     * @effects puts into out the characters of encode(route, precision),
+     * as bytes.
+     * @throws java.nio.BufferOverflowException if out has no room for
+     * them, in which case out holds part of them.
+     * @throws IllegalArgumentException if precision is not between 0 and 6.
+     **/
+    public static void encode(Route route, int precision, ByteBuffer out) {
+        int scale = scale(precision);
+        GeoPoint start = route.getStart();
+        int lat = round(start.latitude, scale);
+        int lon = round(start.longitude, scale);
+        putNumber(lat, out);
+        putNumber(lon, out);
+        Iterator<GeoSegment> i = route.getGeoSegments();
+        while (i.hasNext()) {
+            GeoPoint p = i.next().p2;
+            int nextLat = round(p.latitude, scale);
+            int nextLon = round(p.longitude, scale);
+            putNumber(nextLat - lat, out);
+            putNumber(nextLon - lon, out);
+            lat = nextLat;
+            lon = nextLon;
+        }
+    }
+
+    /**
+     * Decodes an encoded polyline.
+     *
+     * @requires polyline != null
+     * @return a new GeoPointStore holding the points of polyline, in order,
+     * in millionths of degrees.
+     * @throws IllegalArgumentException if precision is not between 0 and 6,
+     * or if polyline is not an encoded polyline of points in the world.
+     **/
+    public static GeoPointStore decode(CharSequence polyline, int precision) {
+        GeoPointStore points = new GeoPointStore(polyline.length() / 4);
+        decode(polyline, precision, points);
+        return points;
+    }
+
+    /**
+     * Decodes an encoded polyline into a GeoPointStore.
+     *
+     * @requires polyline != null && points != null
+     * @modifies points
+     * @effects adds the points of polyline to the end of points, in order,
+     * in millionths of degrees.
+     * @throws IllegalArgumentException if precision is not between 0 and 6,
+     * or if polyline is not an encoded polyline of points in the world, in
+     * which case the points before the malformed one are added.
+     **/
+    public static void decode(CharSequence polyline, int precision, GeoPointStore points) {
+        int scale = scale(precision);
+        long lat = 0;
+        long lon = 0;
+        boolean latitudeRead = false; // whether the longitude of a point is next
+        int i = 0;
+        int length = polyline.length();
+        while (i < length) {
+            long v = 0;
+            int shift = 0;
+            int c;
+            do {
+                if (i == length || shift > 30) {
+                    throw new IllegalArgumentException("Malformed polyline at " + i);
+                }
+                c = polyline.charAt(i++) - 63;
+                if (c < 0 || c > 63) {
+                    throw new IllegalArgumentException("Malformed polyline at " + (i - 1));
+                }
+                v |= (long) (c & 0x1f) << shift;
+                shift += 5;
+            } while (c >= 0x20);
+            long d = (v & 1) != 0 ? ~(v >> 1) : v >> 1;
+            if (!latitudeRead) {
+                lat += d;
+                latitudeRead = true;
+                continue;
+            }
+            lon += d;
+            latitudeRead = false;
+            long latitude = lat * scale;
+            long longitude = lon * scale;
+            if (latitude < GeoPoint.MIN_LATITUDE || latitude > GeoPoint.MAX_LATITUDE
+                    || longitude < GeoPoint.MIN_LONGITUDE || longitude > GeoPoint.MAX_LONGITUDE) {
+                throw new IllegalArgumentException("Polyline point is not in the world");
+            }
+            points.add((int) latitude, (int) longitude);
+        }
+        if (latitudeRead) {
+            throw new IllegalArgumentException("Polyline ends inside a point");
+        }
+    }
+
+    private static int scale(int precision) {
+        if (precision < 0 || precision > EXACT_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 0 and 6");
+        }
+        return SCALES[precision];
+    }
+
+    /**
+     * Rounds a coordinate in millionths of degrees to a multiple of scale,
+     * halves up, as Math.round() does.
+     */
+    private static int round(int coordinate, int scale) {
+        return Math.floorDiv(coordinate + scale / 2, scale);
+    }
+
+    private static void appendNumber(int v, Appendable out) throws IOException {
+        int u = v < 0 ? ~(v << 1) : v << 1;
+        while (u >= 0x20) {
+            out.append((char) ((0x20 | (u & 0x1f)) + 63));
+            u >>>= 5;
+        }
+        out.append((char) (u + 63));
+    }
+
+    private static void putNumber(int v, ByteBuffer out) {
+        int u = v < 0 ? ~(v << 1) : v << 1;
+        while (u >= 0x20) {
+            out.put((byte) ((0x20 | (u & 0x1f)) + 63));
+            u >>>= 5;
+        }
+        out.put((byte) (u + 63));
+    }
+}
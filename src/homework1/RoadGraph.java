@@ -0,0 +1,331 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A RoadGraph is a directed graph of a road network made of GeoSegments.
+ * RoadGraphs are immutable.
+ * <p>
+ * The endpoints of the segments become the nodes of the graph, with equal
+ * endpoints merged into a single node, so nodes represent intersections.
+ * Each segment becomes an edge from the node of its p1 to the node of its
+ * p2, and optionally also an edge in the reverse direction. Nodes and edges
+ * are identified by consecutive int ids starting at 0.
+ * <p>
+ * The graph is stored in compressed sparse row form: the edges leaving node
+ * v are the ids <tt>firstEdge(v) &lt;= e &lt; endEdge(v)</tt>, and the
+ * target, length, heading and name of every edge are kept in primitive
+ * arrays indexed by edge id. Iterating the neighbours of a node therefore
+ * does not allocate. For example:
+ * <p>
+ * <pre>
+ *   for (int e = graph.firstEdge(v); e &lt; graph.endEdge(v); e++)
+ *       visit(graph.getTarget(e), graph.getLength(e));
+ * </pre>
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <p>
+ * <pre>
+ *   nodes : sequence     // the distinct endpoints of the segments
+ *   edges : sequence     // directed (source node, target node, segment) triples
+ * </pre>
+ **/
+public class RoadGraph {
+
+    final GeoPointStore nodes; // location of each node
+    final GeoPointIndex nodeIds; // node id of each location
+    final int[] offsets; // edges leaving node v are offsets[v] .. offsets[v+1]-1
+    final int[] targets; // target node of each edge
+    final double[] lengths; // length of each edge, in kilometers
+    final double[] headings; // compass heading of each edge, in degrees
+    final int[] nameIds; // index in names of the name of each edge
+    final String[] names; // distinct names of the segments
+    final GeoSegment[] segments; // the segments the graph was built from
+    final int[] segmentIds; // index in segments of the segment of each edge,
+    // or ~index if the edge traverses that segment in reverse
+
+    // Abstraction Function:
+    // A RoadGraph g has the nodes g.nodes.points and, for every node v and
+    // offsets[v] <= e < offsets[v+1], the edge
+    // (v, targets[e], segments[segmentIds[e]]) if segmentIds[e] >= 0,
+    // (v, targets[e], segments[~segmentIds[e]].reverse()) otherwise.
+
+    // Representation invariant for every RoadGraph g:
+    // g.offsets.length == g.nodes.size() + 1 && g.offsets[0] == 0 &&
+    // g.offsets is non-decreasing && g.offsets[g.nodes.size()] ==
+    // g.targets.length == g.lengths.length == g.headings.length ==
+    // g.nameIds.length == g.segmentIds.length
+
+    /**
+     * Constructs a RoadGraph with one edge per segment.
+     *
+     * @requires segments != null && no element of segments is null
+     * @effects Constructs a new RoadGraph g whose edges are the segments,
+     * in the direction from p1 to p2
+     **/
+    public RoadGraph(GeoSegment[] segments) {
+        this(segments, false);
+    }
+
+    /**
+     * Constructs a RoadGraph from segments.
+     *
+     * @requires segments != null && no element of segments is null
+     * @effects Constructs a new RoadGraph g whose edges are the segments, in
+     * the direction from p1 to p2, and if bothDirections is true also the
+     * reversed segments
+     **/
+    public RoadGraph(GeoSegment[] segments, boolean bothDirections) {
+        this.segments = segments.clone();
+        this.nodes = new GeoPointStore(segments.length + 1);
+        this.nodeIds = new GeoPointIndex(segments.length + 1);
+        int[] sources = new int[segments.length];
+        int[] ends = new int[segments.length];
+        HashMap<String, Integer> nameDictionary = new HashMap<String, Integer>();
+        int[] segmentNameIds = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            GeoSegment gs = segments[i];
+            sources[i] = addNode(gs.p1);
+            ends[i] = addNode(gs.p2);
+            Integer nameId = nameDictionary.get(gs.name);
+            if (nameId == null) {
+                nameId = nameDictionary.size();
+                nameDictionary.put(gs.name, nameId);
+            }
+            segmentNameIds[i] = nameId;
+        }
+        this.names = new String[nameDictionary.size()];
+        for (Map.Entry<String, Integer> entry : nameDictionary.entrySet()) {
+            this.names[entry.getValue()] = entry.getKey();
+        }
+
+        // counting sort of the edges by source node, keeping the order of
+        // the segments among the edges of each node.
+        int nodeCount = this.nodes.size();
+        int edgeCount = bothDirections ? 2 * segments.length : segments.length;
+        this.offsets = new int[nodeCount + 1];
+        for (int i = 0; i < segments.length; i++) {
+            this.offsets[sources[i] + 1]++;
+            if (bothDirections) {
+                this.offsets[ends[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            this.offsets[v + 1] += this.offsets[v];
+        }
+        this.targets = new int[edgeCount];
+        this.lengths = new double[edgeCount];
+        this.headings = new double[edgeCount];
+        this.nameIds = new int[edgeCount];
+        this.segmentIds = new int[edgeCount];
+        int[] next = Arrays.copyOf(this.offsets, nodeCount);
+        for (int i = 0; i < segments.length; i++) {
+            int e = next[sources[i]]++;
+            this.targets[e] = ends[i];
+            this.lengths[e] = segments[i].getLength();
+            this.headings[e] = segments[i].getHeading();
+            this.nameIds[e] = segmentNameIds[i];
+            this.segmentIds[e] = i;
+            if (bothDirections) {
+                e = next[ends[i]]++;
+                this.targets[e] = sources[i];
+                // the same length and heading as segments[i].reverse(), which
+                // getSegment(e) returns: a DistanceModel need not be symmetric
+                GeoSegment gs = segments[i];
+                this.lengths[e] = gs.model.distance(gs.p2, gs.p1);
+                this.headings[e] = gs.fastHeading
+                        ? this.nodes.fastHeading(ends[i], sources[i])
+                        : this.nodes.heading(ends[i], sources[i]);
+                this.nameIds[e] = segmentNameIds[i];
+                this.segmentIds[e] = ~i;
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns the id of the node at a point, adding a node if there is none.
+     */
+    private int addNode(GeoPoint gp) {
+        long packed = gp.pack();
+        int id = this.nodeIds.putPackedIfAbsent(packed, this.nodes.size());
+        if (id == GeoPointIndex.NOT_FOUND) {
+            id = this.nodes.addPacked(packed);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the number of nodes in this graph.
+     *
+     * @return the number of nodes in this graph.
+     **/
+    public int getNodeCount() {
+        return this.nodes.size();
+    }
+
+    /**
+     * Returns the number of edges in this graph.
+     *
+     * @return the number of edges in this graph.
+     **/
+    public int getEdgeCount() {
+        return this.targets.length;
+    }
+
+    /**
+     * Returns the id of the node at a point.
+     *
+     * @requires gp != null
+     * @return the id of the node at gp, or GeoPointIndex.NOT_FOUND if no
+     * segment starts or ends at gp.
+     **/
+    public int getNodeId(GeoPoint gp) {
+        return this.nodeIds.get(gp);
+    }
+
+    /**
+     * Returns the location of a node.
+     *
+     * @requires 0 <= v < this.getNodeCount()
+     * @return the location of node v.
+     **/
+    public GeoPoint getNode(int v) {
+        return this.nodes.getPoint(v);
+    }
+
+    /**
+     * Returns the id of the first edge leaving a node.
+     *
+     * @requires 0 <= v < this.getNodeCount()
+     * @return the id of the first edge leaving v; if no edge leaves v, this
+     * is equal to endEdge(v).
+     **/
+    public int firstEdge(int v) {
+        return this.offsets[v];
+    }
+
+    /**
+     * Returns the id following the last edge leaving a node.
+     *
+     * @requires 0 <= v < this.getNodeCount()
+     * @return the id following the last edge leaving v.
+     **/
+    public int endEdge(int v) {
+        return this.offsets[v + 1];
+    }
+
+    /**
+     * Returns the target node of an edge.
+     *
+     * @requires 0 <= e < this.getEdgeCount()
+     * @return the id of the node edge e leads to.
+     **/
+    public int getTarget(int e) {
+        return this.targets[e];
+    }
+
+    /**
+     * Returns the length of an edge.
+     *
+     * @requires 0 <= e < this.getEdgeCount()
+     * @return the length of the segment of edge e, in kilometers.
+     **/
+    public double getLength(int e) {
+        return this.lengths[e];
+    }
+
+    /**
+     * Returns the heading of an edge.
+     *
+     * @requires 0 <= e < this.getEdgeCount()
+     * @return the compass heading of the segment of edge e, in degrees.
+     **/
+    public double getHeading(int e) {
+        return this.headings[e];
+    }
+
+    /**
+     * Returns the name id of an edge. Edges have equal name ids iff their
+     * segments have equal names.
+     *
+     * @requires 0 <= e < this.getEdgeCount()
+     * @return the id of the name of the segment of edge e.
+     **/
+    public int getNameId(int e) {
+        return this.nameIds[e];
+    }
+
+    /**
+     * Returns the name with a given name id.
+     *
+     * @requires 0 <= nameId < number of distinct names in this graph
+     * @return the name whose id is nameId.
+     **/
+    public String getName(int nameId) {
+        return this.names[nameId];
+    }
+
+    /**
+     * Returns the segment traversed by an edge.
+     *
+     * @requires 0 <= e < this.getEdgeCount()
+     * @return the segment the edge was built from, or its reversal if the
+     * edge traverses it from p2 to p1.
+     **/
+    public GeoSegment getSegment(int e) {
+        int id = this.segmentIds[e];
+        return id >= 0 ? this.segments[id] : this.segments[~id].reverse();
+    }
+
+    /**
+     * Creates a Route that follows a sequence of edges.
+     *
+     * @requires edges != null && edges.length > 0 && every element of edges
+     * is a valid edge id
+     * @return a new Route whose segments are the segments of the edges, in
+     * order.
+     * @throws IllegalArgumentException if an edge does not start at the node
+     * the edge before it leads to.
+     **/
+    public Route toRoute(int[] edges) {
+        return toRoute(edges, 0, edges.length);
+    }
+
+    /**
+     * Creates a Route that follows part of a sequence of edges.
+     *
+     * @requires edges != null && 0 <= from && count > 0 &&
+     * from + count <= edges.length && every element of edges is a valid
+     * edge id
+     * @return a new Route whose segments are the segments of
+     * edges[from .. from+count-1], in order.
+     * @throws IllegalArgumentException if an edge does not start at the node
+     * the edge before it leads to.
+     **/
+    public Route toRoute(int[] edges, int from, int count) {
+        RouteBuilder builder = new RouteBuilder(count);
+        for (int i = from; i < from + count; i++) {
+            builder.addSegment(getSegment(edges[i]));
+        }
+        return builder.freeze();
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.offsets.length == this.nodes.size() + 1 && this.offsets[0] == 0
+                && this.offsets[this.nodes.size()] == this.targets.length :
+                "Offsets must cover all the edges";
+        assert this.targets.length == this.lengths.length
+                && this.targets.length == this.headings.length
+                && this.targets.length == this.nameIds.length
+                && this.targets.length == this.segmentIds.length :
+                "Edge columns must have the same length";
+    }
+}
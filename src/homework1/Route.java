@@ -1,7 +1,6 @@
 package homework1;
 
 import java.util.Iterator;
-import java.util.LinkedList;
 
 /**
  * A Route is a path that traverses arbitrary GeoSegments, regardless of their
@@ -40,12 +39,16 @@ public class Route {
     // degrees
     final double endHeading; // direction of travel at the end of the route, in
     // degrees
-    final LinkedList<GeoFeature> geoFeatures; // a sequence of geographic features
-    // that make up this Route
-    final LinkedList<GeoSegment> geoSegments; // a sequence of segments that make up
-    // this Route
+    final ImmutableChain<GeoFeature> geoFeatures; // a sequence of geographic
+    // features that make up this Route, shared with the route it extends
+    final ImmutableChain<GeoSegment> geoSegments; // a sequence of segments that
+    // make up this Route, shared with the route it extends
     final double length; // total length of the route, in kilometers
     final GeoSegment endingGeoSegment; // last GeoSegment of the route
+    final long fingerprint; // fingerprint of geoSegments, see
+    // GeoSegment.appendFingerprint()
+    private RouteIndex index; // index of the distances along the route,
+    // built by the first query that needs it, see index()
 
     /**
      * Constructs a new Route.
@@ -59,19 +62,20 @@ public class Route {
         this.end = gs.getP2();
         this.startHeading = gs.getHeading();
         this.endHeading = gs.getHeading();
-        this.geoFeatures = new LinkedList<GeoFeature>() {{
-            add(new GeoFeature(gs));
-        }};
-        this.geoSegments = new LinkedList<GeoSegment>() {{
-            add(gs);
-        }};
+        this.geoFeatures = ImmutableChain.of(new GeoFeature(gs));
+        this.geoSegments = ImmutableChain.of(gs);
         this.length = gs.getLength();
         this.endingGeoSegment = gs;
+        this.fingerprint = GeoSegment.appendFingerprint(0, gs);
         checkRep();
     }
 
     /**
      * Constructs a new Route.
+     * <p>
+     * The new Route shares the segments and the geographic features of r,
+     * so only the last geographic feature is extended or a new one is
+     * started, regardless of the length of r.
      *
      * @requires gs != null r!=null
      * @effects Constructs a new Route, r, such that r.startHeading = r.startHeading
@@ -82,33 +86,47 @@ public class Route {
         this.end = gs.getP2();
         this.startHeading = r.getStartHeading();
         this.endHeading = gs.getHeading();
-        this.geoFeatures = new LinkedList<GeoFeature>() {{
-            Iterator<GeoSegment> i;
-            String lastFeature_name = "";
-            for (GeoFeature s : r.geoFeatures) {
-                i = s.getGeoSegments();
-                GeoFeature gf_temp = new GeoFeature((GeoSegment) i.next());
-                while (i.hasNext()) {
-                    gf_temp = new GeoFeature(gf_temp, (GeoSegment) i.next());
-                }
-                add(gf_temp);
-                lastFeature_name = gf_temp.getName();
-            }
-            if (gs.getName().equals(lastFeature_name)) {
-                set(size() - 1, new GeoFeature(get(size() - 1), gs));
-            } else {
-                add(new GeoFeature(gs));
-            }
-        }};
-
-        this.geoSegments = new LinkedList<GeoSegment>() {{
-            for (GeoSegment s : r.geoSegments) {
-                add(new GeoSegment(s.getName(), s.getP1(), s.getP2()));
-            }
-            add(gs);
-        }};
+        GeoFeature lastFeature = r.geoFeatures.getLast();
+        if (gs.getName().equals(lastFeature.getName())) {
+            this.geoFeatures = r.geoFeatures.replaceLast(lastFeature.addSegment(gs));
+        } else {
+            this.geoFeatures = r.geoFeatures.append(new GeoFeature(gs));
+        }
+        this.geoSegments = r.geoSegments.append(gs);
         this.length = gs.getLength() + r.getLength();
         this.endingGeoSegment = gs;
+        this.fingerprint = GeoSegment.appendFingerprint(r.fingerprint, gs);
+        checkRep();
+    }
+
+    /**
+     * Constructs a new Route from all of its segments and geographic features
+     * at once. The new Route is backed by the given arrays, which must not be
+     * modified afterwards.
+     *
+     * @requires segments != null && features != null && segments.length > 0
+     * && the concatenation of features is segments && no two consecutive
+     * features have the same name && length = sum of segments' lengths
+     * @effects Constructs a new Route, r, such that r.geoSegments = segments
+     * && r.geoFeatures = features && r.length = length
+     * @see homework1.RouteBuilder
+     **/
+    Route(GeoSegment[] segments, GeoFeature[] features, double length) {
+        GeoSegment first = segments[0];
+        GeoSegment last = segments[segments.length - 1];
+        this.start = first.getP1();
+        this.end = last.getP2();
+        this.startHeading = first.getHeading();
+        this.endHeading = last.getHeading();
+        this.geoFeatures = ImmutableChain.ofArray(features);
+        this.geoSegments = ImmutableChain.ofArray(segments);
+        this.length = length;
+        this.endingGeoSegment = last;
+        long fingerprint = 0;
+        for (GeoSegment gs : segments) {
+            fingerprint = GeoSegment.appendFingerprint(fingerprint, gs);
+        }
+        this.fingerprint = fingerprint;
         checkRep();
     }
 
@@ -227,40 +245,127 @@ public class Route {
         return this.geoSegments.iterator();
     }
 
+    /**
+     * Returns the number of the segment at a distance along the route.
+     * <p>
+     * This and the other queries by distance along the route take
+     * logarithmic time and allocate nothing, but the first of them on a
+     * Route takes time linear in its number of segments.
+     *
+     * @requires 0 <= offset <= this.length
+     * @return the index i, counting from 0, of the segment a[i] of
+     * getGeoSegments() such that sum(0 <= j < i) . a[j].length <= offset <
+     * sum(0 <= j <= i) . a[j].length, or of the last segment if offset =
+     * this.length.
+     **/
+    public int getSegmentIndexAt(double offset) {
+        checkRep();
+        return index().findSegment(offset);
+    }
+
+    /**
+     * Returns the segment at a distance along the route.
+     *
+     * @requires 0 <= offset <= this.length
+     * @return the segment of getGeoSegments() whose number is
+     * getSegmentIndexAt(offset).
+     **/
+    public GeoSegment getGeoSegmentAt(double offset) {
+        checkRep();
+        RouteIndex index = index();
+        return index.getSegment(index.findSegment(offset));
+    }
+
+    /**
+     * Returns the geographic feature at a distance along the route.
+     *
+     * @requires 0 <= offset <= this.length
+     * @return the GeoFeature of getGeoFeatures() that holds
+     * getGeoSegmentAt(offset).
+     **/
+    public GeoFeature getGeoFeatureAt(double offset) {
+        checkRep();
+        return index().findFeature(offset);
+    }
+
+    /**
+     * Returns the location at a distance along the route. Only the returned
+     * GeoPoint is allocated, and only if it is not the end of a segment.
+     *
+     * @requires 0 <= offset <= this.length
+     * @return the point of getGeoSegmentAt(offset), interpolated linearly
+     * between its p1 and p2, whose distance along the route from this.start
+     * is offset.
+     **/
+    public GeoPoint getPointAt(double offset) {
+        checkRep();
+        return index().getPoint(offset);
+    }
+
+    /**
+     * Returns the distance from the start of a segment to the end of the
+     * route.
+     *
+     * @requires 0 <= i < number of segments of this route
+     * @return sum(i <= j < a.length) . a[j].length, where a is the sequence
+     * of getGeoSegments().
+     * @throws IndexOutOfBoundsException if i is not the number of a segment
+     * of this route.
+     **/
+    public double getRemainingLength(int i) {
+        checkRep();
+        RouteIndex index = index();
+        if (i < 0 || i >= index.getSegmentCount()) {
+            throw new IndexOutOfBoundsException("No segment " + i);
+        }
+        return index.getLength() - index.getSegmentStart(i);
+    }
+
+    /**
+     * Returns the index of the distances along this route, building it if
+     * no query built it before. Routes are used by several threads, and
+     * RouteIndex is immutable with final fields only, so two threads that
+     * race here at worst build two equal indexes.
+     */
+    private RouteIndex index() {
+        RouteIndex index = this.index;
+        if (index == null) {
+            index = new RouteIndex(this);
+            this.index = index;
+        }
+        return index;
+    }
+
     /**
      * Compares the specified Object with this Route for equality.
+     * <p>
+     * Routes whose fingerprints or numbers of segments differ are told apart
+     * in constant time. Otherwise the segments are compared, which is
+     * equivalent to comparing the geographic features since consecutive
+     * segments form a feature iff they have the same name.
      *
      * @return true iff (o instanceof Route) && (o.geoFeatures and
      * this.geoFeatures contain the same elements in the same order).
      **/
     public boolean equals(Object o) {
         checkRep();
-        if (o == null || !(o instanceof Route))
-            return false;
-        if (this.geoFeatures.size() != ((Route) o).geoFeatures.size())
+        if (this == o)
+            return true;
+        if (!(o instanceof Route))
             return false;
-        for (int i = 0; i < this.geoFeatures.size(); i++) {
-            if (!(this.geoFeatures.get(i).equals(((Route) o).geoFeatures.get(i))))
-                return false;
-        }
-        return true;
+        Route r = (Route) o;
+        return this.fingerprint == r.fingerprint
+                && this.geoSegments.contentEquals(r.geoSegments);
     }
 
     /**
-     * Returns a hash code for this.
+     * Returns a hash code for this, in constant time.
      *
      * @return a hash code for this.
      **/
     public int hashCode() {
-        // This implementation will work, but you may want to modify it
-        // for improved performance.
         checkRep();
-        int sum = 0;
-        for (int i = 0; i < this.geoFeatures.size(); i++) {
-            sum += this.geoFeatures.get(i).hashCode();
-
-        }
-        return sum / this.geoFeatures.size();
+        return (int) (this.fingerprint ^ (this.fingerprint >>> 32));
     }
 
     /**
@@ -270,11 +375,11 @@ public class Route {
      **/
     public String toString() {
         checkRep();
-        String s = "";
-        for (int i = 0; i < this.geoFeatures.size(); i++) {
-            s += this.geoFeatures.get(i).toString() + " ----- ";
+        StringBuilder sb = new StringBuilder();
+        for (GeoFeature gf : this.geoFeatures) {
+            sb.append(gf).append(" ----- ");
         }
-        return s;
+        return sb.toString();
     }
 
     /**
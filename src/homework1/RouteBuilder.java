@@ -0,0 +1,204 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A RouteBuilder collects the segments of a Route and creates the Route with
+ * a single call to <tt>freeze()</tt>. RouteBuilders are mutable.
+ * <p>
+ * Building a long Route with a RouteBuilder avoids creating an intermediate
+ * Route for each added segment, as <tt>Route.addSegment()</tt> does. The
+ * segments are grouped into GeoFeatures while they are added, and the
+ * created Route is backed by arrays of exactly the needed size.
+ * <p>
+ * As with <tt>Route.addSegment()</tt>, every added segment must be properly
+ * oriented; that is, its p1 field must correspond to the end of the segments
+ * added so far.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <p>
+ * <pre>
+ *   geoSegments : sequence      // the segments added so far, in order
+ * </pre>
+ **/
+public class RouteBuilder {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private GeoSegment[] geoSegments; // the segments added so far, followed
+    // by unused slots
+    private int size; // number of segments added so far
+    private int[] featureStarts; // index in geoSegments of the first segment
+    // of each geographic feature, followed by unused slots
+    private int featureCount; // number of geographic features so far
+    private double length; // total length of the segments added so far
+
+    // Abstraction Function:
+    // A RouteBuilder b holds the sequence b.geoSegments[0 .. b.size-1],
+    // which is grouped into the geographic features starting at
+    // b.featureStarts[0 .. b.featureCount-1].
+
+    // Representation invariant for every RouteBuilder b:
+    // 0 <= b.size <= b.geoSegments.length &&
+    // (b.size == 0 <=> b.featureCount == 0) &&
+    // (b.size > 0 => b.featureStarts[0] == 0) &&
+    // for all 0 < i < b.size:
+    //     b.geoSegments[i].p1 = b.geoSegments[i-1].p2
+
+    /**
+     * Constructs a new, empty RouteBuilder.
+     *
+     * @effects Constructs a new RouteBuilder b such that b.geoSegments = []
+     **/
+    public RouteBuilder() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty RouteBuilder that can hold the given number of
+     * segments before it needs to grow.
+     *
+     * @requires expectedSegments >= 0
+     * @effects Constructs a new RouteBuilder b such that b.geoSegments = []
+     **/
+    public RouteBuilder(int expectedSegments) {
+        this.geoSegments = new GeoSegment[Math.max(expectedSegments, 1)];
+        this.featureStarts = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.featureCount = 0;
+        this.length = 0;
+        checkRep();
+    }
+
+    /**
+     * Appends a segment to the end of the segments added so far.
+     *
+     * @requires gs != null
+     * @modifies this
+     * @effects this.geoSegments = this.geoSegments + [gs]
+     * @return this
+     * @throws IllegalArgumentException if gs does not start where the last
+     * added segment ends.
+     **/
+    public RouteBuilder addSegment(GeoSegment gs) {
+        checkRep();
+        if (this.size == 0) {
+            addFeatureStart();
+        } else {
+            GeoSegment last = this.geoSegments[this.size - 1];
+            if (!gs.p1.equals(last.p2)) {
+                throw new IllegalArgumentException("Segment " + gs.getName()
+                        + " does not start at the end of segment " + last.getName());
+            }
+            if (!gs.name.equals(last.name)) {
+                addFeatureStart();
+            }
+        }
+        if (this.size == this.geoSegments.length) {
+            this.geoSegments = Arrays.copyOf(this.geoSegments, this.size * 2);
+        }
+        this.geoSegments[this.size++] = gs;
+        this.length += gs.getLength();
+        checkRep();
+        return this;
+    }
+
+    /**
+     * Appends segments, in order, to the end of the segments added so far.
+     *
+     * @requires segments != null && no element of segments is null
+     * @modifies this
+     * @effects this.geoSegments = this.geoSegments + segments
+     * @return this
+     * @throws IllegalArgumentException if a segment does not start where the
+     * segment before it ends. The segments before it are still added.
+     **/
+    public RouteBuilder addSegments(GeoSegment[] segments) {
+        ensureCapacity(this.size + segments.length);
+        for (GeoSegment gs : segments) {
+            addSegment(gs);
+        }
+        return this;
+    }
+
+    /**
+     * Appends segments, in order, to the end of the segments added so far.
+     *
+     * @requires segments != null && no element of segments is null
+     * @modifies this
+     * @effects this.geoSegments = this.geoSegments + segments
+     * @return this
+     * @throws IllegalArgumentException if a segment does not start where the
+     * segment before it ends. The segments before it are still added.
+     **/
+    public RouteBuilder addSegments(Iterable<GeoSegment> segments) {
+        for (GeoSegment gs : segments) {
+            addSegment(gs);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of segments added so far.
+     *
+     * @return the number of segments added so far.
+     **/
+    public int size() {
+        checkRep();
+        return this.size;
+    }
+
+    /**
+     * Creates a Route made of the segments added so far. This builder is not
+     * changed and more segments may be added to it afterwards.
+     *
+     * @return a new Route r such that r.geoSegments = this.geoSegments
+     * @throws IllegalStateException if no segment was added.
+     **/
+    public Route freeze() {
+        checkRep();
+        if (this.size == 0) {
+            throw new IllegalStateException("A Route must have at least one segment");
+        }
+        GeoSegment[] segments = Arrays.copyOf(this.geoSegments, this.size);
+        GeoFeature[] features = new GeoFeature[this.featureCount];
+        for (int i = 0; i < this.featureCount; i++) {
+            int from = this.featureStarts[i];
+            int to = i + 1 < this.featureCount ? this.featureStarts[i + 1] : this.size;
+            features[i] = new GeoFeature(Arrays.copyOfRange(segments, from, to));
+        }
+        return new Route(segments, features, this.length);
+    }
+
+    /**
+     * Marks the next added segment as the start of a new geographic feature.
+     */
+    private void addFeatureStart() {
+        if (this.featureCount == this.featureStarts.length) {
+            this.featureStarts = Arrays.copyOf(this.featureStarts, this.featureCount * 2);
+        }
+        this.featureStarts[this.featureCount++] = this.size;
+    }
+
+    /**
+     * Makes room for the given number of segments.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.geoSegments.length) {
+            this.geoSegments = Arrays.copyOf(this.geoSegments,
+                    Math.max(capacity, this.geoSegments.length * 2));
+        }
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.size >= 0 && this.size <= this.geoSegments.length :
+                "Size must fit in the segments array";
+        assert (this.size == 0) == (this.featureCount == 0) :
+                "Every added segment must belong to a feature";
+    }
+}
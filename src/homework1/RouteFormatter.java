@@ -1,5 +1,6 @@
 package homework1;
 
+import java.io.IOException;
 import java.util.Iterator;
 
 /**
@@ -21,20 +22,41 @@ public abstract class RouteFormatter {
      * 0 <= heading < 360
      **/
     public String computeDirections(Route route, double heading) {
-        // Implementation hint:
-        // This method should call computeLine() for each geographic
-        // feature in this route and concatenate the results into a single
-        // String.
-        String s = "";
+        StringBuilder sb = new StringBuilder();
+        try {
+            computeDirections(route, heading, sb);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw IOException", e);
+        }
+        return sb.toString();
+    }
+
+
+    /**
+     * Appends directions for following this Route, starting at its start
+     * point and facing in the specified heading, to an Appendable. The
+     * directions are written line by line, so a long route can be streamed
+     * into a Writer or a CharBuffer without building the whole text first.
+     *
+     * @param route   the route for which to print directions.
+     * @param heading the initial heading.
+     * @param out     where the directions are appended.
+     * @modifies out
+     * @effects appends to out the String computeDirections(route, heading)
+     * would return.
+     * @throws IOException if out throws it.
+     * @requires route != null && out != null &&
+     * 0 <= heading < 360
+     **/
+    public void computeDirections(Route route, double heading, Appendable out)
+            throws IOException {
         Iterator<GeoFeature> i = route.getGeoFeatures();
-        GeoFeature temp_2;
         double last_heading = heading;
         while (i.hasNext()) {
-            temp_2 = (GeoFeature) i.next();
-            s += this.computeLine(temp_2, last_heading);
-            last_heading = temp_2.getEndHeading();
+            GeoFeature gf = i.next();
+            this.computeLine(gf, last_heading, out);
+            last_heading = gf.getEndHeading();
         }
-        return s;
     }
 
 
@@ -52,6 +74,43 @@ public abstract class RouteFormatter {
     public abstract String computeLine(GeoFeature geoFeature, double origHeading);
 
 
+    /**
+     * Appends a single line of multi-line directions, the instructions for
+     * traversing a single geographic feature, to an Appendable.
+     * Subclasses should override this method to append the parts of the
+     * line directly; this implementation appends the String returned by
+     * computeLine(geoFeature, origHeading).
+     *
+     * @param geoFeature  the geographical feature to traverse.
+     * @param origHeading the initial heading.
+     * @param out         where the line is appended.
+     * @modifies out
+     * @effects appends to out the String computeLine(geoFeature,
+     * origHeading) would return.
+     * @throws IOException if out throws it.
+     * @requires geoFeature != null && out != null
+     */
+    public void computeLine(GeoFeature geoFeature, double origHeading, Appendable out)
+            throws IOException {
+        out.append(computeLine(geoFeature, origHeading));
+    }
+
+
+    /**
+     * Returns the String a computeLine(geoFeature, origHeading, out) call
+     * appends, for subclasses that implement computeLine() by appending.
+     */
+    String lineToString(GeoFeature geoFeature, double origHeading) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            computeLine(geoFeature, origHeading, sb);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw IOException", e);
+        }
+        return sb.toString();
+    }
+
+
     /**
      * Computes directions to turn based on the heading change.
      *
@@ -73,27 +132,7 @@ public abstract class RouteFormatter {
      * 0 <= newHeading < 360
      */
     protected String getTurnString(double origHeading, double newHeading) {
-        String s = "";
-        double angelsDiff = Math.abs(newHeading - origHeading);
-        double angelBetween = Math.min(angelsDiff, 360 - angelsDiff);
-        String direction = "";
-        if (origHeading <= 180) {
-            direction = newHeading <= origHeading + 180 && newHeading >= origHeading ? "right" : "left";
-        } else {
-            direction = newHeading >= origHeading - 180 && newHeading <= origHeading ? "left" : "right";
-        }
-        if (angelBetween < 10) {
-            s = "Continue";
-        } else if (angelBetween >= 10 && angelBetween < 60) {
-            s = "Turn slight " + direction;
-        } else if (angelBetween >= 60 && angelBetween < 120) {
-            s = "Turn " + direction;
-        } else if (angelBetween >= 120 && angelBetween < 179) {
-            s = "Turn sharp " + direction;
-        } else {
-            s = "U-turn";
-        }
-        return s;
+        return TurnType.of(origHeading, newHeading).getInstruction();
     }
 
 }
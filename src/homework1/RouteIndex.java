@@ -0,0 +1,178 @@
+package homework1;
+
+/**
+ * A RouteIndex answers position-along-route queries about a Route in
+ * logarithmic time. RouteIndexes are immutable.
+ * <p>
+ * The index holds the segments and the geographic features of the route in
+ * arrays, with the distance from the start of the route to the end of each
+ * of them, so the segment or feature at a distance along the route is found
+ * by binary search instead of by summing the lengths of the segments before
+ * it. No query allocates, except for the GeoPoint that
+ * <tt>getPoint()</tt> returns.
+ * <p>
+ * The distances are the sums of the lengths of the segments, in order, so
+ * the last one is the length of the route.
+ **/
+final class RouteIndex {
+
+    private final GeoSegment[] segments; // the segments of the route, in order
+    private final double[] segmentEnds; // segmentEnds[i] is the distance from
+    // the start of the route to the end of segments[i]
+    private final GeoFeature[] features; // the features of the route, in order
+    private final double[] featureEnds; // featureEnds[i] is the distance from
+    // the start of the route to the end of features[i]
+
+    // Representation invariant for every RouteIndex x:
+    // x.segments.length == x.segmentEnds.length > 0 &&
+    // x.features.length == x.featureEnds.length > 0 &&
+    // x.segmentEnds and x.featureEnds are non-decreasing &&
+    // x.segmentEnds[x.segmentEnds.length-1] == x.featureEnds[x.featureEnds.length-1]
+
+    /**
+     * Constructs the index of a route, in time linear in its number of
+     * segments.
+     *
+     * @requires route != null
+     * @effects Constructs a new RouteIndex of the segments and geographic
+     * features of route.
+     **/
+    RouteIndex(Route route) {
+        int n = route.geoSegments.size();
+        this.segments = new GeoSegment[n];
+        this.segmentEnds = new double[n];
+        this.features = new GeoFeature[route.geoFeatures.size()];
+        this.featureEnds = new double[this.features.length];
+        double end = 0;
+        int i = 0;
+        for (GeoSegment gs : route.geoSegments) {
+            end += gs.length;
+            this.segments[i] = gs;
+            this.segmentEnds[i++] = end;
+        }
+        int segmentCount = 0;
+        i = 0;
+        for (GeoFeature gf : route.geoFeatures) {
+            // every feature ends where its last segment ends, which keeps
+            // the two arrays consistent with each other
+            segmentCount += gf.geoSegments.size();
+            this.features[i] = gf;
+            this.featureEnds[i++] = this.segmentEnds[segmentCount - 1];
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns the length of the indexed route.
+     *
+     * @return the sum of the lengths of the segments of the route.
+     **/
+    double getLength() {
+        return this.segmentEnds[this.segmentEnds.length - 1];
+    }
+
+    /**
+     * Returns the number of segments of the indexed route.
+     *
+     * @return the number of segments of the route.
+     **/
+    int getSegmentCount() {
+        return this.segments.length;
+    }
+
+    /**
+     * Returns a segment of the indexed route.
+     *
+     * @requires 0 <= i < getSegmentCount()
+     * @return the i'th segment of the route, counting from 0.
+     **/
+    GeoSegment getSegment(int i) {
+        return this.segments[i];
+    }
+
+    /**
+     * Returns the distance from the start of the route to the start of a
+     * segment.
+     *
+     * @requires 0 <= i < getSegmentCount()
+     * @return the sum of the lengths of the segments before the i'th one.
+     **/
+    double getSegmentStart(int i) {
+        return i == 0 ? 0 : this.segmentEnds[i - 1];
+    }
+
+    /**
+     * Finds the segment at a distance along the route.
+     *
+     * @return the index of the first segment that ends farther than offset
+     * from the start of the route, the index of the last segment if there
+     * is none, or 0 if offset is negative. Segments of no length are never
+     * returned unless they are last.
+     **/
+    int findSegment(double offset) {
+        return firstEndAfter(this.segmentEnds, offset);
+    }
+
+    /**
+     * Finds the geographic feature at a distance along the route.
+     *
+     * @return the first geographic feature that ends farther than offset
+     * from the start of the route, the last one if there is none, or the
+     * first one if offset is negative.
+     **/
+    GeoFeature findFeature(double offset) {
+        return this.features[firstEndAfter(this.featureEnds, offset)];
+    }
+
+    /**
+     * Returns the point at a distance along the route.
+     *
+     * @return the point of segment findSegment(offset) that is as far from
+     * the start of the route as offset, interpolated linearly between the
+     * ends of the segment. This is the start of the route if offset is
+     * negative, and its end if offset is more than its length.
+     **/
+    GeoPoint getPoint(double offset) {
+        int i = findSegment(offset);
+        GeoSegment gs = this.segments[i];
+        double start = getSegmentStart(i);
+        double t = gs.length > 0 ? (offset - start) / gs.length : 1;
+        if (t <= 0) {
+            return gs.p1;
+        }
+        if (t >= 1) {
+            return gs.p2;
+        }
+        int latitude = gs.p1.latitude
+                + (int) Math.round((gs.p2.latitude - gs.p1.latitude) * t);
+        int longitude = gs.p1.longitude
+                + (int) Math.round((gs.p2.longitude - gs.p1.longitude) * t);
+        return new GeoPoint(latitude, longitude);
+    }
+
+    private static int firstEndAfter(double[] ends, double offset) {
+        int low = 0;
+        int high = ends.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] > offset) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.segments.length == this.segmentEnds.length && this.segments.length > 0
+                && this.features.length == this.featureEnds.length && this.features.length > 0
+                && this.featureEnds[this.features.length - 1] == getLength() :
+                "Index must cover the whole route";
+    }
+}
@@ -0,0 +1,208 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A RoutePlanner finds shortest Routes between locations of a RoadGraph.
+ * RoutePlanners are immutable and may be used by several threads at once.
+ * <p>
+ * Routes are found with Dijkstra's algorithm or with A*, which uses the
+ * straight-line distance to the destination, as computed by a
+ * DistanceModel, to explore fewer nodes. A* never reopens a node it has
+ * settled, so it only finds a shortest route if the straight-line
+ * distance is a consistent estimate: no segment may be shorter than the
+ * difference of the straight-line distances of its ends to the
+ * destination. This holds for DistanceModel.FLAT and
+ * DistanceModel.HAVERSINE when the segments of the graph were measured
+ * with the same model. Other models, including EQUIRECTANGULAR, whose
+ * scaling changes from tile to tile, and VINCENTY, which falls back to
+ * HAVERSINE where it does not converge, are not consistent, and planners
+ * of those models search with Dijkstra's algorithm even when A* is asked
+ * for. Either way, a shortest route is found.
+ * <p>
+ * Each thread that uses a planner gets its own search state, sized to the
+ * graph once and reused by all its later queries, so a query only allocates
+ * memory proportional to the length of the route it returns.
+ **/
+public class RoutePlanner {
+
+    /**
+     * The algorithms a RoutePlanner can use to find routes.
+     **/
+    public enum Algorithm {
+        DIJKSTRA, A_STAR
+    }
+
+    private final RoadGraph graph; // the graph routes are searched in
+    private final DistanceModel model; // straight-line distances for A*
+    private final boolean consistent; // whether model is a consistent
+    // estimate, without which A* is not used
+    private final ThreadLocal<SearchState> states; // the search state of
+    // each thread using this planner
+
+    /**
+     * Constructs a new RoutePlanner.
+     *
+     * @requires graph != null
+     * @effects Constructs a new RoutePlanner that finds routes in graph.
+     **/
+    public RoutePlanner(RoadGraph graph) {
+        this(graph, DistanceModel.FLAT);
+    }
+
+    /**
+     * Constructs a new RoutePlanner whose A* searches estimate the
+     * remaining distance with a DistanceModel. Unless model is
+     * DistanceModel.FLAT or DistanceModel.HAVERSINE, the planner searches
+     * with Dijkstra's algorithm instead of A*.
+     *
+     * @requires graph != null && model != null && the segments of graph
+     * were measured with model
+     * @effects Constructs a new RoutePlanner that finds routes in graph.
+     **/
+    public RoutePlanner(RoadGraph graph, DistanceModel model) {
+        this.graph = graph;
+        this.model = model;
+        this.consistent = model == DistanceModel.FLAT || model == DistanceModel.HAVERSINE;
+        this.states = ThreadLocal.withInitial(() -> new SearchState(graph.getNodeCount()));
+    }
+
+    /**
+     * Finds a shortest route between two locations using A*.
+     *
+     * @requires start != null && end != null
+     * @return a Route r of minimal length such that r.start = start &&
+     * r.end = end, or null if start or end is not a node of the graph,
+     * start equals end, or end cannot be reached from start.
+     **/
+    public Route findRoute(GeoPoint start, GeoPoint end) {
+        return findRoute(start, end, Algorithm.A_STAR);
+    }
+
+    /**
+     * Finds a shortest route between two locations.
+     *
+     * @requires start != null && end != null && algorithm != null
+     * @return a Route r of minimal length such that r.start = start &&
+     * r.end = end, or null if start or end is not a node of the graph,
+     * start equals end, or end cannot be reached from start.
+     **/
+    public Route findRoute(GeoPoint start, GeoPoint end, Algorithm algorithm) {
+        int source = this.graph.getNodeId(start);
+        int target = this.graph.getNodeId(end);
+        if (source == GeoPointIndex.NOT_FOUND || target == GeoPointIndex.NOT_FOUND) {
+            return null;
+        }
+        int[] edges = findEdges(source, target, algorithm);
+        return edges == null ? null : this.graph.toRoute(edges);
+    }
+
+    /**
+     * Finds the edges of a shortest path between two nodes.
+     *
+     * @requires 0 <= source, target < graph.getNodeCount() &&
+     * algorithm != null
+     * @return the ids of the edges of a shortest path from source to
+     * target, in order, or null if source == target or target cannot be
+     * reached from source.
+     **/
+    int[] findEdges(int source, int target, Algorithm algorithm) {
+        if (source == target) {
+            return null;
+        }
+        SearchState s = this.states.get();
+        boolean aStar = algorithm == Algorithm.A_STAR && this.consistent;
+        GeoPointStore nodes = this.graph.nodes;
+        int targetLatitude = nodes.getLatitude(target);
+        int targetLongitude = nodes.getLongitude(target);
+        int[] offsets = this.graph.offsets;
+        int[] targets = this.graph.targets;
+        double[] lengths = this.graph.lengths;
+
+        s.begin();
+        s.reach(source, 0, -1, -1);
+        s.heap.offer(source, 0);
+        while (!s.heap.isEmpty()) {
+            int v = s.heap.poll();
+            if (v == target) {
+                return s.path(target);
+            }
+            s.settled[v] = s.stamp;
+            double dv = s.distances[v];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                if (s.settled[w] == s.stamp) {
+                    continue;
+                }
+                double dw = dv + lengths[e];
+                if (s.reached[w] != s.stamp || dw < s.distances[w]) {
+                    s.reach(w, dw, v, e);
+                    double key = aStar ? dw + this.model.distance(nodes.getLatitude(w),
+                            nodes.getLongitude(w), targetLatitude, targetLongitude) : dw;
+                    s.heap.offer(w, key);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The arrays a single thread uses to search paths. Instead of clearing
+     * the arrays before every search, each search has its own stamp, and an
+     * entry is only valid if its stamp is the stamp of the current search.
+     */
+    private static final class SearchState {
+        final double[] distances; // distance of each reached node from the source
+        final int[] parentNodes; // previous node on the path to each reached node
+        final int[] parentEdges; // last edge on the path to each reached node
+        final int[] reached; // stamp of the search that last reached each node
+        final int[] settled; // stamp of the search that last settled each node
+        final IndexedMinHeap heap; // reached nodes that are not settled
+        int stamp; // stamp of the current search
+
+        SearchState(int nodeCount) {
+            this.distances = new double[nodeCount];
+            this.parentNodes = new int[nodeCount];
+            this.parentEdges = new int[nodeCount];
+            this.reached = new int[nodeCount];
+            this.settled = new int[nodeCount];
+            this.heap = new IndexedMinHeap(nodeCount);
+            this.stamp = 0;
+        }
+
+        /**
+         * Starts a new search.
+         */
+        void begin() {
+            this.heap.clear();
+            if (this.stamp == Integer.MAX_VALUE) {
+                Arrays.fill(this.reached, 0);
+                Arrays.fill(this.settled, 0);
+                this.stamp = 0;
+            }
+            this.stamp++;
+        }
+
+        void reach(int v, double distance, int parentNode, int parentEdge) {
+            this.reached[v] = this.stamp;
+            this.distances[v] = distance;
+            this.parentNodes[v] = parentNode;
+            this.parentEdges[v] = parentEdge;
+        }
+
+        /**
+         * Returns the edges on the path from the source to target.
+         */
+        int[] path(int target) {
+            int count = 0;
+            for (int v = target; this.parentEdges[v] >= 0; v = this.parentNodes[v]) {
+                count++;
+            }
+            int[] edges = new int[count];
+            for (int v = target; this.parentEdges[v] >= 0; v = this.parentNodes[v]) {
+                edges[--count] = this.parentEdges[v];
+            }
+            return edges;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * A RouteSimplifier reduces the number of points of a Route's geometry,
+ * keeping it within a tolerance of the original. RouteSimplifiers are
+ * mutable, since they keep their working arrays from one call to the next,
+ * and may not be used by several threads at once.
+ * <p>
+ * Two methods are available:
+ * <p>
+ * <pre>
+ * DOUGLAS_PEUCKER  keeps the point farthest from the chord between two kept
+ *                  points while it is farther than the tolerance, so no
+ *                  dropped point is farther than the tolerance from the
+ *                  simplified line.
+ * VISVALINGAM      repeatedly drops the point that forms the smallest
+ *                  triangle with its neighbors, while that area is less
+ *                  than the square of the tolerance. It keeps the overall
+ *                  shape better, but does not bound the distance of a
+ *                  dropped point.
+ * </pre>
+ * <p>
+ * Both methods run without recursion, in time O(n log n) for n points in
+ * the usual case, and allocate nothing once the working arrays are large
+ * enough for the longest route simplified. Distances and areas are those
+ * of the flat-surface, near the Technion approximation of
+ * GeoPoint.distanceTo().
+ **/
+public class RouteSimplifier {
+
+    /**
+     * The methods a RouteSimplifier can simplify with.
+     **/
+    public enum Method {
+        /** The Ramer-Douglas-Peucker method. */
+        DOUGLAS_PEUCKER,
+        /** The Visvalingam-Whyatt method. */
+        VISVALINGAM
+    }
+
+    private final Method method; // the method points are dropped by
+    private int[] latitudes = new int[0]; // latitudes of the points
+    private int[] longitudes = new int[0]; // longitudes of the points
+    private boolean[] kept = new boolean[0]; // kept[i] iff point i is kept
+    private int[] stack = new int[0]; // ranges of points still to split,
+    // for DOUGLAS_PEUCKER; the previous and next kept points, for VISVALINGAM
+    private int[] next = new int[0];
+    private IndexedMinHeap heap = new IndexedMinHeap(0); // the points by
+    // the area of their triangle, for VISVALINGAM
+
+    // Representation invariant for every RouteSimplifier s:
+    // s.method != null && all the arrays have the same length, which is the
+    // capacity of s.heap
+
+    /**
+     * Constructs a new RouteSimplifier.
+     *
+     * @requires method != null
+     * @effects Constructs a new RouteSimplifier that simplifies with method
+     **/
+    public RouteSimplifier(Method method) {
+        this.method = method;
+        checkRep();
+    }
+
+    /**
+     * Simplifies the points of a route, regardless of the names of its
+     * segments.
+     *
+     * @requires route != null && tolerance >= 0
+     * @modifies this
+     * @return a new GeoPointStore holding, in order, the points of route
+     * that are kept: its start, its end and some of the ends of its other
+     * segments.
+     **/
+    public GeoPointStore simplifyPoints(Route route, double tolerance) {
+        int n = load(route);
+        simplify(0, n - 1, tolerance);
+        GeoPointStore points = new GeoPointStore();
+        for (int i = 0; i < n; i++) {
+            if (this.kept[i]) {
+                points.add(this.latitudes[i], this.longitudes[i]);
+            }
+        }
+        checkRep();
+        return points;
+    }
+
+    /**
+     * Simplifies a route, one geographic feature at a time. The first and
+     * last segments of every feature are kept as they are, so the features
+     * of the simplified route have the same names, start and end points,
+     * and start and end headings, and turn instructions are unchanged. The
+     * segments between them are replaced by fewer segments between the
+     * kept points, with the name, DistanceModel and kind of heading of the
+     * feature's segments, so the lengths of features may be a little
+     * shorter.
+     *
+     * @requires route != null && tolerance >= 0
+     * @modifies this
+     * @return a new Route with the same geographic features as route, by
+     * name, start, end, start heading and end heading, whose points are
+     * some of the points of route.
+     **/
+    public Route simplify(Route route, double tolerance) {
+        int n = load(route);
+        GeoSegment[] segments = new GeoSegment[n - 1];
+        Iterator<GeoSegment> i = route.getGeoSegments();
+        for (int k = 0; k < segments.length; k++) {
+            segments[k] = i.next();
+        }
+        int start = 0;
+        for (int k = 1; k <= segments.length; k++) {
+            if (k == segments.length || !segments[k].name.equals(segments[start].name)) {
+                // the feature of segments start .. k-1, from point start to k
+                this.kept[start] = true;
+                this.kept[k] = true;
+                if (k - start >= 2) {
+                    simplify(start + 1, k - 1, tolerance);
+                }
+                start = k;
+            }
+        }
+        RouteBuilder builder = new RouteBuilder();
+        int from = 0;
+        for (int to = 1; to < n; to++) {
+            if (!this.kept[to]) {
+                continue;
+            }
+            GeoSegment first = segments[from];
+            if (to == from + 1) {
+                builder.addSegment(first);
+            } else {
+                builder.addSegment(new GeoSegment(first.name, first.p1, segments[to - 1].p2,
+                        first.model, first.fastHeading));
+            }
+            from = to;
+        }
+        checkRep();
+        return builder.freeze();
+    }
+
+    /**
+     * Loads the start of route and the end of each of its segments into
+     * the working arrays, and marks none of them as kept.
+     *
+     * @return the number of points.
+     */
+    private int load(Route route) {
+        int n = route.geoSegments.size() + 1;
+        if (this.latitudes.length < n) {
+            int capacity = Math.max(n, 2 * this.latitudes.length);
+            this.latitudes = new int[capacity];
+            this.longitudes = new int[capacity];
+            this.kept = new boolean[capacity];
+            this.stack = new int[capacity];
+            this.next = new int[capacity];
+            this.heap = new IndexedMinHeap(capacity);
+        }
+        GeoPoint start = route.getStart();
+        this.latitudes[0] = start.latitude;
+        this.longitudes[0] = start.longitude;
+        Iterator<GeoSegment> i = route.getGeoSegments();
+        for (int k = 1; k < n; k++) {
+            GeoPoint p = i.next().p2;
+            this.latitudes[k] = p.latitude;
+            this.longitudes[k] = p.longitude;
+        }
+        Arrays.fill(this.kept, 0, n, false);
+        return n;
+    }
+
+    /**
+     * Marks the points from and to as kept, and the points between them
+     * that the method keeps.
+     *
+     * @requires 0 <= from <= to < number of loaded points
+     */
+    private void simplify(int from, int to, double tolerance) {
+        this.kept[from] = true;
+        this.kept[to] = true;
+        if (to - from < 2) {
+            return;
+        }
+        if (this.method == Method.DOUGLAS_PEUCKER) {
+            douglasPeucker(from, to, tolerance);
+        } else {
+            visvalingam(from, to, tolerance * tolerance);
+        }
+    }
+
+    private void douglasPeucker(int from, int to, double tolerance) {
+        // stack holds pairs of kept points whose points between are not
+        // decided yet; there are never more pairs than points
+        int top = 0;
+        this.stack[top++] = from;
+        this.stack[top++] = to;
+        while (top > 0) {
+            int b = this.stack[--top];
+            int a = this.stack[--top];
+            int farthest = -1;
+            double distance = -1;
+            for (int k = a + 1; k < b; k++) {
+                double d = GeoPoint.segmentDistance(this.latitudes[k], this.longitudes[k],
+                        this.latitudes[a], this.longitudes[a],
+                        this.latitudes[b], this.longitudes[b]);
+                if (d > distance) {
+                    distance = d;
+                    farthest = k;
+                }
+            }
+            // points between equal points are never all dropped, since
+            // that would leave a segment of no length
+            if (farthest < 0 || (distance <= tolerance && !samePoint(a, b))) {
+                continue;
+            }
+            this.kept[farthest] = true;
+            if (farthest - a >= 2) {
+                this.stack[top++] = a;
+                this.stack[top++] = farthest;
+            }
+            if (b - farthest >= 2) {
+                this.stack[top++] = farthest;
+                this.stack[top++] = b;
+            }
+        }
+    }
+
+    private void visvalingam(int from, int to, double minArea) {
+        // stack[k] and next[k] are the points before and after k that are
+        // not dropped yet
+        this.heap.clear();
+        for (int k = from + 1; k < to; k++) {
+            this.stack[k] = k - 1;
+            this.next[k] = k + 1;
+            this.heap.offer(k, area(k - 1, k, k + 1));
+        }
+        double dropped = 0;
+        while (!this.heap.isEmpty() && this.heap.peekKey() < minArea) {
+            // the area of a point is at least the area of any point
+            // dropped before it, so points are dropped in order of area
+            dropped = this.heap.peekKey();
+            int k = this.heap.poll();
+            int before = this.stack[k];
+            int after = this.next[k];
+            this.next[before] = after;
+            this.stack[after] = before;
+            if (before > from) {
+                this.heap.remove(before);
+                this.heap.offer(before, Math.max(dropped,
+                        area(this.stack[before], before, after)));
+            }
+            if (after < to) {
+                this.heap.remove(after);
+                this.heap.offer(after, Math.max(dropped,
+                        area(before, after, this.next[after])));
+            }
+        }
+        while (!this.heap.isEmpty()) {
+            this.kept[this.heap.poll()] = true;
+        }
+    }
+
+    /**
+     * Returns the area of the triangle of three points, in square
+     * kilometers, or infinity if dropping b would join equal points.
+     */
+    private double area(int a, int b, int c) {
+        if (samePoint(a, c)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double kmPerLatitude = GeoPoint.KM_PER_DEGREE_LATITUDE;
+        double kmPerLongitude = GeoPoint.KM_PER_DEGREE_LONGITUDE;
+        double abx = (double) (this.longitudes[b] - this.longitudes[a]) * kmPerLongitude;
+        double aby = (double) (this.latitudes[b] - this.latitudes[a]) * kmPerLatitude;
+        double acx = (double) (this.longitudes[c] - this.longitudes[a]) * kmPerLongitude;
+        double acy = (double) (this.latitudes[c] - this.latitudes[a]) * kmPerLatitude;
+        return Math.abs(abx * acy - aby * acx) / 2 / 1e12;
+    }
+
+    private boolean samePoint(int a, int b) {
+        return this.latitudes[a] == this.latitudes[b] && this.longitudes[a] == this.longitudes[b];
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.method != null && this.longitudes.length == this.latitudes.length
+                && this.kept.length == this.latitudes.length
+                && this.stack.length == this.latitudes.length
+                && this.next.length == this.latitudes.length : "Working arrays must match";
+    }
+}
@@ -0,0 +1,407 @@
+package homework1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A SegmentCatalog is a read-only sequence of segments stored in a file,
+ * which is mapped into memory instead of being read. SegmentCatalogs are
+ * immutable and may be used by several threads at once.
+ * <p>
+ * Segments in a catalog are referred to by their index, and their names,
+ * coordinates, lengths and headings are read directly from the mapped file,
+ * so opening a catalog of millions of segments takes about as long as
+ * opening a file, and only the pages of the file that are used are ever
+ * read from the disk. GeoSegment objects are only created when a caller
+ * asks for one, and names are decoded once, the first time they are used.
+ * Lengths and headings are those of the GeoSegment constructor: the
+ * DistanceModel.FLAT length and the exact heading.
+ * <p>
+ * Catalogs are written by a SegmentCatalog.Writer. The file holds, in
+ * little-endian order:
+ * <p>
+ * <pre>
+ * header   = magic:int32 version:int32 segmentCount:int32 nameCount:int32
+ * segments = (name:int32 lat1:int32 lon1:int32 lat2:int32 lon2:int32)^segmentCount
+ * offsets  = (offset:int32)^(nameCount+1)  // of each name in names, and its end
+ * names    = the UTF-8 bytes of the names, one after the other
+ * </pre>
+ * <p>
+ * The mapping is released when the catalog is garbage collected.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <p>
+ * <pre>
+ *   segments : sequence   // the segments of the catalog, in the order they were added
+ * </pre>
+ **/
+public final class SegmentCatalog {
+
+    static final int MAGIC = 0x31435347; // "GSC1" in little-endian order
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int SEGMENT_BYTES = 20;
+
+    private final ByteBuffer segments; // the mapped segments table
+    private final ByteBuffer names; // the mapped offsets table and names
+    private final int size; // number of segments
+    private final int nameCount; // number of names
+    private final String[] decoded; // decoded[k] is name k, or null if it
+    // was not decoded yet
+
+    // Abstraction Function:
+    // A SegmentCatalog c holds the segments
+    // (name(c.segments.getInt(20i)), (lat1, lon1), (lat2, lon2)) for
+    // 0 <= i < c.size, where the coordinates are the next four ints of
+    // c.segments and name(k) is the UTF-8 string at the offsets k and k+1
+    // of the offsets table.
+
+    // Representation invariant for every SegmentCatalog c:
+    // c.segments.capacity() == SEGMENT_BYTES * c.size &&
+    // c.decoded.length == c.nameCount &&
+    // the offsets of the names do not decrease and are within names
+
+    private SegmentCatalog(ByteBuffer segments, ByteBuffer names, int size, int nameCount) {
+        this.segments = segments;
+        this.names = names;
+        this.size = size;
+        this.nameCount = nameCount;
+        this.decoded = new String[nameCount];
+        checkRep();
+    }
+
+    /**
+     * Opens a catalog.
+     *
+     * @requires file != null
+     * @return the SegmentCatalog stored in file.
+     * @throws IOException if the file can not be read, or if it does not
+     * hold a catalog written by a SegmentCatalog.Writer.
+     **/
+    public static SegmentCatalog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    break;
+                }
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC
+                    || header.getInt() != VERSION) {
+                throw new IOException(file + " is not a segment catalog");
+            }
+            int size = header.getInt();
+            int nameCount = header.getInt();
+            long namesStart = HEADER_BYTES + (long) SEGMENT_BYTES * size;
+            long namesBytes = channel.size() - namesStart;
+            if (size < 0 || size > Integer.MAX_VALUE / SEGMENT_BYTES || nameCount < 0
+                    || namesBytes < 4L * nameCount + 4 || namesBytes > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a segment catalog");
+            }
+            ByteBuffer segments = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+                    (long) SEGMENT_BYTES * size).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer names = channel.map(FileChannel.MapMode.READ_ONLY, namesStart, namesBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int last = 4 * (nameCount + 1);
+            for (int k = 0; k <= nameCount; k++) {
+                int offset = names.getInt(4 * k);
+                if (offset < last || offset > namesBytes) {
+                    throw new IOException(file + " is not a segment catalog");
+                }
+                last = offset;
+            }
+            return new SegmentCatalog(segments, names, size, nameCount);
+        }
+    }
+
+    /**
+     * Returns the number of segments.
+     *
+     * @return the number of segments in this catalog.
+     **/
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the name of a segment.
+     *
+     * @requires 0 <= i < this.size()
+     * @return the name of segments[i].
+     * @throws IllegalStateException if the file does not hold the name.
+     **/
+    public String getName(int i) {
+        int k = this.segments.getInt(SEGMENT_BYTES * i);
+        if (k < 0 || k >= this.nameCount) {
+            throw new IllegalStateException("Segment " + i + " has no name in the catalog");
+        }
+        String name = this.decoded[k];
+        if (name == null) {
+            int start = this.names.getInt(4 * k);
+            byte[] bytes = new byte[this.names.getInt(4 * k + 4) - start];
+            this.names.get(start, bytes);
+            // Strings are immutable, so threads that decode the same name at
+            // once only waste the work
+            name = new String(bytes, StandardCharsets.UTF_8);
+            this.decoded[k] = name;
+        }
+        return name;
+    }
+
+    /**
+     * Returns the latitude of the first endpoint of a segment.
+     *
+     * @requires 0 <= i < this.size()
+     * @return segments[i].p1.latitude
+     **/
+    public int getLatitude1(int i) {
+        return this.segments.getInt(SEGMENT_BYTES * i + 4);
+    }
+
+    /**
+     * Returns the longitude of the first endpoint of a segment.
+     *
+     * @requires 0 <= i < this.size()
+     * @return segments[i].p1.longitude
+     **/
+    public int getLongitude1(int i) {
+        return this.segments.getInt(SEGMENT_BYTES * i + 8);
+    }
+
+    /**
+     * Returns the latitude of the second endpoint of a segment.
+     *
+     * @requires 0 <= i < this.size()
+     * @return segments[i].p2.latitude
+     **/
+    public int getLatitude2(int i) {
+        return this.segments.getInt(SEGMENT_BYTES * i + 12);
+    }
+
+    /**
+     * Returns the longitude of the second endpoint of a segment.
+     *
+     * @requires 0 <= i < this.size()
+     * @return segments[i].p2.longitude
+     **/
+    public int getLongitude2(int i) {
+        return this.segments.getInt(SEGMENT_BYTES * i + 16);
+    }
+
+    /**
+     * Returns the length of a segment, without creating it.
+     *
+     * @requires 0 <= i < this.size()
+     * @return segments[i].length
+     **/
+    public double getLength(int i) {
+        int at = SEGMENT_BYTES * i;
+        return GeoPoint.distance(this.segments.getInt(at + 4), this.segments.getInt(at + 8),
+                this.segments.getInt(at + 12), this.segments.getInt(at + 16));
+    }
+
+    /**
+     * Returns the heading of a segment, without creating it.
+     *
+     * @requires 0 <= i < this.size()
+     * @return segments[i].heading
+     **/
+    public double getHeading(int i) {
+        int at = SEGMENT_BYTES * i;
+        return GeoPoint.heading(this.segments.getInt(at + 4), this.segments.getInt(at + 8),
+                this.segments.getInt(at + 12), this.segments.getInt(at + 16));
+    }
+
+    /**
+     * Creates a segment of the catalog.
+     *
+     * @requires 0 <= i < this.size()
+     * @return a new GeoSegment equal to segments[i].
+     * @throws IllegalStateException if the file does not hold the name of
+     * the segment.
+     **/
+    public GeoSegment getSegment(int i) {
+        return new GeoSegment(getName(i), new GeoPoint(getLatitude1(i), getLongitude1(i)),
+                new GeoPoint(getLatitude2(i), getLongitude2(i)));
+    }
+
+    /**
+     * A Writer writes a catalog to a file, one segment at a time, so that
+     * a catalog of any size is written in memory proportional to the number
+     * of distinct names. Writers are mutable and may not be used by several
+     * threads at once.
+     **/
+    public static final class Writer implements Closeable {
+
+        private final FileChannel channel; // the file the catalog is written to
+        private final ByteBuffer buffer; // the segments not yet written
+        private final HashMap<String, Integer> index; // the index of each name
+        private final ArrayList<String> names; // the names, by index
+        private int size; // number of segments written
+        private boolean closed;
+
+        /**
+         * Constructs a new Writer, creating or replacing file.
+         *
+         * @requires file != null
+         * @effects Constructs a new Writer that writes an empty catalog
+         * to file.
+         * @throws IOException if the file can not be written.
+         **/
+        public Writer(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.channel.position(HEADER_BYTES);
+            this.buffer = ByteBuffer.allocate(SEGMENT_BYTES << 12).order(ByteOrder.LITTLE_ENDIAN);
+            this.index = new HashMap<String, Integer>();
+            this.names = new ArrayList<String>();
+        }
+
+        /**
+         * Adds a segment to the end of the catalog.
+         *
+         * @requires gs != null
+         * @modifies this
+         * @effects adds gs to the end of the catalog.
+         * @throws IOException if the file can not be written.
+         * @throws IllegalStateException if this is closed, or if the
+         * catalog already holds as many segments as a file can map.
+         **/
+        public void add(GeoSegment gs) throws IOException {
+            add(gs.getName(), gs.getP1().getLatitude(), gs.getP1().getLongitude(),
+                    gs.getP2().getLatitude(), gs.getP2().getLongitude());
+        }
+
+        /**
+         * Adds a segment to the end of the catalog, given by its name and
+         * the coordinates of its endpoints.
+         *
+         * @requires name != null && the coordinates are those of valid
+         * GeoPoints
+         * @modifies this
+         * @effects adds the segment (name, (lat1, lon1), (lat2, lon2)) to
+         * the end of the catalog.
+         * @throws IOException if the file can not be written.
+         * @throws IllegalStateException if this is closed, or if the
+         * catalog already holds as many segments as a file can map.
+         **/
+        public void add(String name, int lat1, int lon1, int lat2, int lon2) throws IOException {
+            if (this.closed) {
+                throw new IllegalStateException("Writer is closed");
+            }
+            if (this.size == Integer.MAX_VALUE / SEGMENT_BYTES) {
+                throw new IllegalStateException("Catalog is full");
+            }
+            Integer k = this.index.get(name);
+            if (k == null) {
+                k = this.names.size();
+                this.index.put(name, k);
+                this.names.add(name);
+            }
+            if (this.buffer.remaining() < SEGMENT_BYTES) {
+                drain();
+            }
+            this.buffer.putInt(k).putInt(lat1).putInt(lon1).putInt(lat2).putInt(lon2);
+            this.size++;
+        }
+
+        /**
+         * Writes the names and the header of the catalog and closes the
+         * file. Closing a closed Writer has no effect.
+         *
+         * @modifies this
+         * @effects completes the catalog, so that SegmentCatalog.open()
+         * opens it.
+         * @throws IOException if the file can not be written.
+         * @throws IllegalStateException if the names take more than 2 GB.
+         **/
+        @Override
+        public void close() throws IOException {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            try {
+                drain();
+                byte[][] bytes = new byte[this.names.size()][];
+                long offset = 4L * (bytes.length + 1);
+                for (int k = 0; k < bytes.length; k++) {
+                    bytes[k] = this.names.get(k).getBytes(StandardCharsets.UTF_8);
+                    offset += bytes[k].length;
+                }
+                if (offset > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Names of the catalog take more than 2 GB");
+                }
+                int start = 4 * (bytes.length + 1);
+                for (byte[] name : bytes) {
+                    putInt(start);
+                    start += name.length;
+                }
+                putInt(start);
+                for (byte[] name : bytes) {
+                    if (this.buffer.remaining() < name.length) {
+                        drain();
+                    }
+                    if (name.length > this.buffer.capacity()) {
+                        write(ByteBuffer.wrap(name), -1);
+                    } else {
+                        this.buffer.put(name);
+                    }
+                }
+                drain();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(this.size).putInt(bytes.length).flip();
+                write(header, 0);
+            } finally {
+                this.channel.close();
+            }
+        }
+
+        private void putInt(int v) throws IOException {
+            if (this.buffer.remaining() < 4) {
+                drain();
+            }
+            this.buffer.putInt(v);
+        }
+
+        private void drain() throws IOException {
+            this.buffer.flip();
+            write(this.buffer, -1);
+            this.buffer.clear();
+        }
+
+        /**
+         * Writes bytes at position, or at the position of the channel if
+         * position is negative.
+         */
+        private void write(ByteBuffer bytes, long position) throws IOException {
+            while (bytes.hasRemaining()) {
+                if (position < 0) {
+                    this.channel.write(bytes);
+                } else {
+                    position += this.channel.write(bytes, position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks to see if the representation invariant is being violated.
+     *
+     * @throws AssertionError if representation invariant is violated.
+     */
+    private void checkRep() {
+        assert this.segments.capacity() == (long) SEGMENT_BYTES * this.size
+                && this.decoded.length == this.nameCount :
+                "Catalog must map a segment table of its size";
+    }
+}
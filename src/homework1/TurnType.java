@@ -0,0 +1,77 @@
+package homework1;
+
+/**
+ * A TurnType is the kind of turn made when a route changes heading, such
+ * as "Turn slight right" or "U-turn". Let the angle from the original
+ * heading to the new heading be a. The turn is:
+ * <p>
+ * <pre>
+ * CONTINUE                  if a < 10
+ * SLIGHT_RIGHT/SLIGHT_LEFT  if 10 <= a < 60
+ * RIGHT/LEFT                if 60 <= a < 120
+ * SHARP_RIGHT/SHARP_LEFT    if 120 <= a < 179
+ * U_TURN                    if 179 <= a
+ * </pre>
+ * <p>
+ * Every TurnType has the English instruction for it, so formatters can
+ * write it without building any String, and other code such as cost models
+ * or statistics can tell turns apart without parsing instructions.
+ **/
+public enum TurnType {
+    CONTINUE("Continue"),
+    SLIGHT_RIGHT("Turn slight right"),
+    RIGHT("Turn right"),
+    SHARP_RIGHT("Turn sharp right"),
+    SLIGHT_LEFT("Turn slight left"),
+    LEFT("Turn left"),
+    SHARP_LEFT("Turn sharp left"),
+    U_TURN("U-turn");
+
+    // the turn of every whole angle 0 <= a <= 180: TURNS[2a] to the left
+    // and TURNS[2a+1] to the right. Since the limits between turns are
+    // whole angles, the turn of an angle is the turn of its integer part.
+    private static final TurnType[] TURNS = new TurnType[2 * 181];
+
+    static {
+        for (int a = 0; a <= 180; a++) {
+            TURNS[2 * a] = a < 10 ? CONTINUE : a < 60 ? SLIGHT_LEFT : a < 120 ? LEFT
+                    : a < 179 ? SHARP_LEFT : U_TURN;
+            TURNS[2 * a + 1] = a < 10 ? CONTINUE : a < 60 ? SLIGHT_RIGHT : a < 120 ? RIGHT
+                    : a < 179 ? SHARP_RIGHT : U_TURN;
+        }
+    }
+
+    private final String instruction; // English instruction for this turn
+
+    TurnType(String instruction) {
+        this.instruction = instruction;
+    }
+
+    /**
+     * Returns the English instruction for this turn.
+     *
+     * @return the instruction for this turn, such as "Turn slight right"
+     * for SLIGHT_RIGHT or "U-turn" for U_TURN.
+     **/
+    public String getInstruction() {
+        return this.instruction;
+    }
+
+    /**
+     * Classifies the turn between two headings.
+     *
+     * @requires 0 <= origHeading < 360 && 0 <= newHeading < 360
+     * @return the type of the turn from origHeading to newHeading.
+     **/
+    public static TurnType of(double origHeading, double newHeading) {
+        // signed change of heading in (-180, 180], positive to the right
+        double delta = newHeading - origHeading;
+        if (delta > 180) {
+            delta -= 360;
+        } else if (delta <= -180) {
+            delta += 360;
+        }
+        int angle = (int) Math.abs(delta);
+        return TURNS[2 * angle + (delta > 0 ? 1 : 0)];
+    }
+}
@@ -0,0 +1,119 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class BatchRouteFormatterTest {
+
+	private ArrayList<BatchRouteFormatter.Request> mRequests;
+	private String[] mExpected;
+	private DrivingRouteFormatter mFormatter;
+	private ExecutorService mExecutor;
+
+
+	public BatchRouteFormatterTest() {
+		RoadGraph grid = new RoadGraph(SyntheticGeoSegments.grid(20, 20, 2), true);
+		RoutePlanner planner = new RoutePlanner(grid);
+		mFormatter = new DrivingRouteFormatter();
+		mRequests = new ArrayList<BatchRouteFormatter.Request>();
+		Random random = new Random(6);
+		while (mRequests.size() < 1000) {
+			Route route = planner.findRoute(grid.getNode(random.nextInt(grid.getNodeCount())),
+				grid.getNode(random.nextInt(grid.getNodeCount())));
+			if (route != null)
+				mRequests.add(new BatchRouteFormatter.Request(route, random.nextInt(360)));
+		}
+		mExpected = new String[mRequests.size()];
+		for (int i = 0; i < mExpected.length; i++)
+			mExpected[i] = mFormatter.computeDirections(mRequests.get(i).getRoute(),
+				mRequests.get(i).getHeading());
+		mExecutor = Executors.newFixedThreadPool(4);
+	}
+
+
+	@AfterEach
+	public void shutdown() {
+		mExecutor.shutdown();
+	}
+
+
+	@Test
+	public void testOrdered() throws InterruptedException {
+		BatchRouteFormatter ordered = new BatchRouteFormatter(mFormatter, mExecutor, 100, true);
+		long[] next = {0};
+		boolean[] inOrder = {true};
+		long count = ordered.formatAll(mRequests, (index, request, directions) -> {
+			inOrder[0] &= index == next[0] && request == mRequests.get((int) index)
+				&& directions.equals(mExpected[(int) index]);
+			next[0]++;
+		});
+		assertTrue(inOrder[0] && count == mRequests.size() && next[0] == count,
+			"Directions are delivered in the order of the requests.");
+		assertTrue(ordered.formatAll(new ArrayList<BatchRouteFormatter.Request>(),
+				(index, request, directions) -> { }) == 0,
+			"Empty batch formats nothing.");
+	}
+
+
+	@Test
+	public void testUnordered() throws InterruptedException {
+		BatchRouteFormatter unordered = new BatchRouteFormatter(mFormatter, mExecutor, 100, false);
+		boolean[] seen = new boolean[mRequests.size()];
+		boolean[] correct = {true};
+		long count = unordered.formatAll(mRequests.stream(), (index, request, directions) -> {
+			correct[0] &= !seen[(int) index] && directions.equals(mExpected[(int) index]);
+			seen[(int) index] = true;
+		});
+		boolean all = count == mRequests.size();
+		for (boolean b : seen)
+			all &= b;
+		assertTrue(correct[0] && all, "Every request is delivered once with its directions.");
+	}
+
+
+	@Test
+	public void testInFlight() throws InterruptedException {
+		AtomicInteger started = new AtomicInteger();
+		int[] delivered = {0};
+		int[] most = {0};
+		RouteFormatter counting = new RouteFormatter() {
+			public String computeLine(GeoFeature geoFeature, double origHeading) {
+				return mFormatter.computeLine(geoFeature, origHeading);
+			}
+			public String computeDirections(Route route, double heading) {
+				started.incrementAndGet();
+				return super.computeDirections(route, heading);
+			}
+		};
+		new BatchRouteFormatter(counting, mExecutor, 64, false).formatAll(mRequests,
+			(index, request, directions) -> {
+				most[0] = Math.max(most[0], started.get() - delivered[0]);
+				delivered[0]++;
+			});
+		assertTrue(most[0] <= 64 && delivered[0] == mRequests.size(),
+			"No more than maxInFlight requests are in flight.");
+	}
+
+
+	@Test
+	public void testFailures() {
+		RouteFormatter failing = new RouteFormatter() {
+			public String computeLine(GeoFeature geoFeature, double origHeading) {
+				throw new UnsupportedOperationException("no directions");
+			}
+		};
+		IllegalStateException e = assertThrows(IllegalStateException.class,
+			() -> new BatchRouteFormatter(failing, mExecutor, 10, true).formatAll(mRequests,
+				(index, request, directions) -> { }));
+		assertTrue(e.getCause() instanceof UnsupportedOperationException,
+			"Formatter exceptions are reported as the cause.");
+	}
+}
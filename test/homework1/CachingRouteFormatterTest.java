@@ -0,0 +1,143 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+public class CachingRouteFormatterTest {
+
+    private DrivingRouteFormatter mDriving;
+    private WalkingRouteFormatter mWalking;
+    private Route[] mRoutes;
+
+
+    public CachingRouteFormatterTest() {
+        mDriving = new DrivingRouteFormatter();
+        mWalking = new WalkingRouteFormatter();
+        GeoSegment[] segments = SyntheticGeoSegments.path(64, 4);
+        mRoutes = new Route[segments.length];
+        mRoutes[0] = new Route(segments[0]);
+        for (int i = 1; i < segments.length; i++)
+            mRoutes[i] = mRoutes[i - 1].addSegment(segments[i]);
+    }
+
+
+    @Test
+    public void testHitsAndMisses() throws IOException {
+        CachingRouteFormatter cached = new CachingRouteFormatter(mDriving, 100, 1 << 20);
+        DirectionsCache cache = cached.getCache();
+        Route route = mRoutes[20];
+        String expected = mDriving.computeDirections(route, 30);
+        assertEquals(expected, cached.computeDirections(route, 30));
+        assertTrue(cache.getMisses() == 1 && cache.getHits() == 0 && cache.size() == 1,
+                "First lookup misses.");
+        assertEquals(expected, cached.computeDirections(route, 30));
+        RouteBuilder builder = new RouteBuilder();
+        for (Iterator<GeoSegment> i = route.getGeoSegments(); i.hasNext(); )
+            builder.addSegment(i.next());
+        Route rebuilt = builder.freeze();
+        assertEquals(expected, cached.computeDirections(rebuilt, 30));
+        assertTrue(cache.getHits() == 2 && cache.getMisses() == 1,
+                "Equal routes hit the cached directions.");
+        StringWriter writer = new StringWriter();
+        cached.computeDirections(route, 30, writer);
+        assertEquals(expected, writer.toString());
+        assertEquals(mDriving.computeDirections(route, 31), cached.computeDirections(route, 31));
+        assertTrue(cache.getMisses() == 2 && cache.size() == 2 && cache.weight() > 0,
+                "Another heading misses.");
+    }
+
+
+    @Test
+    public void testSharedCache() {
+        DirectionsCache cache = new DirectionsCache(100, 1 << 20);
+        CachingRouteFormatter driving = new CachingRouteFormatter(mDriving, cache);
+        CachingRouteFormatter walking = new CachingRouteFormatter(mWalking, cache);
+        Route route = mRoutes[10];
+        assertEquals(mDriving.computeDirections(route, 0), driving.computeDirections(route, 0));
+        assertEquals(mWalking.computeDirections(route, 0), walking.computeDirections(route, 0));
+        assertTrue(cache.getMisses() == 2 && cache.size() == 2,
+                "Formatters of different classes do not share directions.");
+    }
+
+
+    @Test
+    public void testEviction() {
+        CachingRouteFormatter cached = new CachingRouteFormatter(mDriving, 16, 1 << 20);
+        DirectionsCache cache = cached.getCache();
+        for (Route route : mRoutes)
+            cached.computeDirections(route, 0);
+        assertTrue(cache.size() <= 16 && cache.getEvictions() == mRoutes.length - cache.size(),
+                "The number of entries is bounded.");
+        cached.computeDirections(mRoutes[mRoutes.length - 1], 0);
+        assertTrue(cache.getHits() == 1, "The most recently used entry is kept.");
+        cached.computeDirections(mRoutes[0], 0);
+        assertTrue(cache.getHits() == 1, "The least recently used entry is evicted.");
+
+        long weight = 0;
+        for (Route route : mRoutes)
+            weight += mDriving.computeDirections(route, 0).length();
+        CachingRouteFormatter light = new CachingRouteFormatter(mDriving, 64, weight / 2);
+        for (Route route : mRoutes)
+            light.computeDirections(route, 0);
+        assertTrue(light.getCache().weight() <= weight / 2 && light.getCache().getEvictions() > 0,
+                "The weight of the entries is bounded.");
+        cache.clear();
+        assertTrue(cache.size() == 0 && cache.weight() == 0, "Clear removes all entries.");
+    }
+
+
+    @Test
+    public void testSmallBudget() {
+        DirectionsCache cache = new DirectionsCache(3, 1 << 20);
+        for (Route route : mRoutes) {
+            cache.put(mDriving, route, 0, mDriving.computeDirections(route, 0));
+            assertTrue(cache.get(mDriving, route, 0) != null && cache.size() <= 3,
+                    "A cache of fewer entries than segments keeps the last entry.");
+        }
+        DirectionsCache light = new DirectionsCache(100, 8);
+        for (int i = 0; i < 8; i++)
+            light.put(mDriving, mRoutes[i], 0, "x");
+        assertTrue(light.size() > 0 && light.weight() <= 8,
+                "A cache of fewer characters than segments keeps short directions.");
+        assertTrue(cache.getMaxEntries() == 3 && light.getMaxWeight() == 8,
+                "The bounds are kept.");
+    }
+
+
+    @Test
+    public void testConcurrent() throws Exception {
+        CachingRouteFormatter cached = new CachingRouteFormatter(mDriving, 32, 1 << 20);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ArrayList<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 4; t++) {
+                final int seed = t;
+                results.add(executor.submit(() -> {
+                    boolean correct = true;
+                    for (int i = 0; i < 2000; i++) {
+                        Route route = mRoutes[(i * 7 + seed) % mRoutes.length];
+                        correct &= cached.computeDirections(route, 0)
+                                .equals(mDriving.computeDirections(route, 0));
+                    }
+                    return correct;
+                }));
+            }
+            for (Future<Boolean> result : results)
+                assertTrue(result.get(), "Threads get the directions of their routes.");
+        } finally {
+            executor.shutdown();
+        }
+        DirectionsCache cache = cached.getCache();
+        assertTrue(cache.getHits() + cache.getMisses() == 8000 && cache.size() <= 32,
+                "Every lookup is counted.");
+    }
+}
@@ -0,0 +1,79 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.DecimalFormat;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class DecimalFormatterTest {
+
+	private static final String[] PATTERNS = {"#", "#.#", "#.##"};
+
+	private DecimalFormat[] mFormats;
+
+
+	public DecimalFormatterTest() {
+		mFormats = new DecimalFormat[PATTERNS.length];
+		for (int i = 0; i < PATTERNS.length; i++)
+			mFormats[i] = new DecimalFormat(PATTERNS[i]);
+	}
+
+
+	/**
+	 * Returns true iff value is formatted like DecimalFormat does with
+	 * every supported number of fraction digits.
+	 */
+	boolean same(double value) {
+		boolean same = true;
+		for (int digits = 0; digits < PATTERNS.length; digits++)
+			same &= DecimalFormatter.format(value, digits).equals(mFormats[digits].format(value));
+		return same;
+	}
+
+
+	@Test
+	public void testFormat() {
+		assertTrue(DecimalFormatter.format(2.0, 1).equals("2")
+			&& DecimalFormatter.format(0, 2).equals("0"),
+			"Whole numbers have no decimal point.");
+		assertTrue(DecimalFormatter.format(1.2, 2).equals("1.2")
+			&& DecimalFormatter.format(3.05, 2).equals("3.05"),
+			"Trailing zeros are dropped.");
+		assertTrue(DecimalFormatter.format(0.04, 1).equals("0")
+			&& DecimalFormatter.format(0.4, 0).equals("0"),
+			"Small values round to zero.");
+
+		boolean ties = true;
+		for (int i = 0; i < 2000; i++)
+			ties &= same(i / 2.0) && same(i / 20.0) && same(i / 200.0) && same(i / 2000.0)
+				&& same(i / 10.0) && same(i / 100.0);
+		assertTrue(ties, "Halfway values round like DecimalFormat.");
+
+		Random random = new Random(9);
+		boolean randoms = true;
+		for (int i = 0; i < 100000; i++) {
+			double value = random.nextDouble() * Math.pow(10, random.nextInt(8));
+			randoms &= same(value) && same(Math.nextUp(value)) && same(Math.nextDown(value));
+		}
+		assertTrue(randoms, "Random values are formatted like DecimalFormat.");
+		assertTrue(same(123456789012.0) && same(999999999999.95) && same(4503599627.3705),
+			"Large values are formatted like DecimalFormat.");
+	}
+
+
+	@Test
+	public void testFormatters() {
+		GeoPoint start = new GeoPoint(32783098, 35014528);
+		GeoFeature feature = new GeoFeature(new GeoSegment("Hanita", start,
+			new GeoPoint(32783098 + 2255, 35014528)));
+		assertTrue(new DrivingRouteFormatter().computeLine(feature, 0)
+				.equals("Continue onto Hanita and go " + mFormats[1].format(feature.getLength())
+					+ " kilometers.\n"),
+			"Driving line shows tenths of kilometers.");
+		assertTrue(new WalkingRouteFormatter().computeLine(feature, 0)
+				.equals("Continue onto Hanita and walk for "
+					+ mFormats[0].format(feature.getLength() * 20) + " minutes.\n"),
+			"Walking line shows whole minutes.");
+	}
+}
@@ -0,0 +1,144 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class DistanceModelTest {
+
+	private GeoPoint gpZivSquare;
+	private GeoPoint gpNorth;			// 1 km north to gpZivSquare
+
+
+	public DistanceModelTest() {
+		gpZivSquare = new GeoPoint(32783098,35014528);
+		gpNorth = new GeoPoint(32792115,35014528);
+	}
+
+
+	static boolean near(double expected, double actual, double relativeError) {
+		return Math.abs(expected - actual) <= relativeError * expected;
+	}
+
+
+	@Test
+	public void testFLAT() {
+		boolean flat = true;
+		for (GeoPoint p : ExampleGeoSegments.points)
+			for (GeoPoint q : ExampleGeoSegments.points)
+				flat &= DistanceModel.FLAT.distance(p, q) == p.distanceTo(q);
+		assertTrue(flat, "FLAT is exactly distanceTo().");
+	}
+
+
+	@Test
+	public void testHAVERSINE() {
+		assertTrue(near(111.195, DistanceModel.HAVERSINE.distance(0, 0, 1000000, 0), 1e-5),
+			"A degree of latitude is 111.195 km.");
+		assertTrue(near(10007.5, DistanceModel.HAVERSINE.distance(0, 0, 0, 90000000), 1e-5),
+			"A quarter of the equator is 10007.5 km.");
+		assertTrue(near(gpZivSquare.distanceTo(gpNorth), DistanceModel.HAVERSINE.distance(gpZivSquare, gpNorth), 0.005),
+			"Haversine agrees with FLAT near the Technion.");
+	}
+
+
+	@Test
+	public void testVINCENTY() {
+		// Flinders Peak to Buninyong, the example of Vincenty's paper, with
+		// the points rounded to millionths of degrees (about 10 cm)
+		assertTrue(Math.abs(54.972271 - DistanceModel.VINCENTY.distance(-37951033, 144424868, -37652821, 143926496)) < 1e-4,
+			"Flinders Peak to Buninyong is 54972.271 m.");
+		assertTrue(near(110.574, DistanceModel.VINCENTY.distance(0, 0, 1000000, 0), 1e-5),
+			"A degree of latitude at the equator is 110.574 km.");
+		assertTrue(near(111.319, DistanceModel.VINCENTY.distance(0, 0, 0, 1000000), 1e-5),
+			"Distance along the equator converges.");
+		assertTrue(DistanceModel.VINCENTY.distance(0, 0, 500000, 179700000) > 19000,
+			"Nearly antipodal points have a distance.");
+		assertTrue(DistanceModel.VINCENTY.distance(gpZivSquare, gpZivSquare) == 0,
+			"Equal points are at distance 0.");
+	}
+
+
+	@Test
+	public void testEQUIRECTANGULAR() {
+		Random random = new Random(15);
+		boolean close = true;
+		boolean symmetric = true;
+		for (int i = 0; i < 100000; i++) {
+			int lat = random.nextInt(160000000) - 80000000;
+			int lon = random.nextInt(360000000) - 180000000;
+			int lat2 = lat + random.nextInt(2000000) - 1000000;
+			int lon2 = lon + random.nextInt(2000000) - 1000000;
+			if (lon2 >= GeoPoint.MAX_LONGITUDE)
+				lon2 -= 360000000;
+			double haversine = DistanceModel.HAVERSINE.distance(lat, lon, lat2, lon2);
+			double equirectangular = DistanceModel.EQUIRECTANGULAR.distance(lat, lon, lat2, lon2);
+			close &= haversine < 0.001 || near(haversine, equirectangular, 0.005);
+			symmetric &= equirectangular == DistanceModel.EQUIRECTANGULAR.distance(lat2, lon2, lat, lon);
+		}
+		assertTrue(close, "Equirectangular is within 0.5% of haversine up to 100 km away.");
+		assertTrue(symmetric, "Equirectangular is symmetric.");
+		assertTrue(DistanceModel.EQUIRECTANGULAR.distance(0, 179900000, 0, -179900000) < 23,
+			"Equirectangular crosses the antimeridian the short way.");
+	}
+
+
+	@Test
+	public void testGeoSegment() {
+		GeoSegment segment = new GeoSegment("North", gpZivSquare, gpNorth, DistanceModel.VINCENTY, false);
+		assertTrue(segment.getLength() == DistanceModel.VINCENTY.distance(gpZivSquare, gpNorth)
+			&& segment.reverse().getLength() == segment.getLength()
+			&& segment.getHeading() == gpZivSquare.headingTo(gpNorth),
+			"Segment length uses its model.");
+	}
+
+
+	@Test
+	public void testRoutePlanner() {
+		Random random = new Random(16);
+		GeoSegment[] flatGrid = SyntheticGeoSegments.grid(20, 20, 3);
+		GeoSegment[] grid = new GeoSegment[flatGrid.length];
+		for (int i = 0; i < grid.length; i++)
+			grid[i] = new GeoSegment(flatGrid[i].getName(), flatGrid[i].getP1(), flatGrid[i].getP2(),
+				DistanceModel.HAVERSINE, false);
+		RoadGraph graph = new RoadGraph(grid, true);
+		RoutePlanner planner = new RoutePlanner(graph, DistanceModel.HAVERSINE);
+		boolean shortest = true;
+		for (int q = 0; q < 100; q++) {
+			GeoPoint s = graph.getNode(random.nextInt(graph.getNodeCount()));
+			GeoPoint t = graph.getNode(random.nextInt(graph.getNodeCount()));
+			if (s.equals(t))
+				continue;
+			Route d = planner.findRoute(s, t, RoutePlanner.Algorithm.DIJKSTRA);
+			Route a = planner.findRoute(s, t, RoutePlanner.Algorithm.A_STAR);
+			shortest &= Math.abs(d.getLength() - a.getLength()) < 1e-9;
+		}
+		assertTrue(shortest, "A* with a model finds routes as short as Dijkstra.");
+	}
+
+
+	@Test
+	public void testRoutePlannerEquirectangular() {
+		// A and T are just south of a tile boundary of EQUIRECTANGULAR, and
+		// the straight line between them is scaled by the cosine of the
+		// lower tile. A -> C -> T runs just north of the boundary with the
+		// smaller cosine of the upper tile, and is shorter than the straight
+		// line, so an A* search would overestimate at A and take S -> E -> T.
+		DistanceModel model = DistanceModel.EQUIRECTANGULAR;
+		GeoPoint s = new GeoPoint(32499990, 34000000);
+		GeoPoint a = new GeoPoint(32499990, 34001000);
+		GeoPoint c = new GeoPoint(32500010, 34500000);
+		GeoPoint e = new GeoPoint(32511600, 34500000);
+		GeoPoint t = new GeoPoint(32499990, 35000000);
+		GeoSegment[] segments = {new GeoSegment("S", s, a, model, false),
+			new GeoSegment("A", a, c, model, false), new GeoSegment("C", c, t, model, false),
+			new GeoSegment("E", s, e, model, false), new GeoSegment("T", e, t, model, false)};
+		RoutePlanner planner = new RoutePlanner(new RoadGraph(segments, true), model);
+		Route d = planner.findRoute(s, t, RoutePlanner.Algorithm.DIJKSTRA);
+		Route r = planner.findRoute(s, t, RoutePlanner.Algorithm.A_STAR);
+		assertTrue(d.getLength() < segments[3].getLength() + segments[4].getLength()
+			&& r.getLength() == d.getLength(),
+			"A* with an inconsistent model finds routes as short as Dijkstra.");
+	}
+}
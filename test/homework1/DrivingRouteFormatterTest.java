@@ -0,0 +1,45 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import org.junit.jupiter.api.Test;
+
+public class DrivingRouteFormatterTest {
+
+    private static final String DIRECTIONS =
+                "Turn slight right onto Trumpeldor Avenue and go 0.7 kilometers.\n" +
+                        "Turn left onto Hagalil and go 1.4 kilometers.\n";
+
+    private DrivingRouteFormatter mDirections;
+    private Route mShortRoute;
+
+
+    public DrivingRouteFormatterTest() {
+        mDirections = new DrivingRouteFormatter();
+        mShortRoute = new Route(new GeoSegment("Trumpeldor Avenue",
+                new GeoPoint(32783098, 35014528), new GeoPoint(32787081, 35020735)));
+        mShortRoute = mShortRoute.addSegment(new GeoSegment("Hagalil",
+                new GeoPoint(32787081, 35020735), new GeoPoint(32795631, 35010296)));
+    }
+
+
+    @Test
+    public void testComputeDirections() {
+        assertEquals(DIRECTIONS, mDirections.computeDirections(mShortRoute, 0));
+    }
+
+
+    @Test
+    public void testStreaming() throws IOException {
+        StringWriter writer = new StringWriter();
+        CharBuffer buffer = CharBuffer.allocate(DIRECTIONS.length());
+        mDirections.computeDirections(mShortRoute, 0, writer);
+        mDirections.computeDirections(mShortRoute, 0, buffer);
+        buffer.flip();
+        assertEquals(DIRECTIONS, writer.toString());
+        assertEquals(DIRECTIONS, buffer.toString());
+    }
+}
@@ -0,0 +1,139 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class GeoPointTest {
+
+	private GeoPoint gpZivSquare;
+	private GeoPoint gpSouthWest;		// negative latitude and longitude
+	private GeoPoint gpNorth;			// 1 km north to gpZivSquare
+
+
+	public GeoPointTest() {
+		gpZivSquare = new GeoPoint(32783098,35014528);
+		gpSouthWest = new GeoPoint(-33868820,-151209296);
+		gpNorth = new GeoPoint(32792115,35014528);
+	}
+
+
+	@Test
+	public void testPack() {
+		long packed = gpZivSquare.pack();
+		assertTrue(GeoPoint.unpackLatitude(packed) == gpZivSquare.getLatitude(),
+			"Unpacked latitude is the original latitude.");
+		assertTrue(GeoPoint.unpackLongitude(packed) == gpZivSquare.getLongitude(),
+			"Unpacked longitude is the original longitude.");
+		assertTrue(GeoPoint.unpack(gpSouthWest.pack()).equals(gpSouthWest),
+			"Negative coordinates survive packing.");
+		assertTrue(GeoPoint.unpack(GeoPoint.pack(GeoPoint.MIN_LATITUDE, GeoPoint.MAX_LONGITUDE))
+				.equals(new GeoPoint(GeoPoint.MIN_LATITUDE, GeoPoint.MAX_LONGITUDE)),
+			"Extreme coordinates survive packing.");
+		assertTrue(gpZivSquare.pack() != gpNorth.pack(),
+			"Different points have different packings.");
+	}
+
+
+	@Test
+	public void testHashCode() {
+		assertTrue(gpZivSquare.hashCode() == new GeoPoint(32783098,35014528).hashCode(),
+			".equals() objects must have the same .hashCode()");
+		boolean distinct = true;
+		GeoPoint[] points = ExampleGeoSegments.points;
+		for (int i = 0; i < points.length; i++)
+			for (int j = i + 1; j < points.length; j++)
+				distinct &= points[i].hashCode() != points[j].hashCode();
+		assertTrue(distinct, "Nearby points have different hash codes.");
+	}
+
+
+	@Test
+	public void testGeoPointIndex() {
+		GeoPoint[] points = ExampleGeoSegments.points;
+		GeoPointIndex index = new GeoPointIndex(2);
+		for (int i = 0; i < points.length; i++)
+			index.put(points[i], i);
+		boolean found = index.size() == points.length;
+		for (int i = 0; i < points.length; i++)
+			found &= index.get(new GeoPoint(points[i].getLatitude(), points[i].getLongitude())) == i;
+		assertTrue(found, "Every added point is found after the index grows.");
+		assertTrue(index.get(gpSouthWest) == GeoPointIndex.NOT_FOUND,
+			"Missing point is not found.");
+		assertTrue(index.put(points[3], 42) == 3 && index.get(points[3]) == 42
+			&& index.size() == points.length,
+			"put() replaces the value and returns the old one.");
+		assertTrue(index.putPackedIfAbsent(points[3].pack(), 7) == 42
+			&& index.putPackedIfAbsent(gpSouthWest.pack(), 7) == GeoPointIndex.NOT_FOUND
+			&& index.get(gpSouthWest) == 7,
+			"putPackedIfAbsent() keeps the existing value.");
+		assertThrows(IllegalArgumentException.class,
+			() -> new GeoPointIndex(GeoPointIndex.MAX_POINTS + 1),
+			"An index larger than an array can hold is rejected.");
+		assertThrows(IllegalArgumentException.class,
+			() -> new GeoPointIndex(Integer.MAX_VALUE),
+			"An index larger than an array can hold is rejected.");
+	}
+
+
+	@Test
+	public void testGeoPointStore() {
+		GeoPointStore store = new GeoPointStore(1);
+		int ziv = store.add(gpZivSquare);
+		int north = store.addPacked(gpNorth.pack());
+		int southWest = store.add(gpSouthWest.getLatitude(), gpSouthWest.getLongitude());
+		assertTrue(ziv == 0 && north == 1 && southWest == 2 && store.size() == 3,
+			"Points are indexed in the order they were added.");
+		assertTrue(store.getPoint(north).equals(gpNorth)
+			&& store.getPacked(southWest) == gpSouthWest.pack(),
+			"getPoint() returns the stored point.");
+		assertTrue(store.distance(ziv, north) == gpZivSquare.distanceTo(gpNorth),
+			"distance() is the same as distanceTo().");
+		assertTrue(store.heading(north, ziv) == gpNorth.headingTo(gpZivSquare),
+			"heading() is the same as headingTo().");
+		assertTrue(store.getSegment("North", ziv, north)
+				.equals(new GeoSegment("North", gpZivSquare, gpNorth)),
+			"getSegment() connects the stored points.");
+	}
+
+
+	@Test
+	public void testGeoKernels() {
+		Random random = new Random(12);
+		int n = 100000;
+		int[] lat1 = new int[n], lon1 = new int[n], lat2 = new int[n], lon2 = new int[n];
+		GeoPoint[] from = new GeoPoint[n], to = new GeoPoint[n];
+		for (int i = 0; i < n; i++) {
+			// nearby pairs, pairs far apart, and pairs on the same meridian
+			int spread = i % 2 == 0 ? 20000 : 80000000;
+			lat1[i] = random.nextInt(2 * GeoPoint.MAX_LATITUDE) + GeoPoint.MIN_LATITUDE;
+			lon1[i] = random.nextInt(2 * GeoPoint.MAX_LONGITUDE) + GeoPoint.MIN_LONGITUDE;
+			lat2[i] = Math.max(GeoPoint.MIN_LATITUDE, Math.min(GeoPoint.MAX_LATITUDE - 1,
+				lat1[i] + random.nextInt(spread) - spread / 2));
+			lon2[i] = i % 10 == 1 ? lon1[i] : Math.max(GeoPoint.MIN_LONGITUDE,
+				Math.min(GeoPoint.MAX_LONGITUDE - 1, lon1[i] + random.nextInt(spread) - spread / 2));
+			if (lat1[i] == lat2[i] && lon1[i] == lon2[i])
+				lat2[i] = lat1[i] > 0 ? lat1[i] - 1 : lat1[i] + 1;
+			from[i] = new GeoPoint(lat1[i], lon1[i]);
+			to[i] = new GeoPoint(lat2[i], lon2[i]);
+		}
+		double[] bulk = new double[n];
+		GeoKernels.distances(lat1, lon1, lat2, lon2, bulk, n);
+		boolean identical = true;
+		for (int i = 0; i < n; i++)
+			identical &= bulk[i] == from[i].distanceTo(to[i]);
+		assertTrue(identical, "Bulk distances are exactly distanceTo().");
+		GeoKernels.distancesFrom(lat1[0], lon1[0], lat2, lon2, bulk, n);
+		identical = true;
+		for (int i = 0; i < n; i++)
+			identical &= bulk[i] == from[0].distanceTo(to[i]);
+		assertTrue(identical, "Distances from a point are exactly distanceTo().");
+		GeoKernels.headings(lat1, lon1, lat2, lon2, bulk, n);
+		identical = true;
+		for (int i = 0; i < n; i++)
+			identical &= bulk[i] == from[i].headingTo(to[i]);
+		assertTrue(identical, "Bulk headings are exactly headingTo().");
+	}
+}
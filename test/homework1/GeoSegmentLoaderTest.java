@@ -0,0 +1,109 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class GeoSegmentLoaderTest {
+
+    private GeoSegment[] mSegments;
+    private Path mFile;
+    private ExecutorService mExecutor;
+
+
+    public GeoSegmentLoaderTest() throws IOException {
+        mSegments = SyntheticGeoSegments.path(500, 7);
+        mFile = Files.createTempFile("segments", ".csv");
+        mExecutor = Executors.newFixedThreadPool(4);
+    }
+
+
+    @AfterEach
+    public void shutdown() throws IOException {
+        mExecutor.shutdown();
+        Files.deleteIfExists(mFile);
+    }
+
+
+    private GeoSegmentLoader.Result load(String text, int chunkBytes)
+            throws IOException, InterruptedException {
+        Files.write(mFile, text.getBytes(StandardCharsets.UTF_8));
+        return new GeoSegmentLoader(mExecutor, chunkBytes).load(mFile);
+    }
+
+
+    private static String line(GeoSegment gs) {
+        return gs.getName() + "," + gs.getP1().getLatitude() + "," + gs.getP1().getLongitude()
+                + "," + gs.getP2().getLatitude() + "," + gs.getP2().getLongitude();
+    }
+
+
+    @Test
+    public void testLoad() throws IOException, InterruptedException {
+        StringBuilder text = new StringBuilder();
+        for (GeoSegment gs : mSegments)
+            text.append(line(gs)).append('\n');
+        for (int chunkBytes : new int[] {1, 100, 1 << 20}) {
+            GeoSegmentLoader.Result result = load(text.toString(), chunkBytes);
+            assertTrue(Arrays.equals(mSegments, result.getSegments())
+                    && result.getProblems().isEmpty(), "Segments are loaded in order.");
+            GeoSegment[] loaded = result.getSegments();
+            assertTrue(loaded[1].getP1() == loaded[0].getP2() || chunkBytes == 1,
+                    "Consecutive segments share their point.");
+        }
+    }
+
+
+    @Test
+    public void testFormat() throws IOException, InterruptedException {
+        GeoSegment[] loaded = load("  Trumpeldor Avenue ,\t32783098 , 35014528,32787081,35020735\r\n"
+                + "\n  \r\n"
+                + "\"Hanita, \"\"north\"\"\",+32787081,35020735,-32795631,35010296", 16)
+                .getSegments();
+        assertEquals(2, loaded.length);
+        assertEquals(new GeoSegment("Trumpeldor Avenue", new GeoPoint(32783098, 35014528),
+                new GeoPoint(32787081, 35020735)), loaded[0]);
+        assertEquals(new GeoSegment("Hanita, \"north\"", new GeoPoint(32787081, 35020735),
+                new GeoPoint(-32795631, 35010296)), loaded[1]);
+    }
+
+
+    @Test
+    public void testProblems() throws IOException, InterruptedException {
+        String text = line(mSegments[0]) + "\n"
+                + "a,1,2,3\n"
+                + "a,1,2,3,4,5\n"
+                + "a,1.5,2,3,4\n"
+                + "a,1,2,3,4x\n"
+                + "a,91000000,2,3,4\n"
+                + "a,1,2,1,2\n"
+                + "\"a,1,2,3,4\n"
+                + line(mSegments[1]) + "\n";
+        GeoSegmentLoader.Result result = load(text, 20);
+        assertTrue(Arrays.equals(Arrays.copyOf(mSegments, 2), result.getSegments()),
+                "Good lines are loaded.");
+        List<GeoSegmentLoader.Problem> problems = result.getProblems();
+        assertEquals(7, problems.size());
+        for (int i = 0; i < problems.size(); i++)
+            assertEquals(i + 2, problems.get(i).getLine());
+        assertEquals("a,1,2,3", problems.get(0).getText());
+        assertEquals("expected 5 fields", problems.get(0).getReason());
+        assertEquals("expected 5 fields", problems.get(1).getReason());
+        assertEquals("expected an integer", problems.get(2).getReason());
+        assertEquals("expected an integer", problems.get(3).getReason());
+        assertEquals("point is not in the world", problems.get(4).getReason());
+        assertEquals("endpoints are equal", problems.get(5).getReason());
+        assertEquals("quoted name does not end", problems.get(6).getReason());
+        assertEquals(0, load("", 20).getSegments().length);
+    }
+}
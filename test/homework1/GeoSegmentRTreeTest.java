@@ -0,0 +1,132 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class GeoSegmentRTreeTest {
+
+	private GeoSegment[] mGridSegments;
+	private GeoSegmentRTree mTree;
+	private GeoSegmentRTree mEmptyTree;
+
+
+	public GeoSegmentRTreeTest() {
+		mGridSegments = SyntheticGeoSegments.grid(40, 40, 5);
+		mTree = new GeoSegmentRTree(mGridSegments);
+		mEmptyTree = new GeoSegmentRTree(new GeoSegment[0]);
+	}
+
+
+	/**
+	 * Returns the distances from gp to all the grid segments, in
+	 * increasing order.
+	 */
+	double[] scan(GeoPoint gp) {
+		double[] distances = new double[mGridSegments.length];
+		for (int i = 0; i < mGridSegments.length; i++)
+			distances[i] = mGridSegments[i].distanceTo(gp);
+		Arrays.sort(distances);
+		return distances;
+	}
+
+
+	boolean inBox(GeoPoint gp, GeoPoint southWest, GeoPoint northEast) {
+		return gp.getLatitude() >= southWest.getLatitude()
+			&& gp.getLatitude() <= northEast.getLatitude()
+			&& gp.getLongitude() >= southWest.getLongitude()
+			&& gp.getLongitude() <= northEast.getLongitude();
+	}
+
+
+	@Test
+	public void testGeoSegmentDistanceTo() {
+		GeoPoint west = new GeoPoint(32783098, 35003854);
+		GeoPoint east = new GeoPoint(32783098, 35025202);
+		GeoSegment street = new GeoSegment("Street", west, east);
+		assertTrue(Math.abs(street.distanceTo(new GeoPoint(32792115, 35014528)) - 1.0) < 0.01,
+			"Point 1 km north of the middle is 1 km away.");
+		GeoPoint beyond = new GeoPoint(32790000, 35030000);
+		assertTrue(street.distanceTo(beyond) == beyond.distanceTo(east)
+			&& street.reverse().distanceTo(beyond) == beyond.distanceTo(east),
+			"Point beyond an end is as far as the end.");
+		assertTrue(street.distanceTo(west) == 0
+			&& street.distanceTo(new GeoPoint(32783098, 35010000)) == 0,
+			"Points of the segment are at distance 0.");
+	}
+
+
+	@Test
+	public void testNearest() {
+		GeoPoint west = new GeoPoint(32783098, 35003854);
+		GeoSegment street = new GeoSegment("Street", west, new GeoPoint(32783098, 35025202));
+		GeoPoint beyond = new GeoPoint(32790000, 35030000);
+		assertTrue(mEmptyTree.size() == 0 && mEmptyTree.nearest(west) == null
+			&& mEmptyTree.nearest(west, 3).length == 0,
+			"Empty tree has no nearest segment.");
+		GeoSegmentRTree single = new GeoSegmentRTree(new GeoSegment[] {street});
+		assertTrue(single.nearest(beyond).equals(street) && single.nearest(beyond, 5).length == 1,
+			"Single segment is the nearest one.");
+		Random random = new Random(11);
+		GeoPoint corner = mGridSegments[0].getP1();
+		boolean nearest = true;
+		boolean ordered = true;
+		for (int q = 0; q < 300; q++) {
+			// points around and beyond the grid
+			GeoPoint gp = new GeoPoint(corner.getLatitude() - 5000 + random.nextInt(46000),
+				corner.getLongitude() - 5000 + random.nextInt(53000));
+			double[] distances = scan(gp);
+			nearest &= mTree.nearest(gp).distanceTo(gp) == distances[0];
+			GeoSegment[] found = mTree.nearest(gp, 7);
+			ordered &= found.length == 7;
+			for (int i = 0; i < found.length; i++)
+				ordered &= found[i].distanceTo(gp) == distances[i];
+		}
+		assertTrue(nearest, "Nearest segment is as near as the nearest in a linear scan.");
+		assertTrue(ordered, "k nearest segments are the k nearest of a linear scan, in order.");
+		assertTrue(mTree.nearest(corner, mGridSegments.length + 10).length == mGridSegments.length,
+			"Asking for more segments than there are returns them all.");
+	}
+
+
+	@Test
+	public void testSearch() {
+		GeoPoint corner = mGridSegments[0].getP1();
+		GeoPoint southWest = new GeoPoint(corner.getLatitude() + 8000, corner.getLongitude() + 9000);
+		GeoPoint northEast = new GeoPoint(corner.getLatitude() + 20000, corner.getLongitude() + 30000);
+		GeoSegment[] inside = mTree.search(southWest, northEast);
+		boolean complete = true;
+		for (GeoSegment gs : mGridSegments) {
+			if (inBox(gs.getP1(), southWest, northEast) || inBox(gs.getP2(), southWest, northEast))
+				complete &= Arrays.asList(inside).contains(gs);
+		}
+		assertTrue(complete, "Every segment with an end in the area is found.");
+		boolean overlapping = inside.length > 0;
+		for (GeoSegment gs : inside)
+			overlapping &= Math.min(gs.getP1().getLatitude(), gs.getP2().getLatitude()) <= northEast.getLatitude()
+				&& Math.max(gs.getP1().getLatitude(), gs.getP2().getLatitude()) >= southWest.getLatitude()
+				&& Math.min(gs.getP1().getLongitude(), gs.getP2().getLongitude()) <= northEast.getLongitude()
+				&& Math.max(gs.getP1().getLongitude(), gs.getP2().getLongitude()) >= southWest.getLongitude();
+		assertTrue(overlapping, "Every found segment overlaps the area.");
+
+		GeoPoint sw = new GeoPoint(32780000, 35000000);
+		GeoPoint ne = new GeoPoint(32790000, 35010000);
+		GeoSegment across = new GeoSegment("Across", new GeoPoint(32775000, 35005000),
+			new GeoPoint(32795000, 35005000));
+		GeoSegment missing = new GeoSegment("Missing", new GeoPoint(32789000, 34995000),
+			new GeoPoint(32795000, 35001000));
+		GeoSegment touching = new GeoSegment("Touching", new GeoPoint(32785000, 34995000),
+			new GeoPoint(32795000, 35005000));
+		GeoSegmentRTree small = new GeoSegmentRTree(new GeoSegment[] {across, missing, touching});
+		GeoSegment[] crossing = small.search(sw, ne);
+		assertTrue(Arrays.asList(crossing).contains(across),
+			"Segment through the area with both ends outside is found.");
+		assertTrue(Arrays.asList(crossing).contains(touching),
+			"Segment touching the corner of the area is found.");
+		assertTrue(!Arrays.asList(crossing).contains(missing) && crossing.length == 2,
+			"Segment passing by the corner of the area is not found.");
+		assertTrue(mEmptyTree.search(sw, ne).length == 0, "Empty tree finds nothing.");
+	}
+}
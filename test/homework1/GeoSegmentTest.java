@@ -0,0 +1,138 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class GeoSegmentTest {
+	
+	private static final double tolerance = 0.01;
+   
+  	private GeoPoint gpZivSquare;
+  	private GeoPoint gpWest;			// 1 km west to gpZivSquare
+  	private GeoPoint gpEast;			// 1 km east to gpZivSquare 
+  	private GeoPoint gpNorth;			// 1 km north to gpZivSquare
+                                
+  	private GeoSegment gsEast;
+  	private GeoSegment gsWest;
+  	private GeoSegment gsNorth;
+  	private GeoSegment gsEast2; 
+  	private GeoSegment gsWest2;
+  	private GeoSegment gsDiag; 
+  
+  
+  	public GeoSegmentTest() {
+		gpZivSquare = new GeoPoint(32783098,35014528);
+		gpWest = new GeoPoint(32783098,35003854);
+		gpEast = new GeoPoint(32783098,35025202);
+		gpNorth = new GeoPoint(32792115,35014528);
+		
+    	gsEast = new GeoSegment("East", gpZivSquare, gpEast);
+    	gsWest = new GeoSegment("West", gpZivSquare, gpWest);
+    	gsNorth = new GeoSegment("North", gpZivSquare, gpNorth);
+    	gsEast2 = new GeoSegment("East", gpWest, gpZivSquare);
+    	gsWest2 = new GeoSegment("West", gpWest, gpZivSquare);
+    	gsDiag = new GeoSegment("NE", gpWest, gpNorth);
+  	}
+  	
+  	
+  	boolean same(double x, double y) {
+  		return ((y >= x-tolerance) && (y <= x+tolerance));
+  	}
+
+
+  	@Test
+  	public void testEquals() {
+		assertTrue(gsNorth.equals(gsNorth),
+			"Self equality");
+		assertTrue(gsNorth.equals(new GeoSegment("North", gpZivSquare, gpNorth)),
+			 "Equal to copy");
+		assertTrue(!gsNorth.equals(gsEast),
+			"Totally different objects are not equal.");
+		assertTrue(!gsEast2.equals(gsWest2),
+			"Same points, different name are not equal.");
+		assertTrue(!gsEast.equals(gsEast2),
+			"Same name, different points are not equal.");
+			
+		GeoPoint gpZivSquare2 = new GeoPoint(32783098,35014528);
+		GeoPoint gpNorth2 = new GeoPoint(32792115,35014528);
+		GeoSegment gsNorth2 = new GeoSegment("North", gpZivSquare2, gpNorth2);
+		assertTrue(gsNorth.equals(gsNorth2),
+			"Segment equality should use value equality, not reference equality");
+		assertTrue(!gsNorth2.equals("aString"),
+		   "equals(non-GeoSegment) should be false");
+		assertTrue(!gsNorth2.equals(null),
+		   "equals(null) should be false");
+  	}
+
+
+  	@Test
+  	public void testHashCode() {
+		GeoSegment gsNorth2 = new GeoSegment("North", new GeoPoint(32783098,35014528),
+			new GeoPoint(32792115,35014528));
+		assertTrue(gsNorth.hashCode() == gsNorth2.hashCode(),
+			".equals() objects must have the same .hashCode()");
+		assertTrue(gsNorth.fingerprint == gsNorth2.fingerprint,
+			".equals() objects must have the same fingerprint");
+		assertTrue(gsEast.fingerprint != gsEast.reverse().fingerprint
+			&& gsEast2.fingerprint != gsWest2.fingerprint,
+			"Reversed or renamed segments have different fingerprints");
+  	}
+
+
+  	@Test
+  	public void testReverse() {
+		assertTrue(gsEast.reverse().equals(gsEast.reverse()),
+			"Reversed segment is equal to same segment reversed.");
+		assertTrue(gsEast.reverse().reverse().equals(gsEast),
+			"Twice reversed segment is equal to initial.");
+		assertTrue(gsWest.equals(gsWest2.reverse()),
+			"New reversed item is equal to its reversal.");
+		assertTrue(gsWest.reverse().equals(gsWest2),
+			"New reversed item is equal to its reversal.");
+		assertTrue(!gsEast.reverse().equals(gsEast),
+			"Segment is not equal to its reversal.");
+		assertTrue(!gsEast.reverse().reverse().equals(gsEast.reverse()),
+			"Segment reversed twice is not equal to its reversal.");
+		assertTrue(!gsWest.reverse().equals(gsWest2.reverse()),
+			"Reversed segment reversed is not equal to reversed.");
+  	}
+
+
+  	@Test
+  	public void testGetName() {
+		assertTrue(gsEast.getName().equals("East"), "getName() works.");
+  	}
+
+
+  	@Test
+  	public void testGetP1GetP2() {
+		assertTrue(gsEast.getP1().equals(gpZivSquare), "getP1() works.");
+		assertTrue(gsEast2.getP2().equals(gpZivSquare), "getP2() works.");
+  	}
+
+
+  	@Test
+  	public void testGetLength() {
+		assertTrue(same(gsEast.getLength(),1.0), "East 1 km");
+		assertTrue(same(gsWest.getLength(),1.0), "West 1 km");
+		assertTrue(same(gsNorth.getLength(),1.0), "North 1 km");
+		assertTrue(same(gsDiag.getLength(),1.414), "1.414 km");
+  	}
+
+
+  	@Test
+  	public void testGetHeading() {
+		assertTrue(same(gsEast.getHeading(), 90.0), "East should be 90");
+		assertTrue(same(gsWest.getHeading(), 270.0), "West should be 270");
+		double nh = gsNorth.getHeading();
+		assertTrue(!(nh < 0.0),
+			"North heading (" + nh + ") is not less than zero.");
+		assertTrue(!(nh >= 360.0),
+			"North heading (" + nh + ") is not greater or equal to 360.");
+		assertTrue(!((nh > tolerance) && (Math.abs(360.0 - nh)> tolerance )), 
+			"North heading is expected to be 0 or 359.999");
+		assertTrue(same(gsNorth.reverse().getHeading(), 180.0),
+		 	"South heading should be 180");		
+  	}
+}
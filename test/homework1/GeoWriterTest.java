@@ -0,0 +1,186 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.junit.jupiter.api.Test;
+
+public class GeoWriterTest {
+
+    private GeoSegment[] mGrid;
+    private Route mRoute;
+
+
+    public GeoWriterTest() {
+        mGrid = SyntheticGeoSegments.grid(10, 10, 3);
+        mRoute = new RouteBuilder().addSegments(SyntheticGeoSegments.path(10000, 8)).freeze();
+    }
+
+
+    private static byte[] write(boolean metrics, Object... records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GeoWriter writer = new GeoWriter(Channels.newChannel(out), metrics)) {
+            for (Object record : records) {
+                if (record instanceof GeoPoint)
+                    writer.writePoint((GeoPoint) record);
+                else if (record instanceof GeoSegment)
+                    writer.writeSegment((GeoSegment) record);
+                else
+                    writer.writeRoute((Route) record);
+            }
+        }
+        return out.toByteArray();
+    }
+
+
+    private static GeoReader reader(byte[] bytes) throws IOException {
+        return new GeoReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+
+    /**
+     * Returns a stream without metrics that holds the given bytes after its
+     * start, and varints of the given values after them.
+     */
+    private static byte[] corrupt(byte[] bytes, long... varints) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[] {0x47, 0x45, 0x4f, 0x31, 0});
+        out.writeBytes(bytes);
+        for (long v : varints) {
+            for (; (v & ~0x7fL) != 0; v >>>= 7)
+                out.write((int) (v & 0x7f) | 0x80);
+            out.write((int) v);
+        }
+        return out.toByteArray();
+    }
+
+
+    private static boolean sameMetrics(GeoSegment a, GeoSegment b) {
+        return a.equals(b) && a.getLength() == b.getLength() && a.getHeading() == b.getHeading()
+                && a.model == b.model && a.fastHeading == b.fastHeading;
+    }
+
+
+    @Test
+    public void testSegments() throws IOException {
+        GeoSegment fast = new GeoSegment("Hagalil", new GeoPoint(32787081, 35020735),
+                new GeoPoint(32795631, 35010296), DistanceModel.VINCENTY, true);
+        Object[] records = Arrays.copyOf(mGrid, mGrid.length + 2, Object[].class);
+        records[mGrid.length] = fast;
+        records[mGrid.length + 1] = mGrid[0];
+        for (boolean metrics : new boolean[] {false, true}) {
+            try (GeoReader reader = reader(write(metrics, records))) {
+                boolean same = true;
+                for (Object record : records) {
+                    same &= reader.peek() == GeoReader.Type.SEGMENT
+                            && sameMetrics((GeoSegment) record, reader.readSegment());
+                }
+                assertTrue(same, "Segments are read back with their lengths and headings.");
+                assertEquals(GeoReader.Type.END, reader.peek());
+            }
+        }
+    }
+
+
+    @Test
+    public void testPointsAndRoutes() throws IOException {
+        GeoPoint far = new GeoPoint(GeoPoint.MIN_LATITUDE, GeoPoint.MAX_LONGITUDE);
+        Route single = new Route(mGrid[5]);
+        try (GeoReader reader = reader(write(true, ExampleGeoSegments.points[0], far, mRoute,
+                single, ExampleGeoSegments.points[1]))) {
+            assertEquals(ExampleGeoSegments.points[0], reader.readPoint());
+            assertEquals(far, reader.readPoint());
+            Route route = reader.readRoute();
+            assertTrue(route.equals(mRoute) && route.getLength() == mRoute.getLength(),
+                    "Route is read back.");
+            boolean same = true;
+            Iterator<GeoSegment> i = route.getGeoSegments();
+            for (Iterator<GeoSegment> j = mRoute.getGeoSegments(); j.hasNext(); )
+                same &= sameMetrics(j.next(), i.next());
+            assertTrue(same, "Segments of a route keep their lengths and headings.");
+            assertEquals(single, reader.readRoute());
+            assertEquals(ExampleGeoSegments.points[1], reader.readPoint());
+            assertEquals(GeoReader.Type.END, reader.peek());
+        }
+    }
+
+
+    @Test
+    public void testSize() throws IOException {
+        int bytes = write(false, mRoute).length;
+        assertTrue(bytes < 7 * 10000, "Route segments take less than 7 bytes each: " + bytes);
+        int withMetrics = write(true, mRoute).length;
+        assertTrue(withMetrics - bytes == 16 * 10000, "Metrics take 16 bytes per segment.");
+    }
+
+
+    @Test
+    public void testErrors() throws IOException {
+        byte[] bytes = write(false, mGrid[0], mRoute);
+        assertThrows(IOException.class, () -> reader(new byte[] {1, 2, 3, 4, 5}));
+        assertThrows(EOFException.class, () -> {
+            try (GeoReader reader = reader(Arrays.copyOf(bytes, bytes.length / 2))) {
+                reader.readSegment();
+                reader.readRoute();
+            }
+        });
+        try (GeoReader reader = reader(bytes)) {
+            assertThrows(IllegalStateException.class, reader::readRoute);
+        }
+        // a route of two billion segments ends after its first point
+        try (GeoReader reader = reader(corrupt(new byte[] {GeoWriter.ROUTE},
+                Integer.MAX_VALUE - 9, 0, 0))) {
+            assertThrows(EOFException.class, reader::readRoute);
+        }
+        try (GeoReader reader = reader(corrupt(new byte[] {GeoWriter.SEGMENT},
+                1, Integer.MAX_VALUE - 9))) {
+            assertThrows(StreamCorruptedException.class, reader::readSegment);
+        }
+        // a model byte followed by no name, and a name of a negative index
+        try (GeoReader reader = reader(corrupt(new byte[] {GeoWriter.SEGMENT}, 0, 0, 0))) {
+            assertThrows(StreamCorruptedException.class, reader::readSegment);
+        }
+        try (GeoReader reader = reader(corrupt(new byte[] {GeoWriter.SEGMENT}, -1))) {
+            assertThrows(StreamCorruptedException.class, reader::readSegment);
+        }
+        char[] longName = new char[GeoWriter.MAX_NAME_LENGTH + 1];
+        Arrays.fill(longName, 'a');
+        GeoSegment named = new GeoSegment(new String(longName), mGrid[0].getP1(),
+                mGrid[0].getP2());
+        assertThrows(IllegalArgumentException.class, () -> write(false, named));
+        DistanceModel other = (lat1, lon1, lat2, lon2) -> 1;
+        GeoSegment custom = new GeoSegment("Other", mGrid[0].getP1(), mGrid[0].getP2(),
+                other, false);
+        assertThrows(IllegalArgumentException.class, () -> write(false, custom));
+        GeoWriter writer = new GeoWriter(Channels.newChannel(new ByteArrayOutputStream()), false);
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> writer.writePoint(mGrid[0].getP1()));
+    }
+
+
+    @Test
+    public void testCorruptMetrics() throws IOException {
+        double[][] metrics = {{0, 90}, {-1, 90}, {Double.NaN, 90},
+                {Double.POSITIVE_INFINITY, 90}, {1, -1}, {1, 360}, {1, Double.NaN}};
+        for (double[] m : metrics) {
+            byte[] bytes = write(true, mGrid[0]);
+            // the metrics are the last 16 bytes before the end
+            ByteBuffer.wrap(bytes).putDouble(bytes.length - 17, m[0])
+                    .putDouble(bytes.length - 9, m[1]);
+            try (GeoReader reader = reader(bytes)) {
+                assertThrows(StreamCorruptedException.class, reader::readSegment,
+                        "Length " + m[0] + " and heading " + m[1] + " are rejected.");
+            }
+        }
+    }
+}
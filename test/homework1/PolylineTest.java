@@ -0,0 +1,85 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import org.junit.jupiter.api.Test;
+
+public class PolylineTest {
+
+    // the example of the documentation of the format
+    private static final String GOOGLE = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+
+    private Route mGoogleRoute;
+    private Route mPath;
+
+
+    public PolylineTest() {
+        GeoPoint a = new GeoPoint(38500000, -120200000);
+        GeoPoint b = new GeoPoint(40700000, -120950000);
+        GeoPoint c = new GeoPoint(43252000, -126453000);
+        mGoogleRoute = new Route(new GeoSegment("a", a, b)).addSegment(new GeoSegment("b", b, c));
+        mPath = new RouteBuilder().addSegments(SyntheticGeoSegments.path(1000, 8)).freeze();
+    }
+
+
+    @Test
+    public void testGoogleExample() throws IOException {
+        assertEquals(GOOGLE, Polyline.encode(mGoogleRoute, Polyline.GOOGLE_PRECISION));
+        GeoPointStore points = Polyline.decode(GOOGLE, Polyline.GOOGLE_PRECISION);
+        assertTrue(points.size() == 3 && points.getPoint(0).equals(mGoogleRoute.getStart())
+                && points.getPoint(2).equals(mGoogleRoute.getEnd()), "Example decodes.");
+        StringWriter writer = new StringWriter();
+        Polyline.encode(mGoogleRoute, Polyline.GOOGLE_PRECISION, writer);
+        assertEquals(GOOGLE, writer.toString());
+    }
+
+
+    @Test
+    public void testExactRoundTrip() {
+        String polyline = Polyline.encode(mPath, Polyline.EXACT_PRECISION);
+        GeoPointStore points = Polyline.decode(polyline, Polyline.EXACT_PRECISION);
+        assertEquals(1001, points.size());
+        boolean same = points.getPoint(0).equals(mPath.getStart());
+        int k = 1;
+        for (Iterator<GeoSegment> i = mPath.getGeoSegments(); i.hasNext(); k++)
+            same &= points.getPoint(k).equals(i.next().getP2());
+        assertTrue(same, "Every point is decoded exactly.");
+        assertTrue(polyline.length() < mPath.toString().length() / 20,
+                "Polyline is much shorter than toString().");
+        ByteBuffer buffer = ByteBuffer.allocate(polyline.length());
+        Polyline.encode(mPath, Polyline.EXACT_PRECISION, buffer);
+        assertEquals(polyline, new String(buffer.array(), StandardCharsets.US_ASCII));
+    }
+
+
+    @Test
+    public void testRounding() {
+        String polyline = Polyline.encode(mPath, Polyline.GOOGLE_PRECISION);
+        GeoPointStore points = Polyline.decode(polyline, Polyline.GOOGLE_PRECISION);
+        boolean close = true;
+        int k = 1;
+        for (Iterator<GeoSegment> i = mPath.getGeoSegments(); i.hasNext(); k++) {
+            GeoPoint p = i.next().getP2();
+            close &= Math.abs(points.getLatitude(k) - p.getLatitude()) <= 5
+                    && Math.abs(points.getLongitude(k) - p.getLongitude()) <= 5;
+        }
+        assertTrue(close, "Rounding errors do not add up.");
+    }
+
+
+    @Test
+    public void testErrors() {
+        assertThrows(IllegalArgumentException.class, () -> Polyline.encode(mPath, 7));
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_p~iF", 5));
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_p~iF~ps|", 5));
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_p~iF ps|U", 5));
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("~~~~~~~~~~~~?", 5));
+    }
+}
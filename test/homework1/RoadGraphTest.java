@@ -0,0 +1,104 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class RoadGraphTest {
+
+	private GeoSegment[] segments;
+	private RoadGraph mGraph;
+	private RoadGraph mTwoWayGraph;
+
+
+	public RoadGraphTest() {
+		segments = ExampleGeoSegments.segments;
+		mGraph = new RoadGraph(segments);
+		mTwoWayGraph = new RoadGraph(segments, true);
+	}
+
+
+	/**
+	 * Returns the edge from the node at p1 to the node at p2, or -1.
+	 */
+	int edge(RoadGraph g, GeoPoint p1, GeoPoint p2) {
+		int v = g.getNodeId(p1);
+		int w = g.getNodeId(p2);
+		for (int e = g.firstEdge(v); e < g.endEdge(v); e++)
+			if (g.getTarget(e) == w)
+				return e;
+		return -1;
+	}
+
+
+	@Test
+	public void testNodes() {
+		assertTrue(mGraph.getNodeCount() == ExampleGeoSegments.points.length,
+			"Shared endpoints become a single node.");
+		boolean located = true;
+		for (GeoPoint gp : ExampleGeoSegments.points)
+			located &= mGraph.getNode(mGraph.getNodeId(gp)).equals(gp);
+		assertTrue(located, "Every node is found by its location.");
+		assertTrue(mGraph.getNodeId(new GeoPoint(0, 0)) == GeoPointIndex.NOT_FOUND,
+			"Unknown location has no node.");
+	}
+
+
+	@Test
+	public void testEdges() {
+		assertTrue(mGraph.getEdgeCount() == segments.length
+			&& mTwoWayGraph.getEdgeCount() == 2 * segments.length,
+			"One edge per segment, or two in both directions.");
+		boolean matches = true;
+		for (GeoSegment gs : segments) {
+			int e = edge(mGraph, gs.getP1(), gs.getP2());
+			matches &= e >= 0 && mGraph.getSegment(e).equals(gs)
+				&& mGraph.getLength(e) == gs.getLength()
+				&& mGraph.getHeading(e) == gs.getHeading()
+				&& mGraph.getName(mGraph.getNameId(e)).equals(gs.getName());
+		}
+		assertTrue(matches, "Every segment is an edge with its length, heading and name.");
+		assertTrue(edge(mGraph, segments[1].getP2(), segments[1].getP1()) < 0,
+			"Segments are not reversed unless asked to.");
+		int back = edge(mTwoWayGraph, segments[1].getP2(), segments[1].getP1());
+		assertTrue(back >= 0 && mTwoWayGraph.getSegment(back).equals(segments[1].reverse())
+			&& mTwoWayGraph.getHeading(back) == segments[1].reverse().getHeading(),
+			"Reversed edge traverses the reversed segment.");
+	}
+
+
+	@Test
+	public void testReversedEdgesMatchSegments() {
+		// a model that is twice as long going south, and so not symmetric
+		DistanceModel uphill = (lat1, lon1, lat2, lon2) ->
+			DistanceModel.FLAT.distance(lat1, lon1, lat2, lon2) * (lat2 < lat1 ? 2 : 1);
+		GeoSegment[] fast = new GeoSegment[segments.length];
+		for (int i = 0; i < segments.length; i++)
+			fast[i] = new GeoSegment(segments[i].getName(), segments[i].getP1(),
+				segments[i].getP2(), uphill, true);
+		RoadGraph graph = new RoadGraph(fast, true);
+		boolean matches = true;
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			GeoSegment gs = graph.getSegment(e);
+			matches &= graph.getLength(e) == gs.getLength()
+				&& graph.getHeading(e) == gs.getHeading();
+		}
+		assertTrue(matches, "Every edge has the length and heading of its segment.");
+	}
+
+
+	@Test
+	public void testToRoute() {
+		int[] edges = new int[5];
+		for (int i = 0; i < 5; i++)
+			edges[i] = edge(mGraph, segments[i].getP1(), segments[i].getP2());
+		Route expected = new Route(segments[0]);
+		for (int i = 1; i < 5; i++)
+			expected = expected.addSegment(segments[i]);
+		assertTrue(mGraph.toRoute(edges).equals(expected), "Route follows the edges.");
+		assertThrows(IllegalArgumentException.class,
+			() -> mGraph.toRoute(new int[] { edges[0], edges[2] }),
+			"Disconnected edges are rejected.");
+	}
+}
@@ -0,0 +1,125 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class RoutePlannerTest {
+
+	private static final double tolerance = 0.000001;
+
+	private GeoPoint[] points;
+	private RoutePlanner mPlanner;
+	private RoadGraph mGrid;
+	private RoutePlanner mGridPlanner;
+
+
+	public RoutePlannerTest() {
+		points = ExampleGeoSegments.points;
+		mPlanner = new RoutePlanner(new RoadGraph(ExampleGeoSegments.segments, true));
+		mGrid = new RoadGraph(SyntheticGeoSegments.grid(30, 30, 1), true);
+		mGridPlanner = new RoutePlanner(mGrid);
+	}
+
+
+	boolean same(double x, double y) {
+		return ((y >= x-tolerance) && (y <= x+tolerance));
+	}
+
+
+	@Test
+	public void testFindRoute() {
+		Route r = mPlanner.findRoute(points[1], points[3]);
+		assertTrue(r != null && r.getStart().equals(points[1]) && r.getEnd().equals(points[3]),
+			"Route starts and ends at the given points.");
+		assertTrue(r.getGeoFeatures().next().getName().equals("Trumpeldor Avenue")
+			&& same(r.getLength(), ExampleGeoSegments.segments[1].getLength()
+				+ ExampleGeoSegments.segments[2].getLength()),
+			"Route follows Trumpeldor Avenue.");
+		Route back = mPlanner.findRoute(points[3], points[1], RoutePlanner.Algorithm.DIJKSTRA);
+		assertTrue(back != null && same(back.getLength(), r.getLength())
+			&& back.getEnd().equals(points[1]),
+			"Segments may be traversed backwards.");
+		assertTrue(new DrivingRouteFormatter().computeDirections(r, 0).startsWith("Turn slight right onto Trumpeldor Avenue"),
+			"Found route can be formatted.");
+		assertTrue(mPlanner.findRoute(points[1], points[1]) == null,
+			"No route to the same point.");
+		assertTrue(mPlanner.findRoute(points[1], new GeoPoint(0, 0)) == null,
+			"No route to an unknown point.");
+		RoutePlanner oneWay = new RoutePlanner(new RoadGraph(ExampleGeoSegments.segments));
+		Route around = oneWay.findRoute(points[1], points[0]);
+		assertTrue(around != null && around.getLength() > ExampleGeoSegments.segments[0].getLength()
+			&& oneWay.findRoute(points[0], points[1]).equals(new Route(ExampleGeoSegments.segments[0])),
+			"One-way segments are not traversed backwards.");
+	}
+
+
+	@Test
+	public void testDijkstraAndAStar() {
+		Random random = new Random(7);
+		boolean agree = true;
+		for (int q = 0; q < 200; q++) {
+			GeoPoint s = mGrid.getNode(random.nextInt(mGrid.getNodeCount()));
+			GeoPoint t = mGrid.getNode(random.nextInt(mGrid.getNodeCount()));
+			if (s.equals(t))
+				continue;
+			Route a = mGridPlanner.findRoute(s, t, RoutePlanner.Algorithm.DIJKSTRA);
+			Route b = mGridPlanner.findRoute(s, t, RoutePlanner.Algorithm.A_STAR);
+			agree &= a != null && b != null && same(a.getLength(), b.getLength())
+				&& b.getStart().equals(s) && b.getEnd().equals(t)
+				&& a.getLength() >= s.distanceTo(t) - tolerance;
+		}
+		assertTrue(agree, "Both algorithms find routes of the same length.");
+	}
+
+
+	@Test
+	public void testContractionHierarchy() {
+		Random random = new Random(8);
+		ContractionHierarchy hierarchy = new ContractionHierarchy(mGrid, 2);
+		boolean shortest = true;
+		for (int q = 0; q < 200; q++) {
+			GeoPoint s = mGrid.getNode(random.nextInt(mGrid.getNodeCount()));
+			GeoPoint t = mGrid.getNode(random.nextInt(mGrid.getNodeCount()));
+			if (s.equals(t))
+				continue;
+			Route a = mGridPlanner.findRoute(s, t, RoutePlanner.Algorithm.DIJKSTRA);
+			Route c = hierarchy.findRoute(s, t);
+			shortest &= c != null && same(a.getLength(), c.getLength())
+				&& c.getStart().equals(s) && c.getEnd().equals(t);
+		}
+		assertTrue(shortest, "Hierarchy routes are as short as Dijkstra routes.");
+		// a regular grid has many shortest routes of equal length, which
+		// nodes contracted in the same round must not take as witnesses
+		// for each other
+		for (int size : new int[] {4, 10}) {
+			RoadGraph regular = new RoadGraph(SyntheticGeoSegments.grid(size, size), true);
+			RoutePlanner regularPlanner = new RoutePlanner(regular);
+			ContractionHierarchy regularHierarchy = new ContractionHierarchy(regular, 2);
+			boolean ties = true;
+			for (int v = 0; v < regular.getNodeCount(); v++)
+				for (int w = 0; w < regular.getNodeCount(); w++) {
+					if (v == w)
+						continue;
+					GeoPoint s = regular.getNode(v);
+					GeoPoint t = regular.getNode(w);
+					Route a = regularPlanner.findRoute(s, t, RoutePlanner.Algorithm.DIJKSTRA);
+					Route c = regularHierarchy.findRoute(s, t);
+					ties &= c != null && same(a.getLength(), c.getLength());
+				}
+			assertTrue(ties, "Hierarchy routes are shortest on a regular grid.");
+		}
+		ContractionHierarchy oneWayHierarchy = new ContractionHierarchy(
+			new RoadGraph(ExampleGeoSegments.segments), 1);
+		RoutePlanner oneWayPlanner = new RoutePlanner(new RoadGraph(ExampleGeoSegments.segments));
+		boolean directed = true;
+		for (GeoPoint s : points)
+			for (GeoPoint t : points) {
+				Route a = oneWayPlanner.findRoute(s, t, RoutePlanner.Algorithm.DIJKSTRA);
+				Route c = oneWayHierarchy.findRoute(s, t);
+				directed &= (a == null) == (c == null) && (a == null || a.equals(c));
+			}
+		assertTrue(directed, "Hierarchy respects one-way segments.");
+	}
+}
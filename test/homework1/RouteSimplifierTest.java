@@ -0,0 +1,117 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import org.junit.jupiter.api.Test;
+
+public class RouteSimplifierTest {
+
+    private Route mPath;
+    private RouteSimplifier mDouglasPeucker;
+    private RouteSimplifier mVisvalingam;
+
+
+    public RouteSimplifierTest() {
+        mPath = new RouteBuilder().addSegments(SyntheticGeoSegments.path(1000, 100)).freeze();
+        mDouglasPeucker = new RouteSimplifier(RouteSimplifier.Method.DOUGLAS_PEUCKER);
+        mVisvalingam = new RouteSimplifier(RouteSimplifier.Method.VISVALINGAM);
+    }
+
+
+    @Test
+    public void testDouglasPeuckerTolerance() {
+        GeoPointStore points = mDouglasPeucker.simplifyPoints(mPath, 0.02);
+        assertTrue(points.size() < 100, "Zigzag path is simplified.");
+        assertTrue(points.getPoint(0).equals(mPath.getStart())
+                && points.getPoint(points.size() - 1).equals(mPath.getEnd()),
+                "Endpoints are kept.");
+        // every point of the path is within tolerance of the kept line
+        // between the kept points around it
+        boolean within = true;
+        int kept = 0;
+        for (Iterator<GeoSegment> i = mPath.getGeoSegments(); i.hasNext();) {
+            GeoPoint p = i.next().p2;
+            if (p.equals(points.getPoint(kept + 1))) {
+                kept++;
+                continue;
+            }
+            within &= GeoPoint.segmentDistance(p.latitude, p.longitude,
+                    points.getLatitude(kept), points.getLongitude(kept),
+                    points.getLatitude(kept + 1), points.getLongitude(kept + 1)) <= 0.02;
+        }
+        assertTrue(within, "Dropped points are within tolerance.");
+    }
+
+
+    @Test
+    public void testZeroTolerance() {
+        assertEquals(1001, mDouglasPeucker.simplifyPoints(mPath, 0).size());
+        assertEquals(1001, mVisvalingam.simplifyPoints(mPath, 0).size());
+    }
+
+
+    @Test
+    public void testVisvalingam() {
+        GeoPointStore points = mVisvalingam.simplifyPoints(mPath, 0.02);
+        assertTrue(points.size() < 100, "Zigzag path is simplified.");
+        assertTrue(points.getPoint(0).equals(mPath.getStart())
+                && points.getPoint(points.size() - 1).equals(mPath.getEnd()),
+                "Endpoints are kept.");
+    }
+
+
+    @Test
+    public void testSimplifyKeepsFeatures() {
+        DrivingRouteFormatter formatter = new DrivingRouteFormatter();
+        for (RouteSimplifier simplifier : new RouteSimplifier[] {mDouglasPeucker, mVisvalingam}) {
+            Route simple = simplifier.simplify(mPath, 0.02);
+            assertTrue(simple.geoSegments.size() < 300, "Route is simplified.");
+            Iterator<GeoFeature> i = mPath.getGeoFeatures();
+            Iterator<GeoFeature> j = simple.getGeoFeatures();
+            while (i.hasNext()) {
+                GeoFeature f = i.next();
+                GeoFeature g = j.next();
+                assertTrue(f.getName().equals(g.getName())
+                        && f.getStart().equals(g.getStart()) && f.getEnd().equals(g.getEnd())
+                        && f.getStartHeading() == g.getStartHeading()
+                        && f.getEndHeading() == g.getEndHeading(), "Feature is kept.");
+                assertTrue(g.getLength() <= f.getLength() + 1e-9, "Feature is not longer.");
+            }
+            assertTrue(!j.hasNext(), "No feature is added.");
+            String directions = formatter.computeDirections(mPath, 0);
+            String simpleDirections = formatter.computeDirections(simple, 0);
+            assertEquals(lines(directions).replaceAll("[0-9.]+ kilometers", ""),
+                    lines(simpleDirections).replaceAll("[0-9.]+ kilometers", ""));
+        }
+    }
+
+
+    @Test
+    public void testHeapRemove() {
+        IndexedMinHeap heap = new IndexedMinHeap(100);
+        for (int v = 0; v < 100; v++) {
+            heap.offer(v, (v * 37) % 100);
+        }
+        for (int v = 0; v < 100; v += 3) {
+            assertTrue(heap.remove(v), "Queued item is removed.");
+        }
+        assertTrue(!heap.remove(0), "Removed item is not queued.");
+        double last = -1;
+        int count = 0;
+        while (!heap.isEmpty()) {
+            double key = heap.peekKey();
+            int v = heap.poll();
+            assertTrue(key >= last && v % 3 != 0, "Heap order is kept.");
+            last = key;
+            count++;
+        }
+        assertEquals(66, count);
+    }
+
+
+    private static String lines(String directions) {
+        return directions.replaceAll("\\s+", " ");
+    }
+}
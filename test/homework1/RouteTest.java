@@ -0,0 +1,270 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import org.junit.jupiter.api.Test;
+
+public class RouteTest {
+
+	private static final double tolerance = 0.01;
+
+	private GeoSegment[] segments;
+	private Route mShortRoute;
+	private Route mLongRoute;
+
+
+	public RouteTest() {
+		segments = ExampleGeoSegments.segments;
+		// Hankin Road, Trumpeldor Avenue x2, Hagalil x2, Hanita
+		mShortRoute = new Route(segments[0]);
+		for (int i = 1; i <= 4; i++) {
+			mShortRoute = mShortRoute.addSegment(segments[i]);
+		}
+		mLongRoute = mShortRoute.addSegment(segments[5]);
+	}
+
+
+	boolean same(double x, double y) {
+		return ((y >= x-tolerance) && (y <= x+tolerance));
+	}
+
+
+	int countFeatures(Route r) {
+		int n = 0;
+		for (Iterator<GeoFeature> i = r.getGeoFeatures(); i.hasNext(); i.next())
+			n++;
+		return n;
+	}
+
+
+	int countSegments(Route r) {
+		int n = 0;
+		for (Iterator<GeoSegment> i = r.getGeoSegments(); i.hasNext(); i.next())
+			n++;
+		return n;
+	}
+
+
+	@Test
+	public void testGetGeoSegments() {
+		Iterator<GeoSegment> si = mLongRoute.getGeoSegments();
+		boolean inOrder = true;
+		for (int i = 0; i <= 5; i++)
+			inOrder &= si.hasNext() && si.next().equals(segments[i]);
+		assertTrue(inOrder && !si.hasNext(),
+			"Segments are returned in the order they were added.");
+	}
+
+
+	@Test
+	public void testGetGeoFeatures() {
+		Iterator<GeoFeature> fi = mLongRoute.getGeoFeatures();
+		String[] names = { "Hankin Road", "Trumpeldor Avenue", "Hagalil", "Hanita" };
+		boolean grouped = true;
+		for (int i = 0; i < names.length; i++)
+			grouped &= fi.hasNext() && fi.next().getName().equals(names[i]);
+		assertTrue(grouped && !fi.hasNext(),
+			"Consecutive segments with the same name form one feature.");
+		assertTrue(same(sumFeatureLengths(mLongRoute), mLongRoute.getLength()),
+			"Feature lengths add up to the route length.");
+	}
+
+
+	@Test
+	public void testAddSegment() {
+		assertTrue(countSegments(mShortRoute) == 5 && countFeatures(mShortRoute) == 3,
+			"Extending a route does not change it.");
+		assertTrue(countSegments(mLongRoute) == 6 && countFeatures(mLongRoute) == 4,
+			"Extended route has one more segment.");
+		assertTrue(countFeatures(mShortRoute.addSegment(segments[5])) == 4
+			&& countFeatures(mShortRoute) == 3,
+			"Extending the same route twice gives independent routes.");
+		assertTrue(mLongRoute.getEnd().equals(segments[5].getP2()),
+			"getEnd() is the end of the last segment.");
+		assertTrue(same(mLongRoute.getEndHeading(), segments[5].getHeading()),
+			"getEndHeading() is the heading of the last segment.");
+		assertTrue(same(mLongRoute.getStartHeading(), segments[0].getHeading()),
+			"getStartHeading() is kept from the first segment.");
+	}
+
+
+	@Test
+	public void testGeoFeatureAddSegment() {
+		GeoFeature hagalil = new GeoFeature(segments[3]);
+		GeoFeature longHagalil = hagalil.addSegment(segments[4]);
+		Iterator<GeoSegment> hi = hagalil.getGeoSegments();
+		hi.next();
+		assertTrue(!hi.hasNext(), "Extending a feature does not change it.");
+		assertTrue(longHagalil.getStart().equals(segments[3].getP1())
+			&& longHagalil.getEnd().equals(segments[4].getP2()),
+			"Extended feature keeps its start and ends at the new segment.");
+		assertTrue(same(longHagalil.getLength(),
+				segments[3].getLength() + segments[4].getLength()),
+			"Extended feature length is the sum of its segments.");
+		assertTrue(longHagalil.equals(new GeoFeature(segments[3]).addSegment(segments[4])),
+			"Features built from equal segments are equal.");
+	}
+
+
+	@Test
+	public void testEqualsHashCode() {
+		Route copy = new Route(segments[0]);
+		for (int i = 1; i <= 5; i++)
+			copy = copy.addSegment(segments[i]);
+		assertTrue(copy.equals(mLongRoute),
+			"Routes built from equal segments are equal.");
+		assertTrue(copy.hashCode() == mLongRoute.hashCode(),
+			".equals() objects must have the same .hashCode()");
+		assertTrue(!mLongRoute.equals(mShortRoute),
+			"A route is not equal to its prefix.");
+		assertTrue(!mLongRoute.equals(null),
+			"equals(null) should be false");
+	}
+
+
+	@Test
+	public void testFingerprint() {
+		GeoSegment[] path = SyntheticGeoSegments.path(1000, 8);
+		Route chained = new Route(path[0]);
+		for (int i = 1; i < path.length - 1; i++)
+			chained = chained.addSegment(path[i]);
+		Route built = new RouteBuilder().addSegments(Arrays.copyOf(path, path.length - 1)).freeze();
+		assertTrue(chained.fingerprint == built.fingerprint && chained.equals(built)
+			&& built.equals(chained) && chained.hashCode() == built.hashCode(),
+			"Chained and built routes have the same fingerprint and are equal.");
+		assertTrue(chained.addSegment(path[999]).equals(built.addSegment(path[999]))
+			&& built.addSegment(path[999]).equals(new RouteBuilder().addSegments(path).freeze()),
+			"Extended chained and built routes are equal.");
+		assertTrue(chained.addSegment(path[999]).equals(chained.addSegment(path[999])),
+			"Routes extending the same route with equal segments are equal.");
+		assertTrue(!chained.addSegment(path[999]).equals(chained.addSegment(new GeoSegment(
+				"Elsewhere", path[999].getP1(), path[999].getP2()))),
+			"Routes extending the same route with different segments are not equal.");
+
+		GeoSegment[] renamed = path.clone();
+		renamed[500] = new GeoSegment("Renamed", path[500].getP1(), path[500].getP2());
+		Route other = new RouteBuilder().addSegments(renamed).freeze();
+		Route route = new RouteBuilder().addSegments(path).freeze();
+		assertTrue(other.fingerprint != route.fingerprint && !other.equals(route),
+			"A route with one renamed segment has another fingerprint.");
+
+		HashSet<Route> routes = new HashSet<Route>();
+		HashSet<Long> fingerprints = new HashSet<Long>();
+		for (int n = 1; n <= path.length; n++) {
+			Route prefix = new RouteBuilder().addSegments(Arrays.copyOf(path, n)).freeze();
+			routes.add(prefix);
+			fingerprints.add(prefix.fingerprint);
+		}
+		Route r = new Route(path[0]);
+		boolean found = routes.contains(r);
+		for (int i = 1; i < path.length; i++) {
+			r = r.addSegment(path[i]);
+			found &= routes.contains(r);
+		}
+		assertTrue(found && routes.size() == path.length,
+			"Every prefix is found in a hash set by an equal route.");
+		assertTrue(fingerprints.size() == path.length,
+			"Every prefix has its own fingerprint.");
+
+		GeoFeature feature = new GeoFeature(segments[3]).addSegment(segments[4]);
+		GeoFeature featureCopy = new GeoFeature(new GeoSegment[] {segments[3], segments[4]});
+		assertTrue(feature.equals(featureCopy) && feature.hashCode() == featureCopy.hashCode()
+			&& !feature.equals(new GeoFeature(segments[3])),
+			"Features are compared by their segments.");
+	}
+
+
+	@Test
+	public void testRouteBuilder() {
+		RouteBuilder builder = new RouteBuilder();
+		for (int i = 0; i <= 4; i++)
+			builder.addSegment(segments[i]);
+		Route built = builder.freeze();
+		assertTrue(built.equals(mShortRoute) && same(built.getLength(), mShortRoute.getLength()),
+			"Built route equals the route built with addSegment().");
+		assertTrue(countFeatures(built) == 3 && countSegments(built) == 5,
+			"Built route groups segments into features.");
+		assertTrue(built.addSegment(segments[5]).equals(mLongRoute) && countSegments(built) == 5,
+			"A built route can be extended with addSegment().");
+		assertTrue(builder.addSegment(segments[5]).freeze().equals(mLongRoute)
+			&& countSegments(built) == 5,
+			"Adding to the builder does not change a frozen route.");
+		assertThrows(IllegalArgumentException.class,
+			() -> new RouteBuilder().addSegment(segments[0]).addSegment(segments[5]),
+			"Disconnected segments are rejected.");
+	}
+
+
+	@Test
+	public void testGetGeoSegmentAt() {
+		double start = 0;
+		boolean found = true;
+		for (int i = 0; i <= 5; i++) {
+			double end = start + segments[i].getLength();
+			double middle = (start + end) / 2;
+			found &= mLongRoute.getGeoSegmentAt(start).equals(segments[i])
+				&& mLongRoute.getGeoSegmentAt(middle).equals(segments[i])
+				&& mLongRoute.getSegmentIndexAt(middle) == i;
+			start = end;
+		}
+		assertTrue(found, "Segment at a distance is the one that covers it.");
+		assertTrue(mLongRoute.getGeoSegmentAt(mLongRoute.getLength()).equals(segments[5]),
+			"Last segment is at the end of the route.");
+	}
+
+
+	@Test
+	public void testGetGeoFeatureAt() {
+		double trumpeldor = segments[0].getLength() + segments[1].getLength() / 2;
+		double hanita = mLongRoute.getLength() - segments[5].getLength() / 2;
+		assertTrue(mLongRoute.getGeoFeatureAt(0).getName().equals(segments[0].getName())
+			&& mLongRoute.getGeoFeatureAt(trumpeldor).getName().equals(segments[1].getName())
+			&& mLongRoute.getGeoFeatureAt(hanita).getName().equals(segments[5].getName()),
+			"Feature at a distance is the one that covers it.");
+	}
+
+
+	@Test
+	public void testGetPointAt() {
+		assertTrue(mLongRoute.getPointAt(0).equals(mLongRoute.getStart())
+			&& mLongRoute.getPointAt(mLongRoute.getLength()).equals(mLongRoute.getEnd())
+			&& mLongRoute.getPointAt(segments[0].getLength()).equals(segments[0].getP2()),
+			"Ends of segments are found exactly.");
+		GeoPoint middle = mLongRoute.getPointAt(segments[0].getLength() / 2);
+		assertTrue(same(middle.distanceTo(segments[0].getP1()), segments[0].getLength() / 2)
+			&& same(middle.distanceTo(segments[0].getP2()), segments[0].getLength() / 2),
+			"Point is interpolated along the segment.");
+	}
+
+
+	@Test
+	public void testGetRemainingLength() {
+		assertTrue(same(mLongRoute.getRemainingLength(0), mLongRoute.getLength())
+			&& same(mLongRoute.getRemainingLength(5), segments[5].getLength())
+			&& same(mShortRoute.getRemainingLength(4), segments[4].getLength()),
+			"Remaining length is summed from the start of the segment.");
+		assertThrows(IndexOutOfBoundsException.class, () -> mShortRoute.getRemainingLength(5),
+			"Only segments of the route have a remaining length.");
+		Route path = new RouteBuilder().addSegments(SyntheticGeoSegments.path(1000, 8)).freeze();
+		double remaining = path.getLength();
+		boolean consistent = true;
+		int k = 0;
+		for (Iterator<GeoSegment> i = path.getGeoSegments(); i.hasNext(); k++) {
+			consistent &= same(path.getRemainingLength(k), remaining);
+			remaining -= i.next().getLength();
+		}
+		assertTrue(consistent, "Remaining length agrees with a linear walk.");
+	}
+
+
+	double sumFeatureLengths(Route r) {
+		double sum = 0;
+		for (Iterator<GeoFeature> i = r.getGeoFeatures(); i.hasNext(); )
+			sum += i.next().getLength();
+		return sum;
+	}
+}
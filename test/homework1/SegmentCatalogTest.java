@@ -0,0 +1,83 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SegmentCatalogTest {
+
+    private GeoSegment[] mSegments;
+    private Path mFile;
+
+
+    public SegmentCatalogTest() throws IOException {
+        GeoSegment[] grid = SyntheticGeoSegments.grid(10, 10, 4);
+        mSegments = new GeoSegment[grid.length + ExampleGeoSegments.segments.length];
+        System.arraycopy(grid, 0, mSegments, 0, grid.length);
+        System.arraycopy(ExampleGeoSegments.segments, 0, mSegments, grid.length,
+                ExampleGeoSegments.segments.length);
+        mFile = Files.createTempFile("segments", ".catalog");
+    }
+
+
+    @AfterEach
+    public void delete() throws IOException {
+        Files.deleteIfExists(mFile);
+    }
+
+
+    private SegmentCatalog write(GeoSegment... segments) throws IOException {
+        try (SegmentCatalog.Writer writer = new SegmentCatalog.Writer(mFile)) {
+            for (GeoSegment gs : segments)
+                writer.add(gs);
+        }
+        return SegmentCatalog.open(mFile);
+    }
+
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        SegmentCatalog catalog = write(mSegments);
+        assertEquals(mSegments.length, catalog.size());
+        boolean same = true;
+        for (int i = 0; i < mSegments.length; i++) {
+            GeoSegment gs = mSegments[i];
+            same &= catalog.getSegment(i).equals(gs)
+                    && catalog.getLatitude1(i) == gs.getP1().getLatitude()
+                    && catalog.getLongitude2(i) == gs.getP2().getLongitude()
+                    && catalog.getLength(i) == gs.getLength()
+                    && catalog.getHeading(i) == gs.getHeading();
+        }
+        assertTrue(same, "Segments are read back with their lengths and headings.");
+        int last = mSegments.length - 1;
+        assertTrue(catalog.getName(last) == catalog.getName(last),
+                "Names are decoded once.");
+    }
+
+
+    @Test
+    public void testEmpty() throws IOException {
+        assertEquals(0, write().size());
+    }
+
+
+    @Test
+    public void testErrors() throws IOException {
+        Files.write(mFile, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IOException.class, () -> SegmentCatalog.open(mFile));
+        write(mSegments);
+        byte[] bytes = Files.readAllBytes(mFile);
+        Files.write(mFile, Arrays.copyOf(bytes, bytes.length - 100));
+        assertThrows(IOException.class, () -> SegmentCatalog.open(mFile));
+        SegmentCatalog.Writer writer = new SegmentCatalog.Writer(mFile);
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> writer.add(mSegments[0]));
+    }
+}
@@ -0,0 +1,101 @@
+package homework1;
+
+import java.util.Random;
+
+/**
+ * Generates synthetic GeoSegments near the Technion, for testing and
+ * benchmarking code on inputs larger than ExampleGeoSegments. This class
+ * is test support code: it is compiled with the tests, and shared with the
+ * JMH benchmarks through the test jar of the core module, so it is not
+ * part of the core jar.
+ */
+public class SyntheticGeoSegments {
+
+	/**
+	 * Creates a synthetic street grid near the Technion.
+	 * <p>
+	 * The grid has rows x columns intersections, roughly 100 meters apart,
+	 * each moved by a pseudo-random offset derived from seed so that
+	 * segments have different lengths and headings. Row i is a street named
+	 * "Row i" and column j is a street named "Column j". Each pair of
+	 * neighbouring intersections is joined by a single segment pointing
+	 * north or east.
+	 * 
+	 * @requires rows >= 1 && columns >= 1 && rows * columns >= 2
+	 * @return the 2 * rows * columns - rows - columns segments of the grid.
+	 */
+	public static GeoSegment[] grid(int rows, int columns, long seed) {
+		Random random = new Random(seed);
+		GeoPoint[][] p = new GeoPoint[rows][columns];
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				p[i][j] = new GeoPoint(32700000 + i * 900 + random.nextInt(300),
+						34950000 + j * 1070 + random.nextInt(350));
+			}
+		}
+		return connect(p, rows, columns);
+	}
+
+
+	/**
+	 * Creates a regular street grid near the Technion, like grid(rows,
+	 * columns, seed) but with intersections exactly 900 millionths of a
+	 * degree of latitude and 1070 of longitude apart. All the segments of
+	 * a row, and all those of a column, have the same length, so many
+	 * pairs of intersections have several shortest routes.
+	 *
+	 * @requires rows >= 1 && columns >= 1 && rows * columns >= 2
+	 * @return the 2 * rows * columns - rows - columns segments of the grid.
+	 */
+	public static GeoSegment[] grid(int rows, int columns) {
+		GeoPoint[][] p = new GeoPoint[rows][columns];
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				p[i][j] = new GeoPoint(32700000 + i * 900, 34950000 + j * 1070);
+			}
+		}
+		return connect(p, rows, columns);
+	}
+
+
+	/**
+	 * Joins each pair of neighbouring intersections of a grid with a
+	 * segment pointing north or east, named after its row or column.
+	 */
+	private static GeoSegment[] connect(GeoPoint[][] p, int rows, int columns) {
+		GeoSegment[] segments = new GeoSegment[2 * rows * columns - rows - columns];
+		int n = 0;
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				if (j + 1 < columns)
+					segments[n++] = new GeoSegment("Row " + i, p[i][j], p[i][j + 1]);
+				if (i + 1 < rows)
+					segments[n++] = new GeoSegment("Column " + j, p[i][j], p[i + 1][j]);
+			}
+		}
+		return segments;
+	}
+
+
+	/**
+	 * Returns a connected path heading north-east near the Ziv square,
+	 * alternating segments of about 10 meters north and 10 meters east. The
+	 * path changes street every segmentsPerStreet segments, and street k is
+	 * named "Street k".
+	 *
+	 * @requires length >= 1 && segmentsPerStreet >= 1
+	 * @return the length segments of the path, in order.
+	 */
+	public static GeoSegment[] path(int length, int segmentsPerStreet) {
+		GeoSegment[] segments = new GeoSegment[length];
+		GeoPoint p = new GeoPoint(32783098, 35014528);
+		for (int i = 0; i < length; i++) {
+			GeoPoint q = (i % 2 == 0)
+					? new GeoPoint(p.getLatitude() + 90, p.getLongitude())
+					: new GeoPoint(p.getLatitude(), p.getLongitude() + 107);
+			segments[i] = new GeoSegment("Street " + (i / segmentsPerStreet), p, q);
+			p = q;
+		}
+		return segments;
+	}
+}
@@ -0,0 +1,128 @@
+package homework1;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class TurnTypeTest {
+
+
+	/**
+	 * The turn instruction as RouteFormatter.getTurnString() used to
+	 * compute it, before turns were classified by TurnType.
+	 */
+	static String legacyTurnString(double origHeading, double newHeading) {
+		double angelsDiff = Math.abs(newHeading - origHeading);
+		double angelBetween = Math.min(angelsDiff, 360 - angelsDiff);
+		String direction;
+		if (origHeading <= 180)
+			direction = newHeading <= origHeading + 180 && newHeading >= origHeading ? "right" : "left";
+		else
+			direction = newHeading >= origHeading - 180 && newHeading <= origHeading ? "left" : "right";
+		if (angelBetween < 10)
+			return "Continue";
+		else if (angelBetween < 60)
+			return "Turn slight " + direction;
+		else if (angelBetween < 120)
+			return "Turn " + direction;
+		else if (angelBetween < 179)
+			return "Turn sharp " + direction;
+		return "U-turn";
+	}
+
+
+	/**
+	 * Returns the angle between two headings, between 0 and 180.
+	 */
+	static double angle(double heading1, double heading2) {
+		double a = Math.abs(heading1 - heading2);
+		return Math.min(a, 360 - a);
+	}
+
+
+	boolean same(double origHeading, double newHeading) {
+		return TurnType.of(origHeading, newHeading).getInstruction()
+			.equals(legacyTurnString(origHeading, newHeading));
+	}
+
+
+	@Test
+	public void testOf() {
+		assertTrue(TurnType.of(355, 3) == TurnType.CONTINUE, "Small change continues.");
+		assertTrue(TurnType.of(0, 30) == TurnType.SLIGHT_RIGHT
+			&& TurnType.of(300, 30) == TurnType.RIGHT && TurnType.of(0, 170) == TurnType.SHARP_RIGHT,
+			"Right turns.");
+		assertTrue(TurnType.of(30, 0) == TurnType.SLIGHT_LEFT
+			&& TurnType.of(30, 300) == TurnType.LEFT && TurnType.of(200, 30) == TurnType.SHARP_LEFT,
+			"Left turns.");
+		assertTrue(TurnType.of(90, 270) == TurnType.U_TURN
+			&& TurnType.of(270, 90) == TurnType.U_TURN && TurnType.of(10, 189.5) == TurnType.U_TURN,
+			"Opposite heading is a U-turn.");
+
+		boolean limits = true;
+		double[] angles = {0, 10, 60, 120, 179, 180};
+		for (double orig = 0; orig < 360; orig += 0.5)
+			for (double a : angles)
+				for (double delta : new double[] {a, Math.nextDown(a), Math.nextUp(a), -a,
+						-Math.nextDown(a), -Math.nextUp(a)}) {
+					double h = orig + delta;
+					h = h < 0 ? h + 360 : h >= 360 ? h - 360 : h;
+					if (h >= 0 && h < 360)
+						limits &= same(orig, h);
+				}
+		assertTrue(limits, "Turns at the limits are classified like before.");
+		Random random = new Random(4);
+		boolean randoms = true;
+		for (int i = 0; i < 1000000; i++)
+			randoms &= same(random.nextDouble() * 360, random.nextDouble() * 360);
+		assertTrue(randoms, "Random turns are classified like before.");
+	}
+
+
+	@Test
+	public void testFastHeadings() {
+		// consecutive segments of random routes near the Technion
+		Random random = new Random(5);
+		RouteFormatter formatter = new DrivingRouteFormatter();
+		double maxError = 0;
+		int changed = 0;
+		int nearLimit = 0;
+		boolean explained = true;
+		GeoPoint p1 = new GeoPoint(32783098, 35014528);
+		GeoPoint p2 = new GeoPoint(32787081, 35020735);
+		for (int i = 0; i < 1000000; i++) {
+			GeoPoint p3 = new GeoPoint(32783098 + random.nextInt(20000) - 10000,
+				35014528 + random.nextInt(20000) - 10000);
+			if (p3.equals(p2))
+				continue;
+			double exact1 = p1.headingTo(p2), exact2 = p2.headingTo(p3);
+			double fast1 = p1.fastHeadingTo(p2), fast2 = p2.fastHeadingTo(p3);
+			maxError = Math.max(maxError, Math.max(angle(exact1, fast1), angle(exact2, fast2)));
+			// a turn may only change if it is within the error of both
+			// headings from a limit between turns
+			double a = angle(exact1, exact2);
+			boolean near = false;
+			for (double limit : new double[] {10, 60, 120, 179})
+				near |= Math.abs(a - limit) <= 2 * GeoPoint.FAST_HEADING_MAX_ERROR;
+			if (near)
+				nearLimit++;
+			if (!formatter.getTurnString(fast1, fast2).equals(formatter.getTurnString(exact1, exact2))) {
+				changed++;
+				explained &= near;
+			}
+			p1 = p2;
+			p2 = p3;
+		}
+		assertTrue(maxError <= GeoPoint.FAST_HEADING_MAX_ERROR,
+			"Fast headings are within " + GeoPoint.FAST_HEADING_MAX_ERROR
+			+ " degrees of exact headings (" + maxError + ").");
+		assertTrue(explained, "Turns only change within the error of a limit (" + changed + " of "
+			+ nearLimit + " turns near a limit changed).");
+		GeoSegment fast = new GeoSegment("Fast", p1, p2, true);
+		assertTrue(fast.getHeading() == p1.fastHeadingTo(p2)
+			&& fast.reverse().getHeading() == p2.fastHeadingTo(p1)
+			&& fast.equals(new GeoSegment("Fast", p1, p2)),
+			"Segments can use fast headings.");
+	}
+}